@@ -15,7 +15,12 @@ public final class GUIConstants {
 	/**
 	 * Framerate at which to re-draw the screen, in frames per (real) second
 	 */
-	public static final int FRAMERATE = 15; // fps
+	public static final int FRAMERATE = 60; // fps
+
+	/**
+	 * Rate at which the game is simulated, in steps per (real) second
+	 */
+	public static final int SIMULATION_RATE = 60;
 
 	/**
 	 * Time (in worm-seconds) that elapses in 1 real second
@@ -2,10 +2,9 @@ package worms.gui;
 
 import java.util.Collection;
 import java.util.Random;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
+import worms.gui.game.PlayGameScreen;
 import worms.gui.game.commands.Command;
 import worms.model.IFacade;
 import worms.model.World;
@@ -16,8 +15,14 @@ public class GameState {
 	private final Random random;
 	private final IFacade facade;
 
-	private final BlockingQueue<Double> timeDelta = new LinkedBlockingQueue<Double>(
-			1);
+	// real time (in nanoseconds) between two simulation steps
+	private volatile long stepNanos = 1000000000L / GUIConstants.SIMULATION_RATE;
+
+	// real time (in nanoseconds) up to which a command has been simulated,
+	// in steps of the given length
+	private volatile long simulatedUntil;
+	private volatile long simulatedStep;
+	private volatile boolean simulating = false;
 
 	private World world;
 
@@ -32,7 +37,7 @@ public class GameState {
 	public synchronized void createWorld() {
 		level.load();
 		world = facade.createWorld(level.getWorldWidth(),
-				level.getWorldHeight(), level.getPassableMap(), random);
+				level.getWorldHeight(), level.getPassableBitMap(), random);
 	}
 
 	public IFacade getFacade() {
@@ -43,31 +48,67 @@ public class GameState {
 		return getFacade().getWorms(getWorld());
 	}
 
-	public void evolve(double dt) {
-		timeDelta.clear(); // nobody was waiting for the previous tick, so
-		// clear it
-		timeDelta.offer(dt);
+	/**
+	 * Number of simulation steps per (real) second
+	 */
+	public int getSimulationRate() {
+		return (int) (1000000000L / stepNanos);
+	}
+
+	public void setSimulationRate(int stepsPerSecond) {
+		if (stepsPerSecond <= 0) {
+			throw new IllegalArgumentException("Illegal simulation rate: "
+					+ stepsPerSecond);
+		}
+		this.stepNanos = 1000000000L / stepsPerSecond;
 	}
 
+	/**
+	 * Executes the given command in steps of fixed length, until it is
+	 * terminated. When this thread falls behind (e.g., during a GC pause), all
+	 * steps that are due are taken at once, so no time is lost.
+	 */
 	public boolean executeImmediately(Command cmd) {
-		cmd.startExecution();
-		while (!cmd.isTerminated()) {
-			try {
-				Double dt = timeDelta.poll(1000 / GUIConstants.FRAMERATE,
-						TimeUnit.MILLISECONDS); // blocks, but allows repainting
-												// if necessary
-				if (dt != null) {
+		PlayGameScreen screen = cmd.getScreen();
+		long step = stepNanos;
+		double dt = step / 1e9 * GUIConstants.TIME_SCALE;
+		screen.saveSpriteLocations();
+		simulatedUntil = System.nanoTime();
+		simulatedStep = step;
+		simulating = true;
+		try {
+			cmd.startExecution();
+			while (!cmd.isTerminated()) {
+				long now = System.nanoTime();
+				while (!cmd.isTerminated() && now - simulatedUntil >= step) {
+					screen.saveSpriteLocations();
 					cmd.update(dt);
+					simulatedUntil += step;
 				}
-				cmd.getScreen().repaint(); // repaint while executing command
-											// (which might block GUI thread)
-			} catch (InterruptedException e) {
-				e.printStackTrace();
+				screen.repaint(); // repaint while executing command
+									// (which might block GUI thread)
+				LockSupport.parkNanos(simulatedUntil + step - System.nanoTime());
 			}
+		} finally {
+			simulating = false;
 		}
 		return cmd.isExecutionCompleted();
 	}
 
+	/**
+	 * Fraction of a simulation step that has passed since the last step was
+	 * taken, or 1 if no command is being executed. Sprites are drawn this far
+	 * between their locations at the previous and at the last step.
+	 */
+	public double getInterpolation() {
+		if (!simulating) {
+			return 1.0;
+		}
+		double result = (double) (System.nanoTime() - simulatedUntil)
+				/ simulatedStep;
+		return Math.max(0.0, Math.min(1.0, result));
+	}
+
 	public Level getLevel() {
 		return level;
 	}
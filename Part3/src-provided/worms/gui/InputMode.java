@@ -33,6 +33,14 @@ public class InputMode<ScreenType extends Screen> implements KeyListener, MouseL
 	public void paintOverlay(Graphics2D g) {
 	}
 
+	/**
+	 * Returns whether paintOverlay draws anything in this mode.
+	 * Screens repaint everything while an overlay is shown.
+	 */
+	public boolean hasOverlay() {
+		return false;
+	}
+
 	@Override
 	public void keyPressed(KeyEvent e) {
 	}
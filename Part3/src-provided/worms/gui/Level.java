@@ -13,6 +13,8 @@ import java.util.List;
 
 import javax.imageio.ImageIO;
 
+import worms.model.PassableMap;
+
 public class Level {
 
 	private static final String LEVELS_DIRECTORY = "levels";
@@ -133,6 +135,8 @@ public class Level {
 	}
 
 	protected void readFile(BufferedReader reader) throws IOException {
+		this.passableBitMap = null;
+		this.mapMipmap = null;
 		this.mapImage = ImageIO.read(GUIUtils.openResource(LEVELS_DIRECTORY
 				+ "/" + readAsKeyVal(reader, "map")));
 		try {
@@ -167,6 +171,19 @@ public class Level {
 		return mapImage;
 	}
 
+	/**
+	 * Map image of this level at every power-of-two reduction, built once
+	 * and shared afterwards.
+	 */
+	public synchronized MipmapImage getMapMipmap() {
+		if (mapMipmap == null) {
+			mapMipmap = new MipmapImage(mapImage);
+		}
+		return mapMipmap;
+	}
+
+	private MipmapImage mapMipmap;
+
 	public int getMapHeight() {
 		return mapImage.getHeight();
 	}
@@ -193,25 +210,45 @@ public class Level {
 	}
 
 	public boolean[][] getPassableMap() {
-		final boolean[][] result = new boolean[getMapHeight()][getMapWidth()];
+		return getPassableBitMap().toArray();
+	}
+
+	/**
+	 * Passable map of this level, one bit per map pixel.
+	 * The map is built once, a 64-pixel word at a time, and shared afterwards.
+	 */
+	public synchronized PassableMap getPassableBitMap() {
+		if (passableBitMap == null) {
+			passableBitMap = createPassableBitMap();
+		}
+		return passableBitMap;
+	}
+
+	private PassableMap createPassableBitMap() {
 		final byte[] bytes = ((DataBufferByte) mapImage.getRaster()
 				.getDataBuffer()).getData();
 		final int w = getMapWidth();
 		final int h = getMapHeight();
+		final PassableMap result = new PassableMap(w, h);
+		final long[] rowWords = new long[(w + 63) / 64];
 		for (int row = 0; row < h; row++) {
 			final int offset = w * row;
+			Arrays.fill(rowWords, 0L);
 			for (int col = 0; col < w; col++) {
 				final byte alpha = bytes[4 * (offset + col)];
 				// alpha < 128 ((alpha & 0xf) == 0) => passable
 				// alpha >= 128 ((alpha & 0xf) != 0) => impassable
 				if (((int) alpha & 0xf0) == 0) {
-					result[row][col] = true;
+					rowWords[col >>> 6] |= 1L << col;
 				}
 			}
+			result.setRow(row, rowWords);
 		}
 		return result;
 	}
 
+	private PassableMap passableBitMap;
+
 	/**
 	 * map width / map height
 	 */
@@ -0,0 +1,113 @@
+package worms.gui;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An image together with copies of it at half, a quarter, ... of its size,
+ * down to a single pixel. All copies are in a format the screen can draw
+ * quickly. Drawing at some size starts from the smallest copy that is at
+ * least that large, so shrinking never has to look at the whole original.
+ */
+public class MipmapImage {
+
+	private final BufferedImage[] levels;
+
+	public MipmapImage(BufferedImage image) {
+		List<BufferedImage> result = new ArrayList<BufferedImage>();
+		BufferedImage level = createCompatibleImage(image.getWidth(),
+				image.getHeight());
+		Graphics2D g = level.createGraphics();
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+		result.add(level);
+		while (level.getWidth() > 1 || level.getHeight() > 1) {
+			level = halve(level);
+			result.add(level);
+		}
+		this.levels = result.toArray(new BufferedImage[result.size()]);
+	}
+
+	/**
+	 * Each pixel of the result averages (at most) four pixels of the given image
+	 */
+	private static BufferedImage halve(BufferedImage image) {
+		BufferedImage result = createCompatibleImage(
+				Math.max(1, image.getWidth() / 2),
+				Math.max(1, image.getHeight() / 2));
+		Graphics2D g = result.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+				RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.drawImage(image, 0, 0, result.getWidth(), result.getHeight(), null);
+		g.dispose();
+		return result;
+	}
+
+	public static BufferedImage createCompatibleImage(int width, int height) {
+		if (GraphicsEnvironment.isHeadless()) {
+			return new BufferedImage(width, height,
+					BufferedImage.TYPE_INT_ARGB_PRE);
+		}
+		return GraphicsEnvironment.getLocalGraphicsEnvironment()
+				.getDefaultScreenDevice().getDefaultConfiguration()
+				.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+	}
+
+	public int getWidth() {
+		return levels[0].getWidth();
+	}
+
+	public int getHeight() {
+		return levels[0].getHeight();
+	}
+
+	public int getNbLevels() {
+		return levels.length;
+	}
+
+	/**
+	 * Level 0 is the full image, each next level is half as large
+	 */
+	public BufferedImage getLevel(int index) {
+		return levels[index];
+	}
+
+	/**
+	 * Smallest level that is at least as large as the given size, or the full
+	 * image if the given size is larger than it
+	 */
+	public BufferedImage getLevelFor(int width, int height) {
+		int index = 0;
+		while (index + 1 < levels.length
+				&& levels[index + 1].getWidth() >= width
+				&& levels[index + 1].getHeight() >= height) {
+			index++;
+		}
+		return levels[index];
+	}
+
+	/**
+	 * Draws this image on the given graphics, scaled to the given size
+	 */
+	public void drawScaled(Graphics2D g, int x, int y, int width, int height) {
+		BufferedImage level = getLevelFor(width, height);
+		Object oldHint = g.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+		if (width > level.getWidth() || height > level.getHeight()) {
+			// enlarging: keep the pixels of small maps sharp
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+		} else {
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		}
+		g.drawImage(level, x, y, width, height, null);
+		if (oldHint != null) {
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, oldHint);
+		}
+	}
+}
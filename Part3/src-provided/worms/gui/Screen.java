@@ -99,6 +99,23 @@ public abstract class Screen {
 		if (message != null && messagePainter != null) {
 			messagePainter.paintMessage(g, message);
 		}
+		showingMessage = message != null;
+	}
+
+	private volatile boolean showingMessage;
+
+	/**
+	 * Returns whether a message was shown the last time this screen was painted
+	 */
+	protected boolean isShowingMessage() {
+		return showingMessage;
+	}
+
+	/**
+	 * Returns whether there are messages waiting to be shown, or being shown
+	 */
+	protected boolean hasMessages() {
+		return messageDisplay.hasMessages();
 	}
 
 	public void addMessage(String message, MessageType type) {
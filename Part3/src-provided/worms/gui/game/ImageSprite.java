@@ -3,21 +3,17 @@ package worms.gui.game;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.io.InputStream;
-
-import javax.imageio.ImageIO;
-
-import worms.gui.GUIUtils;
 
 public abstract class ImageSprite<T> extends Sprite<T> {
 
+	private final String filename;
+
 	// original image, at original scale
 	private final BufferedImage originalImage;
 
-	// only created when scale != 1.0
+	// shared with all sprites of the same file drawn at the same size
 	private BufferedImage scaledImage;
-	// only create when necessary
+	// only looked up when necessary
 	private BufferedImage scaledImageHflipped;
 
 	private boolean hflipped = false;
@@ -27,7 +23,8 @@ public abstract class ImageSprite<T> extends Sprite<T> {
 	protected ImageSprite(PlayGameScreen screen, String filename) {
 		super(screen);
 		this.scale = 1.0;
-		this.originalImage = loadImage(filename);
+		this.filename = filename;
+		this.originalImage = SpriteAtlas.getOriginal(filename);
 		this.scaledImage = originalImage;
 	}
 
@@ -56,19 +53,20 @@ public abstract class ImageSprite<T> extends Sprite<T> {
 
 		this.scale = newScale;
 		if (newScale != 1.0) {
-			this.scaledImage = toBufferedImage(originalImage.getScaledInstance(
-					(int) (newScale * originalImage.getWidth()),
-					(int) (newScale * originalImage.getHeight()),
-					Image.SCALE_SMOOTH));
+			this.scaledImage = SpriteAtlas.getScaled(filename,
+					getScaledWidth(), getScaledHeight(), false);
 		} else {
 			this.scaledImage = originalImage;
 		}
+		this.scaledImageHflipped = null;
+	}
 
-		if (isHflipped()) {
-			this.scaledImageHflipped = hflip(this.scaledImage);
-		} else {
-			this.scaledImageHflipped = null;
-		}
+	private int getScaledWidth() {
+		return (int) (scale * originalImage.getWidth());
+	}
+
+	private int getScaledHeight() {
+		return (int) (scale * originalImage.getHeight());
 	}
 
 	public double getScale() {
@@ -79,25 +77,14 @@ public abstract class ImageSprite<T> extends Sprite<T> {
 		Image imageToDraw = scaledImage;
 		if (isHflipped()) {
 			if (scaledImageHflipped == null) {
-				scaledImageHflipped = hflip(scaledImage);
+				scaledImageHflipped = SpriteAtlas.getScaled(filename,
+						scaledImage.getWidth(), scaledImage.getHeight(), true);
 			}
 			imageToDraw = scaledImageHflipped;
 		}
 		return imageToDraw;
 	}
 
-	protected BufferedImage loadImage(String filename) {
-		try {
-			InputStream inputStream = GUIUtils.openResource(filename);
-			BufferedImage result = ImageIO.read(inputStream);
-			inputStream.close();
-			return result;
-		} catch (IOException e) {
-			throw new RuntimeException(
-					"Could not read file '" + filename + "'", e);
-		}
-	}
-
 	public void setHflipped(boolean value) {
 		hflipped = value;
 	}
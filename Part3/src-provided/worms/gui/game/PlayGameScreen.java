@@ -1,13 +1,16 @@
 package worms.gui.game;
 
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
 
 import worms.gui.GUIConstants;
 import worms.gui.GUIUtils;
@@ -63,34 +66,45 @@ public class PlayGameScreen extends Screen {
 		runGameLoop();
 	}
 
-	final AtomicLong lastUpdateTimestamp = new AtomicLong();
+	private volatile boolean gameLoopRunning = false;
 
-	final TimerTask gameLoop = new TimerTask() {
+	/**
+	 * Repaints the screen at the frame rate. The game itself is simulated by
+	 * the thread that executes commands (see GameState#executeImmediately).
+	 * Frames that are late are skipped, rather than painted in a burst.
+	 */
+	final Runnable gameLoop = new Runnable() {
 
 		@Override
 		public void run() {
-			long now = System.currentTimeMillis();
-			long delta = now - lastUpdateTimestamp.getAndSet(now);
-			double dt = delta / 1000.0 * GUIConstants.TIME_SCALE;
-			gameState.evolve(dt);
-			repaint();
+			long frame = 1000000000L / GUIConstants.FRAMERATE;
+			long next = System.nanoTime();
+			while (gameLoopRunning) {
+				repaint();
+				next += frame;
+				long delay = next - System.nanoTime();
+				if (delay > 0) {
+					LockSupport.parkNanos(delay);
+				} else {
+					next = System.nanoTime();
+				}
+			}
 		}
 	};
 	private Worm currentWorm;
 
 	private void runGameLoop() {
-		Timer timer = new Timer();
 		Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
 			@Override
 			public void uncaughtException(Thread t, Throwable e) {
-				gameLoop.cancel();
+				gameLoopRunning = false;
 				e.printStackTrace();
 				getGUI().showError(
 						e.getClass().getName() + ": " + e.getMessage());
 			}
 		});
-		lastUpdateTimestamp.set(System.currentTimeMillis());
-		timer.scheduleAtFixedRate(gameLoop, 0, 1000 / GUIConstants.FRAMERATE);
+		gameLoopRunning = true;
+		new Thread(gameLoop, "Game loop").start();
 	}
 
 	public void gameFinished() {
@@ -99,7 +113,7 @@ public class PlayGameScreen extends Screen {
 						+ getFacade().getWinner(getWorld())
 						+ "\n\nPress 'R' to start another game, or 'ESC' to quit.",
 				MessageType.NORMAL);
-		gameLoop.cancel();
+		gameLoopRunning = false;
 		switchInputMode(new GameOverMode(this, getCurrentInputMode()));
 	}
 
@@ -112,6 +126,16 @@ public class PlayGameScreen extends Screen {
 		currentWorm = getFacade().getCurrentWorm(getWorld());
 	}
 
+	/**
+	 * Remembers the current location of all sprites, as their location at the
+	 * previous simulation step.
+	 */
+	public synchronized void saveSpriteLocations() {
+		for (Sprite<?> sprite : sprites) {
+			sprite.saveLocation();
+		}
+	}
+
 	protected void removeInactiveSprites() {
 		for (Sprite<?> sprite : new ArrayList<Sprite<?>>(sprites)) {
 			if (!sprite.isObjectAlive()) {
@@ -253,9 +277,64 @@ public class PlayGameScreen extends Screen {
 
 	@Override
 	protected void paintScreen(Graphics2D g) {
+		InputMode<PlayGameScreen> inputMode = getCurrentInputMode();
+		showingOverlay = inputMode != null && inputMode.hasOverlay();
 		painter.paint(g);
 	}
 
+	private volatile boolean showingOverlay;
+
+	private final AtomicBoolean repaintPending = new AtomicBoolean();
+
+	// fixed for each repaint, so all sprites are painted at the same moment
+	private volatile double interpolation = 1.0;
+
+	/**
+	 * Fraction of a simulation step at which sprites are currently painted
+	 * (see GameState#getInterpolation)
+	 */
+	public double getInterpolation() {
+		return interpolation;
+	}
+
+	private final Runnable repaintChanges = new Runnable() {
+		@Override
+		public void run() {
+			repaintChanges();
+		}
+	};
+
+	/**
+	 * Repaints the parts of the screen that changed since it was last painted.
+	 * Everything is repainted while messages or overlays are shown, since those
+	 * may change without any sprite changing.
+	 */
+	@Override
+	public void repaint() {
+		if (SwingUtilities.isEventDispatchThread()) {
+			repaintChanges();
+		} else if (repaintPending.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(repaintChanges);
+		}
+	}
+
+	private void repaintChanges() {
+		repaintPending.set(false);
+		interpolation = getGameState().getInterpolation();
+		JComponent contents = getContents();
+		InputMode<PlayGameScreen> inputMode = getCurrentInputMode();
+		if (!painter.tracksDamage() || hasMessages() || isShowingMessage()
+				|| showingOverlay || (inputMode != null && inputMode.hasOverlay())) {
+			contents.paintImmediately(contents.getVisibleRect());
+		} else {
+			Rectangle damage = painter.getDamage();
+			if (damage != null) {
+				contents.paintImmediately(damage.intersection(contents
+						.getVisibleRect()));
+			}
+		}
+	}
+
 	public static PlayGameScreen create(WormsGUI gui, GameState gameState,
 			boolean debugMode) {
 		if (!debugMode) {
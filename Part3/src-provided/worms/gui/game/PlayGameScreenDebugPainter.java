@@ -33,6 +33,12 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 		super.paint(g);
 	}
 
+	@Override
+	public boolean tracksDamage() {
+		// worms are drawn with more markers, and the jump markers of every worm
+		return false;
+	}
+
 	@Override
 	protected void paintLevel() {
 		super.paintLevel();
@@ -2,20 +2,29 @@ package worms.gui.game;
 
 import java.awt.Color;
 import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.Graphics2D;
-import java.awt.Image;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
 import java.awt.Shape;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
 
+import javax.swing.JComponent;
+
 import worms.gui.AbstractPainter;
 import worms.gui.GUIUtils;
 import worms.gui.GameState;
 import worms.gui.Level;
+import worms.gui.MipmapImage;
 import worms.gui.game.sprites.FoodSprite;
 import worms.gui.game.sprites.ProjectileSprite;
 import worms.gui.game.sprites.WormSprite;
@@ -62,19 +71,60 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 	protected static final int JUMP_MARKER_SIZE = 1;
 	protected static final double DIRECTION_INDICATOR_SIZE = 10;
 
+	// extra pixels around the bounds of a sprite, for antialiasing and outlines
+	protected static final int BOUNDS_MARGIN = 4;
+
 	protected Graphics2D currentGraphics;
-	private Image scaledImage;
+
+	// the black screen with the scaled level drawn on it
+	private BufferedImage backgroundLayer;
+
+	// for each sprite, what it looked like and where it was when it was last
+	// painted; a sprite without a state must be painted again
+	private Map<Sprite<?>, PaintedSprite> paintedSprites = new HashMap<Sprite<?>, PaintedSprite>();
+	private int paintedWidth = -1;
+	private int paintedHeight = -1;
+
+	private static class PaintedSprite {
+		private final Object state;
+		private final Rectangle bounds;
+
+		private PaintedSprite(Object state, Rectangle bounds) {
+			this.state = state;
+			this.bounds = bounds;
+		}
+	}
 
 	public PlayGameScreenPainter(PlayGameScreen screen) {
 		super(screen);
 	}
 
-	private void createBackgroundImage() {
-		if (scaledImage == null) {
-			scaledImage = GUIUtils.scaleTo(getState().getLevel().getMapImage(),
-					getScreen().getScreenWidth(),
-					getScreen().getScreenHeight(), Image.SCALE_SMOOTH);
+	private void createBackgroundLayer() {
+		int width = getScreen().getScreenWidth();
+		int height = getScreen().getScreenHeight();
+		if (backgroundLayer != null && backgroundLayer.getWidth() == width
+				&& backgroundLayer.getHeight() == height) {
+			return;
+		}
+		JComponent contents = getScreen().getContents();
+		GraphicsConfiguration configuration = contents.getGraphicsConfiguration();
+		if (configuration != null) {
+			backgroundLayer = configuration.createCompatibleImage(width, height);
+		} else {
+			backgroundLayer = new BufferedImage(width, height,
+					BufferedImage.TYPE_INT_RGB);
 		}
+		Graphics2D layerGraphics = backgroundLayer.createGraphics();
+		layerGraphics.setColor(contents.getBackground());
+		layerGraphics.fillRect(0, 0, width, height);
+		MipmapImage map = getLevel().getMapMipmap();
+		double ratio = Math.min((double) height / map.getHeight(),
+				(double) width / map.getWidth());
+		int x = (int) getScreenX(0);
+		int y = (int) getScreenY(getLevel().getWorldHeight());
+		map.drawScaled(layerGraphics, x, y, (int) (ratio * map.getWidth()),
+				(int) (ratio * map.getHeight()));
+		layerGraphics.dispose();
 	}
 
 	protected GameState getState() {
@@ -91,28 +141,192 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 
 	public void paint(Graphics2D g) {
 		this.currentGraphics = g;
+		Rectangle clip = g.getClipBounds();
+		Map<Sprite<?>, PaintedSprite> painted = new HashMap<Sprite<?>, PaintedSprite>();
 
 		paintLevel();
 
 		for (FoodSprite sprite : getScreen().getSpritesOfType(FoodSprite.class)) {
-			paintFood(sprite);
+			if (preparePaint(sprite, clip, painted)) {
+				paintFood(sprite);
+			}
 		}
 
 		for (WormSprite sprite : getScreen().getSpritesOfType(WormSprite.class)) {
-			if (sprite.getWorm() == getScreen().getSelectedWorm()) {
-				drawSelection(sprite);
+			if (preparePaint(sprite, clip, painted)) {
+				if (sprite.getWorm() == getScreen().getSelectedWorm()) {
+					drawSelection(sprite);
+				}
+				paintWorm(sprite);
 			}
-			paintWorm(sprite);
 		}
 
 		for (ProjectileSprite sprite : getScreen().getSpritesOfType(
 				ProjectileSprite.class)) {
-			paintProjectile(sprite);
+			if (preparePaint(sprite, clip, painted)) {
+				paintProjectile(sprite);
+			}
 		}
 
+		// sprites that are gone leave their last image behind outside the clip
+		for (Map.Entry<Sprite<?>, PaintedSprite> entry : paintedSprites
+				.entrySet()) {
+			Rectangle bounds = entry.getValue().bounds;
+			if (!painted.containsKey(entry.getKey()) && clip != null
+					&& !clip.contains(bounds)) {
+				painted.put(entry.getKey(), new PaintedSprite(null, bounds));
+			}
+		}
+		this.paintedSprites = painted;
+		this.paintedWidth = getScreen().getScreenWidth();
+		this.paintedHeight = getScreen().getScreenHeight();
+
 		this.currentGraphics = null;
 	}
 
+	/**
+	 * Registers how the given sprite is painted within the given clip, and
+	 * returns whether it needs to be painted at all.
+	 */
+	private boolean preparePaint(Sprite<?> sprite, Rectangle clip,
+			Map<Sprite<?>, PaintedSprite> painted) {
+		Object state = getPaintState(sprite);
+		Rectangle bounds = getPaintBounds(sprite);
+		PaintedSprite old = paintedSprites.get(sprite);
+		if (old != null && state.equals(old.state) && bounds.equals(old.bounds)) {
+			painted.put(sprite, old);
+		} else if (clip == null
+				|| (clip.contains(bounds) && (old == null || clip
+						.contains(old.bounds)))) {
+			painted.put(sprite, new PaintedSprite(state, bounds));
+		} else {
+			// only partly painted over, so paint it again next time
+			painted.put(sprite, new PaintedSprite(null, old == null ? bounds
+					: bounds.union(old.bounds)));
+		}
+		return clip == null || clip.intersects(bounds);
+	}
+
+	/**
+	 * Returns whether this painter only needs to repaint the area returned by
+	 * getDamage when sprites change.
+	 */
+	public boolean tracksDamage() {
+		return true;
+	}
+
+	/**
+	 * Returns the area of the screen that changed since it was last painted,
+	 * or null if nothing changed. Each changed sprite adds the area where it
+	 * was painted and the area where it will be painted.
+	 */
+	public Rectangle getDamage() {
+		if (paintedWidth != getScreen().getScreenWidth()
+				|| paintedHeight != getScreen().getScreenHeight()) {
+			return new Rectangle(0, 0, getScreen().getScreenWidth(),
+					getScreen().getScreenHeight());
+		}
+		Rectangle result = null;
+		List<Sprite<?>> sprites = new ArrayList<Sprite<?>>();
+		sprites.addAll(getScreen().getSpritesOfType(FoodSprite.class));
+		sprites.addAll(getScreen().getSpritesOfType(WormSprite.class));
+		sprites.addAll(getScreen().getSpritesOfType(ProjectileSprite.class));
+		for (Sprite<?> sprite : sprites) {
+			Rectangle bounds = getPaintBounds(sprite);
+			PaintedSprite old = paintedSprites.get(sprite);
+			if (old == null) {
+				result = union(result, bounds);
+			} else if (!getPaintState(sprite).equals(old.state)
+					|| !bounds.equals(old.bounds)) {
+				result = union(union(result, old.bounds), bounds);
+			}
+		}
+		for (Map.Entry<Sprite<?>, PaintedSprite> entry : paintedSprites
+				.entrySet()) {
+			if (!sprites.contains(entry.getKey())) {
+				result = union(result, entry.getValue().bounds);
+			}
+		}
+		return result;
+	}
+
+	private static Rectangle union(Rectangle first, Rectangle second) {
+		return first == null ? second : first.union(second);
+	}
+
+	/**
+	 * Returns everything that determines what the given sprite looks like on
+	 * screen; a sprite only needs repainting when this changes.
+	 */
+	protected Object getPaintState(Sprite<?> sprite) {
+		if (sprite instanceof WormSprite) {
+			WormSprite worm = (WormSprite) sprite;
+			boolean selected = worm.getWorm() == getScreen().getSelectedWorm();
+			return Arrays.<Object> asList(worm.getCenterX(),
+					worm.getCenterY(), worm.getScale(), worm.isHflipped(),
+					getNameText(worm), worm.getActionPoints(),
+					worm.getMaxActionPoints(), worm.getHitPoints(),
+					worm.getMaxHitPoints(), selected,
+					selected ? worm.getOrientation() : null,
+					selected ? worm.isAtImpassableTerrain() : null,
+					selected ? worm.getJumpSteps() : null);
+		} else if (sprite instanceof ImageSprite) {
+			ImageSprite<?> image = (ImageSprite<?>) sprite;
+			return Arrays.<Object> asList(image.getCenterX(),
+					image.getCenterY(), image.getScale(), image.isHflipped());
+		} else {
+			// the trail of a projectile fades every frame
+			return new Object();
+		}
+	}
+
+	/**
+	 * Returns the area of the screen the given sprite covers when painted,
+	 * including the bars and markers drawn around worms.
+	 */
+	protected Rectangle getPaintBounds(Sprite<?> sprite) {
+		Rectangle2D result = sprite.getBounds();
+		if (sprite instanceof WormSprite) {
+			WormSprite worm = (WormSprite) sprite;
+			double x = worm.getCenterX();
+			double y = worm.getCenterY();
+			double width = worm.getWidth(null);
+			double height = worm.getHeight(null);
+
+			JComponent contents = getScreen().getContents();
+			FontMetrics metrics = contents.getFontMetrics(contents.getFont());
+			Rectangle2D text = metrics.getStringBounds(getNameText(worm), null);
+			result.add(new Rectangle2D.Double(x - text.getWidth() / 2
+					- TEXT_BAR_H_MARGIN, y - height / 2 - TEXT_BAR_V_OFFSET
+					- text.getHeight() - TEXT_BAR_V_MARGIN, text.getWidth() + 2
+					* TEXT_BAR_H_MARGIN, text.getHeight() + 2 * TEXT_BAR_V_MARGIN));
+
+			result.add(new Rectangle2D.Double(x - ACTION_BAR_WIDTH / 2, y
+					+ height / 2, ACTION_BAR_WIDTH, 2 * ACTION_BAR_HEIGHT));
+
+			if (worm.getWorm() == getScreen().getSelectedWorm()) {
+				double reach = Math.max(width, height) / 2
+						+ DIRECTION_INDICATOR_SIZE;
+				result.add(new Rectangle2D.Double(x - reach, y - reach,
+						2 * reach, 2 * reach));
+				double[][] xys = worm.getJumpSteps();
+				if (xys != null) {
+					for (double[] xy : xys) {
+						if (xy != null) {
+							result.add(new Rectangle2D.Double(getScreenX(xy[0])
+									- JUMP_MARKER_SIZE, getScreenY(xy[1])
+									- JUMP_MARKER_SIZE, 2 * JUMP_MARKER_SIZE,
+									2 * JUMP_MARKER_SIZE));
+						}
+					}
+				}
+			}
+		}
+		Rectangle bounds = result.getBounds();
+		bounds.grow(BOUNDS_MARGIN, BOUNDS_MARGIN);
+		return bounds;
+	}
+
 	protected void paintProjectile(ProjectileSprite sprite) {
 		sprite.draw(currentGraphics);
 	}
@@ -122,11 +336,12 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 	}
 
 	protected void paintLevel() {
-		createBackgroundImage();
-
-		int x = (int) getScreenX(0);
-		int y = (int) getScreenY(getLevel().getWorldHeight());
-		currentGraphics.drawImage(scaledImage, x, y, null);
+		if (getScreen().getScreenWidth() <= 0
+				|| getScreen().getScreenHeight() <= 0) {
+			return;
+		}
+		createBackgroundLayer();
+		currentGraphics.drawImage(backgroundLayer, 0, 0, null);
 	}
 
 	protected double getScreenX(double x) {
@@ -152,8 +367,7 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 		}
 	}
 
-	protected void drawName(WormSprite sprite) {
-		final double voffset = sprite.getHeight(currentGraphics) / 2;
+	protected String getNameText(WormSprite sprite) {
 		String name = sprite.getName();
 
 		if (name == null) {
@@ -170,6 +384,12 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 		if (teamName != null) {
 			name += " (" + teamName + ")";
 		}
+		return name;
+	}
+
+	protected void drawName(WormSprite sprite) {
+		final double voffset = sprite.getHeight(currentGraphics) / 2;
+		String name = getNameText(sprite);
 
 		Rectangle2D bounds = currentGraphics.getFontMetrics().getStringBounds(
 				name, currentGraphics);
@@ -1,6 +1,7 @@
 package worms.gui.game;
 
 import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
 
 import worms.model.IFacade;
 
@@ -8,6 +9,11 @@ public abstract class Sprite<T> {
 
 	private double x;
 	private double y;
+
+	// location at the previous simulation step, once it has been saved
+	private double previousX;
+	private double previousY;
+	private boolean hasPreviousLocation = false;
 	private final PlayGameScreen screen;
 
 	protected Sprite(PlayGameScreen screen) {
@@ -40,6 +46,16 @@ public abstract class Sprite<T> {
 	 */
 	public abstract double getWidth(Graphics2D g);
 
+	/**
+	 * Area (in pixels) this sprite covers when drawn
+	 */
+	public synchronized Rectangle2D getBounds() {
+		double width = getWidth(null);
+		double height = getHeight(null);
+		return new Rectangle2D.Double(getCenterX() - width / 2, getCenterY()
+				- height / 2, width, height);
+	}
+
 	public synchronized double[] getCenterLocation() {
 		return new double[] { getCenterX(), getCenterY() };
 	}
@@ -49,12 +65,35 @@ public abstract class Sprite<T> {
 		this.y = y;
 	}
 
+	/**
+	 * Remember the current location as the location at the previous
+	 * simulation step
+	 */
+	public synchronized void saveLocation() {
+		this.previousX = x;
+		this.previousY = y;
+		this.hasPreviousLocation = true;
+	}
+
+	/**
+	 * Location (in pixels) at which this sprite is drawn: between its location
+	 * at the previous and at the last simulation step, as far as the screen's
+	 * interpolation
+	 */
 	public synchronized double getCenterX() {
-		return x;
+		return interpolate(previousX, x);
 	}
 
 	public synchronized double getCenterY() {
-		return y;
+		return interpolate(previousY, y);
+	}
+
+	private double interpolate(double previous, double current) {
+		if (!hasPreviousLocation) {
+			return current;
+		}
+		double t = getScreen().getInterpolation();
+		return previous + t * (current - previous);
 	}
 
 	/**
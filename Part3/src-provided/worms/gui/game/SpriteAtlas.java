@@ -0,0 +1,127 @@
+package worms.gui.game;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import worms.gui.GUIUtils;
+
+/**
+ * Images of sprites, shared by all sprites of the process.
+ *
+ * Scaled images are kept per file, pixel size and flip, so all sprites that
+ * are drawn at the same size share one image. The scaled images used least
+ * recently are dropped once there are too many of them.
+ */
+public class SpriteAtlas {
+
+	private static final int CAPACITY = 256;
+
+	// original images, at original scale
+	private static final Map<String, BufferedImage> originals = new HashMap<String, BufferedImage>();
+
+	private static final Map<Key, BufferedImage> scaled = new LinkedHashMap<Key, BufferedImage>(
+			16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, BufferedImage> eldest) {
+			return size() > CAPACITY;
+		}
+	};
+
+	private SpriteAtlas() {
+	}
+
+	public static synchronized BufferedImage getOriginal(String filename) {
+		BufferedImage result = originals.get(filename);
+		if (result == null) {
+			result = loadImage(filename);
+			originals.put(filename, result);
+		}
+		return result;
+	}
+
+	/**
+	 * The image in the given file, scaled to the given size in pixels and
+	 * flipped horizontally if requested
+	 */
+	public static synchronized BufferedImage getScaled(String filename,
+			int width, int height, boolean hflipped) {
+		Key key = new Key(filename, width, height, hflipped);
+		BufferedImage result = scaled.get(key);
+		if (result == null) {
+			if (hflipped) {
+				result = ImageSprite.hflip(getScaled(filename, width, height,
+						false));
+			} else {
+				BufferedImage original = getOriginal(filename);
+				if (width == original.getWidth()
+						&& height == original.getHeight()) {
+					result = original;
+				} else {
+					result = ImageSprite.toBufferedImage(original
+							.getScaledInstance(width, height,
+									Image.SCALE_SMOOTH));
+				}
+			}
+			scaled.put(key, result);
+		}
+		return result;
+	}
+
+	public static synchronized int getNbScaledImages() {
+		return scaled.size();
+	}
+
+	private static BufferedImage loadImage(String filename) {
+		try {
+			InputStream inputStream = GUIUtils.openResource(filename);
+			BufferedImage result = ImageIO.read(inputStream);
+			inputStream.close();
+			return result;
+		} catch (IOException e) {
+			throw new RuntimeException(
+					"Could not read file '" + filename + "'", e);
+		}
+	}
+
+	private static class Key {
+		private final String filename;
+		private final int width;
+		private final int height;
+		private final boolean hflipped;
+
+		public Key(String filename, int width, int height, boolean hflipped) {
+			this.filename = filename;
+			this.width = width;
+			this.height = height;
+			this.hflipped = hflipped;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return filename.equals(other.filename) && width == other.width
+					&& height == other.height && hflipped == other.hflipped;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = filename.hashCode();
+			result = 31 * result + width;
+			result = 31 * result + height;
+			return 31 * result + (hflipped ? 1 : 0);
+		}
+	}
+}
@@ -53,6 +53,11 @@ public class EnteringNameMode extends InputMode<PlayGameScreen> {
 		getScreen().repaint();
 	}
 
+	@Override
+	public boolean hasOverlay() {
+		return true;
+	}
+
 	@Override
 	public void paintOverlay(Graphics2D g) {
 		super.paintOverlay(g);
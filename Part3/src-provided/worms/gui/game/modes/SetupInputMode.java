@@ -48,6 +48,11 @@ public class SetupInputMode extends InputMode<PlayGameScreen> {
 		}
 	}
 
+	@Override
+	public boolean hasOverlay() {
+		return true;
+	}
+
 	@Override
 	public void paintOverlay(Graphics2D g) {
 		getScreen()
@@ -70,6 +70,11 @@ public class ShootingMode extends InputMode<PlayGameScreen> {
 		}
 	}
 
+	@Override
+	public boolean hasOverlay() {
+		return true;
+	}
+
 	@Override
 	public void paintOverlay(Graphics2D g) {
 		getScreen().showInstructions(g, "Shooting mode\nPress 'W' to toggle weapon\nPress 'S' to shoot\nPress 'ESC' to exit shooting mode");
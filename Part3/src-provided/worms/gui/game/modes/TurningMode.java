@@ -105,6 +105,11 @@ public class TurningMode extends InputMode<PlayGameScreen> {
 		}
 	}
 
+	@Override
+	public boolean hasOverlay() {
+		return true;
+	}
+
 	@Override
 	public void paintOverlay(Graphics2D g) {
 		super.paintOverlay(g);
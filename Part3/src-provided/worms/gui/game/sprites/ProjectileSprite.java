@@ -2,6 +2,7 @@ package worms.gui.game.sprites;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -67,6 +68,18 @@ public class ProjectileSprite extends Sprite<Projectile> {
 		}
 	}
 
+	@Override
+	public synchronized Rectangle2D getBounds() {
+		Rectangle2D result = super.getBounds();
+		synchronized (lastLocations) {
+			for (double[] loc : lastLocations) {
+				result.add(new Rectangle2D.Double(loc[0] - sizeInPixels, loc[1]
+						- sizeInPixels, 2 * sizeInPixels, 2 * sizeInPixels));
+			}
+		}
+		return result;
+	}
+
 	@Override
 	public Projectile getObject() {
 		return getProjectile();
@@ -145,6 +145,25 @@ public class WormSprite extends ImageSprite<Worm> {
 	protected static final double JUMP_MARKER_TIME_DISTANCE = 0.1; // worm-seconds
 
 	private void updateJumpTime() {
+		double x = getFacade().getX(getWorm());
+		double y = getFacade().getY(getWorm());
+		double direction = getFacade().getOrientation(getWorm());
+		double radius = getFacade().getRadius(getWorm());
+		int actionPoints = getFacade().getActionPoints(getWorm());
+		int terrainVersion = getWorm().getWorld().getPassableMap()
+				.getModificationCount();
+		// simulating the jump is expensive, and its outcome only changes when
+		// one of these does
+		if (x == jumpX && y == jumpY && direction == jumpDirection
+				&& radius == jumpRadius && actionPoints == jumpActionPoints
+				&& terrainVersion == jumpTerrainVersion)
+			return;
+		jumpX = x;
+		jumpY = y;
+		jumpDirection = direction;
+		jumpRadius = radius;
+		jumpActionPoints = actionPoints;
+		jumpTerrainVersion = terrainVersion;
 		try {
 			double time = getFacade().getJumpTime(getWorm(),
 					GUIConstants.JUMP_TIME_STEP);
@@ -161,6 +180,13 @@ public class WormSprite extends ImageSprite<Worm> {
 		}
 	}
 
+	private double jumpX;
+	private double jumpY;
+	private double jumpDirection;
+	private double jumpRadius;
+	private int jumpActionPoints;
+	private int jumpTerrainVersion = -1;
+
 	public synchronized double[][] getJumpSteps() {
 		return xys;
 	}
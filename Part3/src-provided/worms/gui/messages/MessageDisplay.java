@@ -37,6 +37,10 @@ public class MessageDisplay {
 		}
 	}
 
+	public boolean hasMessages() {
+		return !messages.isEmpty();
+	}
+
 	public Message getMessage() {
 		if (isDisplayingMessage()) {
 			if (currentDisplayTime() >= GUIConstants.MESSAGE_DISPLAY_TIME) {
@@ -138,6 +138,23 @@ public interface IFacade {
 	public World createWorld(double width, double height,
 			boolean[][] passableMap, Random random);
 
+	/**
+	 * Creates a new world from a bit-packed passable map.
+	 * 
+	 * @param width The width of the world (in meter)
+	 * 
+	 * @param height The height of the world (in meter)
+	 * 
+	 * @param passableMap The passable map of the terrain, with the same row and column layout as
+	 *  the boolean matrix accepted by {@link #createWorld(double, double, boolean[][], Random)}.
+	 * 
+	 * @param random A random number generator that can be used to randomize aspects of the world in a repeatable way.
+	 * 
+	 * @return The world.
+	 */
+	public World createWorld(double width, double height,
+			PassableMap passableMap, Random random);
+
 	/**
 	 * Create a new worm that is positioned at the given location in the given world,
 	 * looks in the given direction, has the given radius and the given name.
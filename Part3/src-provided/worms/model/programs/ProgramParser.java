@@ -4,18 +4,22 @@ import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.antlr.v4.runtime.ANTLRErrorListener;
 import org.antlr.v4.runtime.ANTLRInputStream;
-import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
 import org.antlr.v4.runtime.Parser;
-import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
 import org.antlr.v4.runtime.atn.ATNConfigSet;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.dfa.DFA;
-import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 
 import worms.model.programs.parser.WormsParserLexer;
 import worms.model.programs.parser.WormsParserMyListener;
@@ -76,50 +80,97 @@ public class ProgramParser<E, S, T> {
 	public void parse(String text) throws RecognitionException {
 		globals = null;
 		statement = null;
-		CharStream cs = new ANTLRInputStream(text);
-		WormsParserLexer lexer = new WormsParserLexer(cs);
-		CommonTokenStream tokens = new CommonTokenStream(lexer);
-		WormsParserParser parser = new WormsParserParser(tokens);
-		parser.setBuildParseTree(true);
-		parser.addErrorListener(new ANTLRErrorListener() {
-
-			@Override
-			public void syntaxError(Recognizer<?, ?> recognizer,
-					Object offendingSymbol, int line, int column, String msg,
-					RecognitionException e) {
-				ProgramParser.this.errors.add(line + ":" + column
-						+ " syntax error: " + msg);
+		Recognizers recognizers = POOL.poll();
+		if (recognizers == null)
+			recognizers = new Recognizers();
+		try {
+			WormsParserParser.EvalContext tree = recognizers.parse(text, errors);
+			if (!errors.isEmpty())
+				return;
+			WormsParserMyListener<E, S, T> listener = new WormsParserMyListener<E, S, T>(
+					factory);
+			// the listener builds the whole program when it enters the root, so the tree
+			// is not walked any further
+			listener.enterEval(tree);
+			errors = listener.getErrors();
+			globals = listener.getGlobals();
+			statement = listener.getStatement();
+		} finally {
+			POOL.offer(recognizers);
+		}
+	}
 
+	/**
+	 * The lexers and parsers that are not in use, for any program parser on any thread.
+	 * They share their prediction caches, as all parsers of the grammar do.
+	 */
+	private static final Queue<Recognizers> POOL = new ConcurrentLinkedQueue<Recognizers>();
+
+	/**
+	 * A lexer and parser for program texts, used by one parse at a time.
+	 */
+	private static class Recognizers implements ANTLRErrorListener {
+
+		private final WormsParserLexer lexer = new WormsParserLexer(null);
+
+		private final WormsParserParser parser = new WormsParserParser(null);
+
+		private List<String> errors;
+
+		/**
+		 * Parse the given text, adding syntax errors to the given list. The text is parsed
+		 * with the faster SLL prediction first; only if that fails, it is parsed again with
+		 * full LL prediction, which reports the errors.
+		 */
+		private WormsParserParser.EvalContext parse(String text, List<String> errors) {
+			this.errors = errors;
+			lexer.setInputStream(new ANTLRInputStream(text));
+			// token streams of this runtime can not be rewound to a new source
+			CommonTokenStream tokens = new CommonTokenStream(lexer);
+			parser.setTokenStream(tokens);
+			parser.setBuildParseTree(true);
+			parser.removeErrorListeners();
+			parser.setErrorHandler(new BailErrorStrategy());
+			parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+			try {
+				return parser.eval();
+			} catch (ParseCancellationException e) {
+				tokens.reset();
+				parser.reset();
+				parser.addErrorListener(ConsoleErrorListener.INSTANCE);
+				parser.addErrorListener(this);
+				parser.setErrorHandler(new DefaultErrorStrategy());
+				parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+				return parser.eval();
+			} finally {
+				this.errors = null;
 			}
+		}
 
-			@Override
-			public void reportContextSensitivity(Parser arg0, DFA arg1,
-					int arg2, int arg3, int arg4, ATNConfigSet arg5) {
+		@Override
+		public void syntaxError(Recognizer<?, ?> recognizer,
+				Object offendingSymbol, int line, int column, String msg,
+				RecognitionException e) {
+			errors.add(line + ":" + column + " syntax error: " + msg);
+		}
 
-			}
+		@Override
+		public void reportContextSensitivity(Parser arg0, DFA arg1,
+				int arg2, int arg3, int arg4, ATNConfigSet arg5) {
 
-			@Override
-			public void reportAttemptingFullContext(Parser arg0, DFA arg1,
-					int arg2, int arg3, BitSet arg4, ATNConfigSet arg5) {
+		}
 
-			}
+		@Override
+		public void reportAttemptingFullContext(Parser arg0, DFA arg1,
+				int arg2, int arg3, BitSet arg4, ATNConfigSet arg5) {
 
-			@Override
-			public void reportAmbiguity(Parser arg0, DFA arg1, int arg2,
-					int arg3, boolean arg4, BitSet arg5, ATNConfigSet arg6) {
+		}
 
-			}
-		});
-		ParserRuleContext tree = parser.eval();
-		if (!errors.isEmpty())
-			return;
-		WormsParserMyListener<E, S, T> listener = new WormsParserMyListener<E, S, T>(
-				factory);
-
-		ParseTreeWalker.DEFAULT.walk(listener, tree);
-		errors = listener.getErrors();
-		globals = listener.getGlobals();
-		statement = listener.getStatement();
+		@Override
+		public void reportAmbiguity(Parser arg0, DFA arg1, int arg2,
+				int arg3, boolean arg4, BitSet arg5, ATNConfigSet arg6) {
+
+		}
 	}
 
 	public List<String> getErrors() {
@@ -0,0 +1,114 @@
+package worms.headless;
+
+import worms.gui.GUIConstants;
+import worms.gui.game.IActionHandler;
+import worms.model.IFacade;
+import worms.model.ModelException;
+import worms.model.Projectile;
+import worms.model.Worm;
+
+/**
+ * A class of action handlers that perform the actions of programmed worms right away,
+ * 	through a facade, without animating or waiting for them.
+ * 	Each action calls the same facade methods, in the same order, as the commands the
+ * 	graphical user interface executes for that action.
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public class HeadlessActionHandler implements IActionHandler {
+
+	/**
+	 * Initialize this new headless action handler with given facade.
+	 *
+	 * @param	facade
+	 * 			The facade through which this new action handler performs actions.
+	 * @post	The facade of this new action handler is equal to the given facade.
+	 * 			| new.getFacade() == facade
+	 */
+	public HeadlessActionHandler(IFacade facade) {
+		this.facade = facade;
+	}
+
+	/**
+	 * Return the facade through which this action handler performs actions.
+	 */
+	public IFacade getFacade() {
+		return this.facade;
+	}
+
+	/**
+	 * Variable registering the facade through which this action handler performs actions.
+	 */
+	private final IFacade facade;
+
+	@Override
+	public boolean turn(Worm worm, double angle) {
+		if (!facade.canTurn(worm, angle))
+			return false;
+		facade.turn(worm, angle);
+		return true;
+	}
+
+	@Override
+	public boolean move(Worm worm) {
+		if (worm == null || !facade.canMove(worm))
+			return false;
+		try {
+			facade.move(worm);
+			if (facade.canFall(worm))
+				facade.fall(worm);
+			return true;
+		} catch (ModelException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public boolean jump(Worm worm) {
+		if (worm == null)
+			return false;
+		try {
+			facade.jump(worm, GUIConstants.JUMP_TIME_STEP);
+			return true;
+		} catch (ModelException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public boolean fire(Worm worm, int propulsion) {
+		if (worm == null)
+			return false;
+		try {
+			facade.shoot(worm, propulsion);
+			final Projectile projectile = facade.getActiveProjectile(worm.getWorld());
+			if (projectile == null)
+				return false;
+			facade.jump(projectile, GUIConstants.JUMP_TIME_STEP);
+			return true;
+		} catch (ModelException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public boolean toggleWeapon(Worm worm) {
+		if (worm == null)
+			return false;
+		try {
+			facade.selectNextWeapon(worm);
+			return true;
+		} catch (ModelException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Ignore the given message: there is no screen to print it on.
+	 */
+	@Override
+	public void print(String message) {
+	}
+}
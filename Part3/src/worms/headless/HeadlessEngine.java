@@ -0,0 +1,336 @@
+package worms.headless;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.gui.GUIUtils;
+import worms.gui.Level;
+import worms.model.Facade;
+import worms.model.IFacade;
+import worms.model.ModelException;
+import worms.model.Program;
+import worms.model.World;
+import worms.model.programs.ParseOutcome;
+import worms.model.programs.ParseOutcome.Failure;
+import worms.model.programs.ParseOutcome.Success;
+
+/**
+ * A class of headless engines involving a facade, a level and a turn limit.
+ * 	A headless engine plays matches between programmed worms on its level without
+ * 	showing them: every action is performed as soon as the program asks for it, and
+ * 	a match ends when at most one worm is left or when the turn limit is reached.
+ * 	The programs of a match are scheduled: the engine plays the turns of a match one
+ * 	after the other, and several matches can be played at once by a turn scheduler.
+ *
+ * @invar	The facade of each headless engine is effective.
+ * 			| getFacade() != null
+ * @invar	The level of each headless engine is effective.
+ * 			| getLevel() != null
+ * @invar	The turn limit of each headless engine is a valid turn limit.
+ * 			| World.isValidTurnLimit(getTurnLimit())
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public class HeadlessEngine {
+
+	/**
+	 * Initialize this new headless engine with given facade, level and turn limit, and load
+	 * 	the given level.
+	 *
+	 * @param	facade
+	 * 			The facade for this new headless engine.
+	 * @param	level
+	 * 			The level for this new headless engine.
+	 * @param	turnLimit
+	 * 			The turn limit for this new headless engine.
+	 * @post	The facade of this new headless engine is equal to the given facade.
+	 * 			| new.getFacade() == facade
+	 * @post	The level of this new headless engine is equal to the given level.
+	 * 			| new.getLevel() == level
+	 * @post	The turn limit of this new headless engine is equal to the given turn limit.
+	 * 			| new.getTurnLimit() == turnLimit
+	 * @throws	IllegalArgumentException
+	 * 			The given facade or level is not effective, or the given turn limit is not valid.
+	 * 			| facade == null || level == null || !World.isValidTurnLimit(turnLimit)
+	 */
+	public HeadlessEngine(IFacade facade, Level level, long turnLimit) throws IllegalArgumentException {
+		if (facade == null || level == null || !World.isValidTurnLimit(turnLimit))
+			throw new IllegalArgumentException("Illegal facade, level or turn limit for headless engine");
+		this.facade = facade;
+		this.level = level;
+		this.turnLimit = turnLimit;
+		this.handler = new HeadlessActionHandler(facade);
+		level.load();
+	}
+
+	/**
+	 * Initialize this new headless engine with given level, a new facade and the default
+	 * 	turn limit.
+	 *
+	 * @effect	This new headless engine is initialized with a new facade, the given level
+	 * 			and the default turn limit.
+	 * 			| this(new Facade(), level, getDEFAULT_TURN_LIMIT())
+	 */
+	public HeadlessEngine(Level level) {
+		this(new Facade(), level, DEFAULT_TURN_LIMIT);
+	}
+
+	/**
+	 * Return the facade of this headless engine.
+	 */
+	@Basic
+	@Immutable
+	public IFacade getFacade() {
+		return this.facade;
+	}
+
+	/**
+	 * Variable registering the facade of this headless engine.
+	 */
+	private final IFacade facade;
+
+	/**
+	 * Return the level of this headless engine.
+	 */
+	@Basic
+	@Immutable
+	public Level getLevel() {
+		return this.level;
+	}
+
+	/**
+	 * Variable registering the level of this headless engine.
+	 */
+	private final Level level;
+
+	/**
+	 * Return the turn limit of this headless engine.
+	 * 	The turn limit of a headless engine expresses after how many turns a match
+	 * 	ends without a winner.
+	 */
+	@Basic
+	@Immutable
+	public long getTurnLimit() {
+		return this.turnLimit;
+	}
+
+	/**
+	 * Variable registering the turn limit of this headless engine.
+	 */
+	private final long turnLimit;
+
+	/**
+	 * Return the default turn limit for headless engines.
+	 */
+	public static long getDEFAULT_TURN_LIMIT() {
+		return DEFAULT_TURN_LIMIT;
+	}
+
+	/**
+	 * Variable registering the default turn limit for headless engines.
+	 */
+	private static final long DEFAULT_TURN_LIMIT = 1000;
+
+	/**
+	 * Variable registering the action handler that performs the actions of the programs
+	 * of this headless engine.
+	 */
+	private final HeadlessActionHandler handler;
+
+	/**
+	 * Play a match on the level of this headless engine between worms with the given programs.
+	 *
+	 * @param	programTexts
+	 * 			The texts of the programs, one for each worm.
+	 * @param	seed
+	 * 			The seed for the random generator of the world of the match.
+	 * @return	The result of the match.
+	 * @throws	IllegalArgumentException
+	 * 			One of the given programs can not be parsed, or a worm could not be placed.
+	 * @throws	ModelException
+	 * 			The match could not be started or continued.
+	 */
+	public MatchResult play(List<String> programTexts, long seed)
+			throws IllegalArgumentException, ModelException {
+		final long start = System.nanoTime();
+		final World world = createMatch(programTexts, seed);
+		world.startGame();
+		TurnScheduler.playTurns(world, Long.MAX_VALUE);
+		return getResult(world, System.nanoTime() - start);
+	}
+
+	/**
+	 * Play the given amount of matches on the level of this headless engine between worms
+	 * 	with the given programs, with consecutive seeds, using the given turn scheduler.
+	 *
+	 * @param	programTexts
+	 * 			The texts of the programs, one for each worm.
+	 * @param	firstSeed
+	 * 			The seed for the random generator of the world of the first match.
+	 * @param	nbMatches
+	 * 			The amount of matches to play.
+	 * @param	scheduler
+	 * 			The turn scheduler that plays the matches.
+	 * @return	The results of the matches, in the order of their seeds. The wall time of
+	 * 			each result is the time spent on playing that match.
+	 * @throws	IllegalArgumentException
+	 * 			One of the given programs can not be parsed, or a worm could not be placed.
+	 * @throws	ModelException
+	 * 			One of the matches could not be started or continued.
+	 */
+	public List<MatchResult> playAll(List<String> programTexts, long firstSeed, int nbMatches,
+			TurnScheduler scheduler) throws IllegalArgumentException, ModelException {
+		final List<World> worlds = new ArrayList<World>();
+		for (int match = 0; match < nbMatches; match++)
+			worlds.add(createMatch(programTexts, firstSeed + match));
+		final long[] times = scheduler.play(worlds);
+		final List<MatchResult> results = new ArrayList<MatchResult>();
+		for (int match = 0; match < nbMatches; match++)
+			results.add(getResult(worlds.get(match), times[match]));
+		return results;
+	}
+
+	/**
+	 * Return a new world on the level of this headless engine, with the turn limit of this
+	 * 	headless engine, scheduled programs and worms with the given programs.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			One of the given programs can not be parsed, or a worm could not be placed.
+	 */
+	private World createMatch(List<String> programTexts, long seed) throws IllegalArgumentException {
+		final World world = facade.createWorld(level.getWorldWidth(), level.getWorldHeight(),
+				level.getPassableBitMap(), new Random(seed));
+		world.setTurnLimit(turnLimit);
+		world.setProgramsScheduled(true);
+		for (String programText : programTexts) {
+			final int nbWorms = facade.getWorms(world).size();
+			facade.addNewWorm(world, parse(programText));
+			if (facade.getWorms(world).size() == nbWorms)
+				throw new IllegalArgumentException("Could not place a worm on level " + level.getName());
+		}
+		return world;
+	}
+
+	/**
+	 * Return the result of the finished match in the given world, played in the given time.
+	 */
+	private MatchResult getResult(World world, long wallTime) {
+		final String winner = (facade.getWorms(world).size() == 1) ? facade.getWinner(world) : null;
+		return new MatchResult(winner, world.getTurnNumber(), wallTime);
+	}
+
+	/**
+	 * Parse the given program text into a program whose actions are performed by the
+	 * 	action handler of this headless engine.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			The given program text can not be parsed.
+	 */
+	private Program parse(String programText) throws IllegalArgumentException {
+		final ParseOutcome<?> parsed = facade.parseProgram(programText, handler);
+		if (parsed == null)
+			throw new IllegalArgumentException("The program could not be parsed");
+		if (!parsed.isSuccess())
+			throw new IllegalArgumentException("Parsing failed with the following errors: "
+					+ ((Failure) parsed).getResult());
+		final Program program = ((Success) parsed).getResult();
+		if (!facade.isWellFormed(program))
+			throw new IllegalArgumentException("The program is not well-formed");
+		return program;
+	}
+
+	/**
+	 * Read the program text in the resource with the given file name.
+	 *
+	 * @throws	IOException
+	 * 			The resource could not be read.
+	 */
+	public static String readProgramText(String filename) throws IOException {
+		final BufferedReader reader = new BufferedReader(
+				new InputStreamReader(GUIUtils.openResource(filename)));
+		final StringBuilder programText = new StringBuilder();
+		try {
+			String line = reader.readLine();
+			while (line != null) {
+				programText.append(line);
+				programText.append("\n");
+				line = reader.readLine();
+			}
+		} finally {
+			reader.close();
+		}
+		return programText.toString();
+	}
+
+	/**
+	 * Play matches between programmed worms without showing them, and print their results.
+	 * 	The options are -level followed by the name of a level, -program followed by a
+	 * 	program file for the next worm, -worms followed by the amount of worms, -matches
+	 * 	followed by the amount of matches, -seed followed by the seed of the first match,
+	 * 	-turns followed by the turn limit and -workers followed by the amount of workers
+	 * 	that play the matches at once.
+	 * 	When there are more worms than programs, the programs are given out again from the first.
+	 */
+	public static void main(String[] args) throws IOException {
+		String levelName = null;
+		final List<String> programFiles = new ArrayList<String>();
+		int nbWorms = 2;
+		int nbMatches = 1;
+		long seed = 3;
+		long turnLimit = DEFAULT_TURN_LIMIT;
+		int nbWorkers = 1;
+		for (int i = 0; i < args.length; i++) {
+			final String arg = args[i];
+			if ("-level".equals(arg))
+				levelName = args[++i];
+			else if ("-program".equals(arg))
+				programFiles.add(args[++i]);
+			else if ("-worms".equals(arg))
+				nbWorms = Integer.parseInt(args[++i]);
+			else if ("-matches".equals(arg))
+				nbMatches = Integer.parseInt(args[++i]);
+			else if ("-seed".equals(arg))
+				seed = Long.parseLong(args[++i]);
+			else if ("-turns".equals(arg))
+				turnLimit = Long.parseLong(args[++i]);
+			else if ("-workers".equals(arg))
+				nbWorkers = Integer.parseInt(args[++i]);
+		}
+		if (programFiles.isEmpty())
+			programFiles.add("programs/program.txt");
+
+		final HeadlessEngine engine = new HeadlessEngine(new Facade(), findLevel(levelName), turnLimit);
+		final List<String> programTexts = new ArrayList<String>();
+		for (int i = 0; i < nbWorms; i++)
+			programTexts.add(readProgramText(programFiles.get(i % programFiles.size())));
+
+		final long start = System.nanoTime();
+		final List<MatchResult> results = engine.playAll(programTexts, seed, nbMatches,
+				new TurnScheduler(nbWorkers));
+		for (int match = 0; match < nbMatches; match++)
+			System.out.println("match " + (match + 1) + ": " + results.get(match));
+		System.out.println(nbMatches + " matches in " + ((System.nanoTime() - start) / 1000000) + " ms");
+	}
+
+	/**
+	 * Return the available level with the given name, or the first available level if
+	 * 	the given name is null.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			There is no such level.
+	 */
+	private static Level findLevel(String name) throws IllegalArgumentException {
+		for (Level level : Level.getAvailableLevels())
+			if (name == null || name.equals(level.getName()))
+				return level;
+		throw new IllegalArgumentException("No level named " + name);
+	}
+}
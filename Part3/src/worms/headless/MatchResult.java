@@ -0,0 +1,105 @@
+package worms.headless;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of match results involving a winner, a turn count and a wall time.
+ *
+ * @invar	The turn count of each match result is positive or zero.
+ * 			| getTurnCount() >= 0
+ * @invar	The wall time of each match result is positive or zero.
+ * 			| getWallTime() >= 0
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public class MatchResult {
+
+	/**
+	 * Initialize this new match result with given winner, turn count and wall time.
+	 *
+	 * @param	winner
+	 * 			The name of the winning worm, or null if the match ended without a winner.
+	 * @param	turnCount
+	 * 			The amount of turns that were started during the match.
+	 * @param	wallTime
+	 * 			The time (in nanoseconds) the match took.
+	 * @post	The winner of this new match result is equal to the given winner.
+	 * 			| new.getWinner() == winner
+	 * @post	The turn count of this new match result is equal to the given turn count.
+	 * 			| new.getTurnCount() == turnCount
+	 * @post	The wall time of this new match result is equal to the given wall time.
+	 * 			| new.getWallTime() == wallTime
+	 * @throws	IllegalArgumentException
+	 * 			The given turn count or wall time is negative.
+	 * 			| turnCount < 0 || wallTime < 0
+	 */
+	public MatchResult(String winner, long turnCount, long wallTime) throws IllegalArgumentException {
+		if (turnCount < 0 || wallTime < 0)
+			throw new IllegalArgumentException("Illegal turn count or wall time for match result");
+		this.winner = winner;
+		this.turnCount = turnCount;
+		this.wallTime = wallTime;
+	}
+
+	/**
+	 * Return the name of the winning worm of this match result, or null if the match
+	 * 	ended without a winner.
+	 */
+	@Basic
+	@Immutable
+	public String getWinner() {
+		return this.winner;
+	}
+
+	/**
+	 * Check whether the match of this match result ended with a winner.
+	 *
+	 * @return	True if and only if this match result has a winner.
+	 * 			| result == getWinner() != null
+	 */
+	public boolean hasWinner() {
+		return this.winner != null;
+	}
+
+	/**
+	 * Variable registering the name of the winning worm of this match result.
+	 */
+	private final String winner;
+
+	/**
+	 * Return the amount of turns that were started during the match of this match result.
+	 */
+	@Basic
+	@Immutable
+	public long getTurnCount() {
+		return this.turnCount;
+	}
+
+	/**
+	 * Variable registering the turn count of this match result.
+	 */
+	private final long turnCount;
+
+	/**
+	 * Return the time (in nanoseconds) the match of this match result took.
+	 */
+	@Basic
+	@Immutable
+	public long getWallTime() {
+		return this.wallTime;
+	}
+
+	/**
+	 * Variable registering the wall time of this match result.
+	 */
+	private final long wallTime;
+
+	@Override
+	public String toString() {
+		return (hasWinner() ? "winner " + winner : "no winner") + " after " + turnCount +
+				" turns in " + (wallTime / 1000000) + " ms";
+	}
+}
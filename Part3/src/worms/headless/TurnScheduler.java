@@ -0,0 +1,224 @@
+package worms.headless;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.model.ModelException;
+import worms.model.Program;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * A class of turn schedulers involving an amount of workers and a slice length.
+ * 	A turn scheduler plays the games of several worlds at once, with the programs of
+ * 	those worlds scheduled. Each game is played in slices of a few turns on one of the
+ * 	workers; a game whose slice is over goes to the back of the queue, so all games
+ * 	advance at the same pace, however many of them are waiting. Every turn of a program
+ * 	is bounded by its instruction budget, so every slice is bounded as well.
+ *
+ * @invar	The amount of workers of each turn scheduler is strictly positive.
+ * 			| getNbWorkers() > 0
+ * @invar	The slice length of each turn scheduler is strictly positive.
+ * 			| getSliceLength() > 0
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public class TurnScheduler {
+
+	/**
+	 * Initialize this new turn scheduler with given amount of workers and slice length.
+	 *
+	 * @param	nbWorkers
+	 * 			The amount of workers for this new turn scheduler.
+	 * @param	sliceLength
+	 * 			The amount of turns in each slice of this new turn scheduler.
+	 * @post	The amount of workers of this new turn scheduler is equal to the given amount.
+	 * 			| new.getNbWorkers() == nbWorkers
+	 * @post	The slice length of this new turn scheduler is equal to the given slice length.
+	 * 			| new.getSliceLength() == sliceLength
+	 * @throws	IllegalArgumentException
+	 * 			The given amount of workers or slice length is not strictly positive.
+	 * 			| nbWorkers <= 0 || sliceLength <= 0
+	 */
+	public TurnScheduler(int nbWorkers, int sliceLength) throws IllegalArgumentException {
+		if (nbWorkers <= 0 || sliceLength <= 0)
+			throw new IllegalArgumentException("Illegal amount of workers or slice length for turn scheduler");
+		this.nbWorkers = nbWorkers;
+		this.sliceLength = sliceLength;
+	}
+
+	/**
+	 * Initialize this new turn scheduler with given amount of workers and the default slice length.
+	 *
+	 * @effect	This new turn scheduler is initialized with the given amount of workers and
+	 * 			the default slice length.
+	 * 			| this(nbWorkers, getDEFAULT_SLICE_LENGTH())
+	 */
+	public TurnScheduler(int nbWorkers) throws IllegalArgumentException {
+		this(nbWorkers, DEFAULT_SLICE_LENGTH);
+	}
+
+	/**
+	 * Return the amount of workers of this turn scheduler.
+	 */
+	@Basic
+	@Immutable
+	public int getNbWorkers() {
+		return this.nbWorkers;
+	}
+
+	/**
+	 * Variable registering the amount of workers of this turn scheduler.
+	 */
+	private final int nbWorkers;
+
+	/**
+	 * Return the amount of turns in each slice of this turn scheduler.
+	 */
+	@Basic
+	@Immutable
+	public int getSliceLength() {
+		return this.sliceLength;
+	}
+
+	/**
+	 * Variable registering the amount of turns in each slice of this turn scheduler.
+	 */
+	private final int sliceLength;
+
+	/**
+	 * Return the default amount of turns in each slice of turn schedulers.
+	 */
+	public static int getDEFAULT_SLICE_LENGTH() {
+		return DEFAULT_SLICE_LENGTH;
+	}
+
+	/**
+	 * Variable registering the default amount of turns in each slice of turn schedulers.
+	 */
+	private static final int DEFAULT_SLICE_LENGTH = 4;
+
+	/**
+	 * Start and play the games of the given worlds until they are all finished.
+	 * 	The programs of the given worlds become scheduled.
+	 *
+	 * @param	worlds
+	 * 			The worlds of which the games are played.
+	 * @return	The time (in nanoseconds) spent on the game of each of the given worlds,
+	 * 			in the same order.
+	 * @throws	ModelException
+	 * 			Waiting for the games was interrupted.
+	 * @throws	RuntimeException
+	 * 			The game of one of the given worlds failed; the other games were played on.
+	 */
+	public long[] play(List<World> worlds) throws ModelException {
+		final ExecutorService workers = Executors.newFixedThreadPool(nbWorkers);
+		final CountDownLatch finished = new CountDownLatch(worlds.size());
+		final Game[] games = new Game[worlds.size()];
+		for (int index = 0; index < games.length; index++) {
+			worlds.get(index).setProgramsScheduled(true);
+			games[index] = new Game(worlds.get(index), workers, finished);
+		}
+		try {
+			for (Game game : games)
+				workers.execute(game);
+			finished.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ModelException("Interrupted while playing games");
+		} finally {
+			workers.shutdownNow();
+		}
+		final long[] times = new long[games.length];
+		for (int index = 0; index < games.length; index++) {
+			if (games[index].failure != null)
+				throw games[index].failure;
+			times[index] = games[index].time;
+		}
+		return times;
+	}
+
+	/**
+	 * Play at most the given amount of turns of the game of the given world, of which the
+	 * 	programs are scheduled and the game is started.
+	 * 	Each turn, the program of the current worm, if any, is executed for one turn, after
+	 * 	which the next turn is started. An action that uses the last action points of a
+	 * 	worm already starts the next turn itself, so the next turn is only started if no
+	 * 	turn was started meanwhile. A worm that is removed during its own turn makes its
+	 * 	successor current without starting a turn, so that turn is still started here.
+	 *
+	 * @param	world
+	 * 			The world of which the game is played.
+	 * @param	turns
+	 * 			The largest amount of turns to play.
+	 * @return	True if and only if the game of the given world is finished.
+	 * 			| result == world.isGameFinished()
+	 * @see		Program#executeTurn()
+	 */
+	public static boolean playTurns(World world, long turns) {
+		for (long turn = 0; turn < turns && !world.isGameFinished(); turn++) {
+			final long turnNumber = world.getTurnNumber();
+			final Worm worm = world.getCurrentWorm();
+			if (worm != null && worm.hasProgram())
+				worm.executeProgramTurn();
+			if (world.getTurnNumber() == turnNumber && !world.isGameFinished())
+				world.startNextTurn();
+		}
+		return world.isGameFinished();
+	}
+
+	/**
+	 * A class of games played by a turn scheduler, one slice at a time.
+	 */
+	private class Game implements Runnable {
+
+		private Game(World world, ExecutorService workers, CountDownLatch finished) {
+			this.world = world;
+			this.workers = workers;
+			this.finished = finished;
+		}
+
+		private final World world;
+
+		private final ExecutorService workers;
+
+		private final CountDownLatch finished;
+
+		private boolean started = false;
+
+		private long time = 0;
+
+		private RuntimeException failure = null;
+
+		/**
+		 * Play the next slice of this game, and queue the slice after it unless this game
+		 * 	is finished or failed.
+		 */
+		@Override
+		public void run() {
+			final long start = System.nanoTime();
+			boolean done;
+			try {
+				if (!started) {
+					world.startGame();
+					started = true;
+				}
+				done = playTurns(world, sliceLength);
+			} catch (RuntimeException e) {
+				failure = e;
+				done = true;
+			}
+			time += System.nanoTime() - start;
+			if (done)
+				finished.countDown();
+			else
+				workers.execute(this);
+		}
+	}
+}
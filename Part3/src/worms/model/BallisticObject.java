@@ -80,7 +80,26 @@ public abstract class BallisticObject extends Entity {
 	 */
 	protected boolean overlapsWith(BallisticObject o, 
 			Position currPos) {
-		return getVector().getPosition().getDistanceTo(currPos) < 
+		return overlapsWith(o, currPos.getX(), currPos.getY());
+	}
+	
+	/**
+	 * 
+	 * @param	o
+	 * 			The ballistic object which could be overlapping with this
+	 * 			ballistic object.
+	 * @param	x
+	 * 			The x-coordinate to be checked for the given ballistic object.
+	 * @param	y
+	 * 			The y-coordinate to be checked for the given ballistic object.
+	 * @return	True if and only if the distance between this ballistic object
+	 * 			and the given coordinates is strict smaller than the radius of
+	 * 			this ballistic object plus the radius of the given ballistic object.
+	 * 			| result == overlapsWith(o, new Position(x, y))
+	 */
+	protected boolean overlapsWith(BallisticObject o, double x, double y) {
+		final Position pos = getVector().getPosition();
+		return Math.sqrt(Math.pow(pos.getX() - x, 2) + Math.pow(pos.getY() - y, 2)) < 
 				(getRadius() + o.getRadius());
 	}
 	
@@ -163,15 +182,47 @@ public abstract class BallisticObject extends Entity {
 	public double[] getJumpStep(double t) {
 		double[] jumpStep = new double[2];
 		
-		jumpStep[0] = getVector().getPosition().getX() +
+		jumpStep[0] = getJumpStepX(t);
+		jumpStep[1] = getJumpStepY(t);
+		return jumpStep;
+	}
+	
+	/**
+	 * Calculates the x-coordinate of a ballistic object at a given moment, during a jump.
+	 * 
+	 * @param	t
+	 * 			The time for which the x-coordinate will be returned.
+	 * @return	The x-coordinate that the ballistic object should be located 
+	 * 			at on the given moment.
+	 * 			| result == getVector().getPosition().getX() +
+	 *			|				getInitialJumpVelocity(getJumpForce()) *
+	 *			|				Math.cos(getVector().getDirection()) * t
+	 */
+	@Raw
+	public double getJumpStepX(double t) {
+		return getVector().getPosition().getX() +
 				getInitialJumpVelocity(getJumpForce()) *
 						Math.cos(getVector().getDirection()) * t;
-		
-		jumpStep[1] = getVector().getPosition().getY() + (
+	}
+	
+	/**
+	 * Calculates the y-coordinate of a ballistic object at a given moment, during a jump.
+	 * 
+	 * @param	t
+	 * 			The time for which the y-coordinate will be returned.
+	 * @return	The y-coordinate that the ballistic object should be located 
+	 * 			at on the given moment.
+	 * 			| result == getVector().getPosition().getY() + (
+	 *			|				getInitialJumpVelocity(getJumpForce()) *
+	 *			|				Math.sin(getVector().getDirection()) * t - 
+	 *			|				0.5 * World.getSTD_ACCEL_EARTH() * Math.pow(t, 2))
+	 */
+	@Raw
+	public double getJumpStepY(double t) {
+		return getVector().getPosition().getY() + (
 				getInitialJumpVelocity(getJumpForce()) *
 						Math.sin(getVector().getDirection()) * t - 
 							0.5 * World.getSTD_ACCEL_EARTH() * Math.pow(t, 2));
-		return jumpStep;
 	}
 	
 	/**
@@ -180,7 +231,9 @@ public abstract class BallisticObject extends Entity {
 	 * 
 	 * @param	timeStep
 	 * 			The time steps to perform the calculations with.
-	 * @return	The time a jump of this ballistic object would take.
+	 * @return	The time a jump of this ballistic object would take, one time step after
+	 * 			the landing time found by the trajectory solver of its world.
+	 * 			| result == getWorld().getTrajectorySolver().getLandingTime(this, timeStep) + timeStep
 	 * @throws	IllegalJumpException(this)
 	 * 			The ballistic object can not perform a jump.
 	 * 			| !canJump()
@@ -194,19 +247,13 @@ public abstract class BallisticObject extends Entity {
 			throw new IllegalJumpException(this);
 		
 		final Position currPos = getVector().getPosition();
-		double[] jumpStep = new double[2];
-		Position tmpPos = new Position(jumpStep[0], jumpStep[1]);
-		double currentTime = getRadius() / 
-				getInitialJumpVelocity(getJumpForce());
-		do {
-			jumpStep = getJumpStep(currentTime);
-			currentTime += timeStep;
-			tmpPos = new Position(jumpStep[0], jumpStep[1]);
-		} while (!isJumpFinished(tmpPos));
+		final double landingTime = getWorld().getTrajectorySolver().getLandingTime(this, timeStep);
+		final double dx = getJumpStepX(landingTime) - currPos.getX();
+		final double dy = getJumpStepY(landingTime) - currPos.getY();
 		
-		if (tmpPos.getDistanceTo(currPos) < getRadius() && this instanceof Worm)
+		if (Math.sqrt(dx * dx + dy * dy) < getRadius() && this instanceof Worm)
 			throw new IllegalJumpException(this);
-		return currentTime;
+		return landingTime + timeStep;
 	}
 	
 	/**
@@ -245,8 +292,34 @@ public abstract class BallisticObject extends Entity {
 	 * @param	currPos
 	 * 			The current position of this ballistic object for which
 	 * 			the invariants will be checked.
+	 * @return	The same as for the coordinates of the given position.
+	 * 			| result == isJumpFinished(currPos.getX(), currPos.getY())
+	 */
+	public boolean isJumpFinished(Position currPos){
+		return isJumpFinished(currPos.getX(), currPos.getY());
+	}
+	
+	/**
+	 * Checkers whether or not a jump is in its ending state, at the given coordinates.
+	 * 
+	 * @param	x
+	 * 			The current x-coordinate of this ballistic object.
+	 * @param	y
+	 * 			The current y-coordinate of this ballistic object.
+	 */
+	public abstract boolean isJumpFinished(double x, double y);
+	
+	/**
+	 * Returns a distance (in meters) such that a jump of this ballistic object is not
+	 * 	finished at any position closer than that distance to the given position.
+	 * 
+	 * @param	x
+	 * 			The x-coordinate of the position.
+	 * @param	y
+	 * 			The y-coordinate of the position.
+	 * @return	Zero if nothing is known about the surroundings of the given position.
 	 */
-	public abstract boolean isJumpFinished(Position currPos);
+	public abstract double getJumpClearance(double x, double y);
 	
 	/**
 	 * Calculates and returns the initial jump velocity of this
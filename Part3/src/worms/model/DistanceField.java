@@ -0,0 +1,351 @@
+package worms.model;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of distance fields involving a passable map and the scale (in meters) of
+ * 	its cells. A distance field registers, for each cell of its map, how far (in meters)
+ * 	any point of that cell lies at least from the nearest cell of the other kind.
+ * 	Everything outside of the map counts as impassable.
+ * 	The distances are computed once, with an exact euclidean distance transform on
+ * 	the centers of the cells, and are lowered by the diagonal of a cell so they hold
+ * 	for every point of a cell.
+ * 	Each distance is registered in two bytes, as a whole amount of sixteenths of the
+ * 	smallest side of a cell, rounded towards zero. Distances beyond about two thousand
+ * 	cells are clamped: they only lengthen the steps queries take, which never need them.
+ *
+ * @invar	The passable map of each distance field is effective.
+ * 			| getPassableMap() != null
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public class DistanceField {
+
+	/**
+	 * Initialize this new distance field for the given passable map with given scales.
+	 *
+	 * @param	passableMap
+	 * 			The passable map for this new distance field.
+	 * @param	widthScale
+	 * 			The width (in meters) of each cell of the given map.
+	 * @param	heightScale
+	 * 			The height (in meters) of each cell of the given map.
+	 * @post	The passable map of this new distance field is equal to the given map.
+	 * 			| new.getPassableMap() == passableMap
+	 * @post	This new distance field is up to date with the given map.
+	 * 			| new.isUpToDate()
+	 */
+	public DistanceField(PassableMap passableMap, double widthScale, double heightScale) {
+		this.passableMap = passableMap;
+		this.modificationCount = passableMap.getModificationCount();
+		this.widthScale = widthScale;
+		this.heightScale = heightScale;
+		this.width = passableMap.getWidth();
+		this.height = passableMap.getHeight();
+		this.quantum = Math.min(widthScale, heightScale) / QUANTA_PER_CELL;
+		this.distances = computeDistances();
+	}
+
+	/**
+	 * Return the passable map of this distance field.
+	 */
+	@Basic
+	@Immutable
+	public PassableMap getPassableMap() {
+		return this.passableMap;
+	}
+
+	/**
+	 * Variable registering the passable map of this distance field.
+	 */
+	private final PassableMap passableMap;
+
+	/**
+	 * Check whether this distance field still matches the cells of its passable map.
+	 *
+	 * @return	True if and only if the passable map of this distance field has not been
+	 * 			modified since this distance field was computed.
+	 * 			| result == (getPassableMap().getModificationCount() == modificationCount)
+	 */
+	public boolean isUpToDate() {
+		return passableMap.getModificationCount() == modificationCount;
+	}
+
+	/**
+	 * Variable registering the modification count of the passable map at the moment
+	 * this distance field was computed.
+	 */
+	private final int modificationCount;
+
+	/**
+	 * Return the signed distance (in meters) of the given position to the border between
+	 * 	passable and impassable terrain.
+	 * 	The cell of the given position is found in the same way as World does.
+	 *
+	 * @param	x
+	 * 			The x-coordinate (in meters) of the position.
+	 * @param	y
+	 * 			The y-coordinate (in meters) of the position.
+	 * @return	A positive distance d if every point closer than d to the given position
+	 * 			is passable, a negative distance -d if every point closer than d to the given
+	 * 			position is impassable, zero if nothing is known about the surroundings of
+	 * 			the given position.
+	 */
+	public double getDistance(double x, double y) {
+		final int col = (int) Math.floor(x / widthScale);
+		final int row = height - (int) Math.ceil(y / heightScale);
+		if (col < 0 || row < 0 || col >= width || row >= height)
+			return 0;
+		return distances[row * width + col] * quantum;
+	}
+
+	/**
+	 * Return the signed distance (in meters) of every point of the given cell to the border
+	 * 	between passable and impassable terrain, in the same way as getDistance does.
+	 *
+	 * @param	col
+	 * 			The column of the cell.
+	 * @param	row
+	 * 			The row of the cell, counted from the top of the map.
+	 * @throws	IndexOutOfBoundsException
+	 * 			The given cell does not lie on the passable map of this distance field.
+	 * 			| col < 0 || row < 0 || col >= getPassableMap().getWidth() ||
+	 * 			|	row >= getPassableMap().getHeight()
+	 */
+	public double getCellDistance(int col, int row) throws IndexOutOfBoundsException {
+		if (col < 0 || row < 0 || col >= width || row >= height)
+			throw new IndexOutOfBoundsException("Cell (" + col + ", " + row + ") is not on the map");
+		return distances[row * width + col] * quantum;
+	}
+
+	/**
+	 * Return the width (in meters) of each cell of this distance field.
+	 */
+	@Basic
+	@Immutable
+	public double getWidthScale() {
+		return this.widthScale;
+	}
+
+	/**
+	 * Return the height (in meters) of each cell of this distance field.
+	 */
+	@Basic
+	@Immutable
+	public double getHeightScale() {
+		return this.heightScale;
+	}
+
+	/**
+	 * Compute the signed distance of each cell of the passable map, row after row.
+	 * 	The distances to impassable cells are computed for the passable cells first, and the
+	 * 	distances to passable cells for the impassable cells next, in the same grid of
+	 * 	vertical offsets.
+	 */
+	private short[] computeDistances() {
+		final short[] result = new short[width * height];
+		final short[] offsets = new short[width * height];
+		final double diagonal = Math.sqrt(widthScale * widthScale + heightScale * heightScale);
+		final int paddedWidth = width + 2;
+		final double[] line = new double[paddedWidth];
+		final double[] transformed = new double[paddedWidth];
+		final int[] parabolas = new int[paddedWidth];
+		final double[] boundaries = new double[paddedWidth + 1];
+
+		for (int pass = 0; pass < 2; pass++) {
+			final boolean toPassable = (pass == 1);
+			computeVerticalOffsets(offsets, toPassable);
+			// the border of the map is impassable
+			final double border = toPassable ? Double.POSITIVE_INFINITY : 0;
+			for (int row = 0; row < height; row++) {
+				line[0] = border;
+				line[paddedWidth - 1] = border;
+				for (int col = 0; col < width; col++) {
+					final int offset = offsets[row * width + col];
+					line[col + 1] = (offset == NO_OFFSET) ?
+							Double.POSITIVE_INFINITY : (offset * heightScale) * (offset * heightScale);
+				}
+				transform(line, paddedWidth, widthScale, transformed, parabolas, boundaries);
+				for (int col = 0; col < width; col++) {
+					final boolean passable = passableMap.isPassable(col, row);
+					if (passable == toPassable)
+						continue;
+					final double distance = Math.sqrt(transformed[col + 1]);
+					result[row * width + col] = passable ?
+							toQuanta(distance - diagonal, true) : toQuanta(diagonal - distance, false);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Register in the given grid, for each cell of the passable map, the amount of rows to
+	 * 	the nearest passable or impassable cell in the same column, on the passable map
+	 * 	surrounded by a border of impassable cells.
+	 * 	Offsets that are too large to be registered are lowered to the largest one that can.
+	 *
+	 * @param	offsets
+	 * 			The grid to register the offsets in, row after row.
+	 * @param	toPassable
+	 * 			Whether the offsets to passable cells or to impassable cells are registered.
+	 */
+	private void computeVerticalOffsets(short[] offsets, boolean toPassable) {
+		final int[] nearest = new int[width];
+		// the rows of the nearest cells above, or of the border above the map
+		Arrays.fill(nearest, toPassable ? NO_ROW : -1);
+		for (int row = 0; row < height; row++)
+			for (int col = 0; col < width; col++) {
+				if (passableMap.isPassable(col, row) == toPassable)
+					nearest[col] = row;
+				offsets[row * width + col] = (nearest[col] == NO_ROW) ?
+						NO_OFFSET : toOffset(row - nearest[col]);
+			}
+		// the rows of the nearest cells below, or of the border below the map
+		Arrays.fill(nearest, toPassable ? NO_ROW : height);
+		for (int row = height - 1; row >= 0; row--)
+			for (int col = 0; col < width; col++) {
+				if (passableMap.isPassable(col, row) == toPassable)
+					nearest[col] = row;
+				if (nearest[col] == NO_ROW)
+					continue;
+				final short offset = toOffset(nearest[col] - row);
+				final int index = row * width + col;
+				if (offsets[index] == NO_OFFSET || offset < offsets[index])
+					offsets[index] = offset;
+			}
+	}
+
+	/**
+	 * Return the given amount of rows, lowered to the largest offset that can be registered.
+	 */
+	private static short toOffset(int rows) {
+		return (short) Math.min(rows, MAX_OFFSET);
+	}
+
+	/**
+	 * Convert the given distance (in meters) to a whole amount of quanta without making it
+	 * 	larger in absolute value, clamped to the largest amount a short can hold, and clamp
+	 * 	it to zero if it has the wrong sign.
+	 */
+	private short toQuanta(double distance, boolean positive) {
+		if (positive ? !(distance > 0) : !(distance < 0))
+			return 0;
+		long amount = (long) Math.min(Math.abs(distance) / quantum, Short.MAX_VALUE);
+		if (amount * quantum > Math.abs(distance))
+			amount--;
+		return (short) (positive ? amount : -amount);
+	}
+
+	/**
+	 * Compute the one-dimensional squared distance transform of the given line, of which
+	 * 	the cells lie the given scale apart, as the lower envelope of the parabolas rooted
+	 * 	at each finite cell.
+	 */
+	private static void transform(double[] line, int length, double scale,
+			double[] result, int[] parabolas, double[] boundaries) {
+		int k = -1;
+		for (int q = 0; q < length; q++) {
+			if (Double.isInfinite(line[q]))
+				continue;
+			if (k < 0) {
+				k = 0;
+				parabolas[0] = q;
+				boundaries[0] = Double.NEGATIVE_INFINITY;
+				boundaries[1] = Double.POSITIVE_INFINITY;
+				continue;
+			}
+			double s = intersection(line, parabolas[k], q, scale);
+			while (s <= boundaries[k]) {
+				k--;
+				s = intersection(line, parabolas[k], q, scale);
+			}
+			k++;
+			parabolas[k] = q;
+			boundaries[k] = s;
+			boundaries[k + 1] = Double.POSITIVE_INFINITY;
+		}
+
+		if (k < 0) {
+			for (int q = 0; q < length; q++)
+				result[q] = Double.POSITIVE_INFINITY;
+			return;
+		}
+		k = 0;
+		for (int q = 0; q < length; q++) {
+			final double position = q * scale;
+			while (boundaries[k + 1] < position)
+				k++;
+			final double offset = (q - parabolas[k]) * scale;
+			result[q] = offset * offset + line[parabolas[k]];
+		}
+	}
+
+	/**
+	 * Return the position (in meters) where the parabolas rooted at the given cells intersect.
+	 */
+	private static double intersection(double[] line, int first, int second, double scale) {
+		final double a = first * scale;
+		final double b = second * scale;
+		return ((line[second] + b * b) - (line[first] + a * a)) / (2 * (b - a));
+	}
+
+	/**
+	 * Variable registering the width (in meters) of each cell of this distance field.
+	 */
+	private final double widthScale;
+
+	/**
+	 * Variable registering the height (in meters) of each cell of this distance field.
+	 */
+	private final double heightScale;
+
+	/**
+	 * Variable registering the amount of columns of this distance field.
+	 */
+	private final int width;
+
+	/**
+	 * Variable registering the amount of rows of this distance field.
+	 */
+	private final int height;
+
+	/**
+	 * Variable registering the length (in meters) of one unit of the distances of this
+	 * 	distance field.
+	 */
+	private final double quantum;
+
+	/**
+	 * Variable registering the signed distance of each cell of this distance field in
+	 * 	quanta, row after row.
+	 */
+	private final short[] distances;
+
+	/**
+	 * Variable registering the amount of quanta in the smallest side of a cell.
+	 */
+	private static final int QUANTA_PER_CELL = 16;
+
+	/**
+	 * Variable registering the vertical offset registered for a cell of which the column
+	 * 	holds no cell of the kind looked for.
+	 */
+	private static final short NO_OFFSET = -1;
+
+	/**
+	 * Variable registering the largest vertical offset that can be registered.
+	 */
+	private static final int MAX_OFFSET = Short.MAX_VALUE;
+
+	/**
+	 * Variable registering the row of the nearest cell while no cell of the kind looked
+	 * 	for has been seen in a column.
+	 */
+	private static final int NO_ROW = Integer.MIN_VALUE;
+}
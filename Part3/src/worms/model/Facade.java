@@ -1,9 +1,15 @@
 package worms.model;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Random;
 import java.util.Stack;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import worms.exceptions.*;
 import worms.gui.game.IActionHandler;
@@ -184,6 +190,12 @@ public class Facade implements IFacade {
 		return new World(width, height, passableMap, random);
 	}
 
+	@Override
+	public World createWorld(double width, double height,
+			PassableMap passableMap, Random random) {
+		return new World(width, height, passableMap, random);
+	}
+
 	@Override
 	public void fall(Worm worm) {
 		worm.fall();
@@ -311,8 +323,12 @@ public class Facade implements IFacade {
 	}
 
 	@Override
-	public void jump(Projectile projectile, double timeStep) {
-		projectile.jump(timeStep);
+	public void jump(Projectile projectile, double timeStep) throws ModelException {
+		try {
+			projectile.jump(timeStep);
+		} catch (IllegalJumpException e) {
+			throw new ModelException("Projectile does not meet requirements.");
+		}
 	}
 
 	@Override
@@ -354,20 +370,199 @@ public class Facade implements IFacade {
 	
 	@Override
 	public boolean isWellFormed(Program program){
+		return isWellFormed(program.getStatement());
+	}
+
+	// Checks the statement of a program the same way for parsed programs and for program texts
+	// that are only checked.
+	private boolean isWellFormed(Statement statement){
 		return true; // According to the assignment, one-person teams don't have to implement this.
 	}
 
 	@Override
 	public ParseOutcome<?> parseProgram(String programText,
 			IActionHandler handler) {
-		ProgramParser<Expression,Statement,Type> parser= new ProgramParser<Expression,Statement,Type>(new ProgramFactoryImpl());
+		ProgramTemplate template = programCache.get(programText);
+		if (template == null) {
+			ProgramFactoryImpl factory = new ProgramFactoryImpl();
+			ProgramParser<Expression,Statement,Type> parser = parse(programText, factory);
+			if (!parser.getErrors().isEmpty())
+				return ParseOutcome.failure(parser.getErrors());
+			template = createTemplate(programText, parser, factory);
+			programCache.put(template);
+		}
+		return ParseOutcome.success(new Program(handler, template));
+	}
+
+	// Parses the given program text with the given factory, without looking at the program cache.
+	private ProgramParser<Expression,Statement,Type> parse(String programText,
+			ProgramFactoryImpl factory) {
+		ProgramParser<Expression,Statement,Type> parser= new ProgramParser<Expression,Statement,Type>(factory);
 		parser.parse(programText);
-		if (!parser.getErrors().isEmpty())
-			return ParseOutcome.failure(parser.getErrors());
-		else
-			return ParseOutcome.success(new Program(handler, parser.getStatement(), (HashMap<String, Type>) parser.getGlobals(), programText));
+		return parser;
+	}
+
+	// Optimizes and compiles the program the given parser parsed from the given text.
+	@SuppressWarnings("unchecked")
+	private ProgramTemplate createTemplate(String programText,
+			ProgramParser<Expression,Statement,Type> parser, ProgramFactoryImpl factory) {
+		return new ProgramTemplate(new ProgramOptimizer().optimize(parser.getStatement()),
+				(HashMap<String, Type>) parser.getGlobals(), factory.getVariables(), programText);
+	}
+
+	public ProgramCache getProgramCache() {
+		return this.programCache;
+	}
+
+	// Program texts parsed one at a time before are not parsed again: the programs of a text
+	// share its template.
+	private final ProgramCache programCache = new ProgramCache(PROGRAM_CACHE_CAPACITY);
+
+	private static final int PROGRAM_CACHE_CAPACITY = 64;
+
+	/**
+	 * Parse and check each of the given program texts, in parallel.
+	 * 	Parsing is safe on any amount of threads at once: every parse has its own factory,
+	 * 	parser and listener, and the lexers and parsers it borrows are used by one parse at a
+	 * 	time. The program texts of a batch are neither looked up in nor added to the program
+	 * 	cache of this facade, so a large batch does not evict the templates parsed before.
+	 *
+	 * @param	programTexts
+	 * 			The program texts to parse.
+	 * @param	handler
+	 * 			The action handler on which the parsed programs execute their commands.
+	 * @return	The outcome of parsing each of the given program texts, in the same order.
+	 * 			A program that is not well-formed is a failure, and so is a program text of
+	 * 			which the parsing fails; the other program texts are parsed on.
+	 * 			| for each index in 0..programTexts.size()-1:
+	 * 			|	result.get(index).isSuccess() ==
+	 * 			|		(parseProgram(programTexts.get(index), handler).isSuccess() &&
+	 * 			|		 isWellFormed(parseProgram(programTexts.get(index), handler).getResult()))
+	 */
+	public List<ParseOutcome<?>> parsePrograms(Collection<String> programTexts,
+			final IActionHandler handler) {
+		final List<String> texts = new ArrayList<String>(programTexts);
+		final List<ParseOutcome<?>> outcomes = new ArrayList<ParseOutcome<?>>(
+				Collections.<ParseOutcome<?>>nCopies(texts.size(), null));
+		PARSE_POOL.invoke(new ParseTask<ParseOutcome<?>>(new TextParser<ParseOutcome<?>>() {
+
+			@Override
+			public ParseOutcome<?> parse(String programText) {
+				ProgramFactoryImpl factory = new ProgramFactoryImpl();
+				ProgramParser<Expression,Statement,Type> parser = Facade.this.parse(programText, factory);
+				if (!parser.getErrors().isEmpty())
+					return ParseOutcome.failure(parser.getErrors());
+				Program program = new Program(handler, createTemplate(programText, parser, factory));
+				if (!isWellFormed(program))
+					return ParseOutcome.failure(Arrays.asList(NOT_WELL_FORMED));
+				return ParseOutcome.success(program);
+			}
+
+			@Override
+			public ParseOutcome<?> fail(String error) {
+				return ParseOutcome.failure(Arrays.asList(error));
+			}
+		}, texts, outcomes, 0, texts.size()));
+		return outcomes;
+	}
+
+	/**
+	 * Check each of the given program texts, in parallel, without building their programs.
+	 * 	The program texts are only parsed: they are not optimized or compiled, and neither
+	 * 	looked up in nor added to the program cache of this facade.
+	 *
+	 * @param	programTexts
+	 * 			The program texts to check.
+	 * @return	The errors of each of the given program texts, in the same order: an empty list
+	 * 			for a program text that parses into a well-formed program, and the same errors as
+	 * 			parsing it in a batch otherwise.
+	 * 			| for each index in 0..programTexts.size()-1:
+	 * 			|	result.get(index).isEmpty() ==
+	 * 			|		parsePrograms(programTexts, handler).get(index).isSuccess()
+	 */
+	public List<List<String>> checkPrograms(Collection<String> programTexts) {
+		final List<String> texts = new ArrayList<String>(programTexts);
+		final List<List<String>> errors = new ArrayList<List<String>>(
+				Collections.<List<String>>nCopies(texts.size(), null));
+		PARSE_POOL.invoke(new ParseTask<List<String>>(new TextParser<List<String>>() {
+
+			@Override
+			public List<String> parse(String programText) {
+				ProgramParser<Expression,Statement,Type> parser =
+						Facade.this.parse(programText, new ProgramFactoryImpl());
+				if (!parser.getErrors().isEmpty())
+					return parser.getErrors();
+				if (!isWellFormed(parser.getStatement()))
+					return Arrays.asList(NOT_WELL_FORMED);
+				return Collections.emptyList();
+			}
+
+			@Override
+			public List<String> fail(String error) {
+				return Arrays.asList(error);
+			}
+		}, texts, errors, 0, texts.size()));
+		return errors;
+	}
+
+	private static final String NOT_WELL_FORMED = "program is not well-formed";
+
+	// The workers parsing batches of program texts, shared by all facades.
+	private static final ForkJoinPool PARSE_POOL = new ForkJoinPool();
+
+	// Turns each program text of a batch into its result.
+	private interface TextParser<R> {
+
+		// Returns the result of the given program text.
+		R parse(String programText);
+
+		// Returns the result of a program text of which the parsing failed with the given error.
+		R fail(String error);
+	}
+
+	// Parses the program texts from one index up to another into the results at the same
+	// indices, splitting them in halves until few enough are left to parse on one worker.
+	private static class ParseTask<R> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private ParseTask(TextParser<R> parser, List<String> texts, List<R> results,
+				int from, int to) {
+			this.parser = parser;
+			this.texts = texts;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		private final TextParser<R> parser;
+
+		private final List<String> texts;
+
+		private final List<R> results;
+
+		private final int from, to;
+
+		@Override
+		protected void compute() {
+			if (to - from <= PARSE_BATCH_SIZE) {
+				for (int index = from; index < to; index++) {
+					try {
+						results.set(index, parser.parse(texts.get(index)));
+					} catch (RuntimeException e) {
+						results.set(index, parser.fail(e.toString()));
+					}
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ParseTask<R>(parser, texts, results, from, middle),
+						new ParseTask<R>(parser, texts, results, middle, to));
+			}
+		}
 	}
 
+	private static final int PARSE_BATCH_SIZE = 4;
+
 	@Override
 	public boolean hasProgram(Worm worm) {
 		return worm.hasProgram();
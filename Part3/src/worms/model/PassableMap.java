@@ -0,0 +1,391 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of passable maps involving a width, a height and a bit for each
+ * cell expressing whether or not that cell is passable.
+ * 	Each row of a passable map is stored as a sequence of 64-bit words, so a whole
+ * 	range of cells in a row can be checked a word at a time.
+ *
+ * @invar	The width of each passable map is a valid dimension.
+ * 			| isValidDimension(getWidth())
+ * @invar	The height of each passable map is a valid dimension.
+ * 			| isValidDimension(getHeight())
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public class PassableMap {
+
+	/**
+	 * Initialize this new passable map with given width and height, in which
+	 * 	all cells are impassable.
+	 *
+	 * @param	width
+	 * 			The amount of columns for this new passable map.
+	 * @param	height
+	 * 			The amount of rows for this new passable map.
+	 * @post	The new width of this new passable map is equal to the given width.
+	 * 			| new.getWidth() == width
+	 * @post	The new height of this new passable map is equal to the given height.
+	 * 			| new.getHeight() == height
+	 * @post	Each cell of this new passable map is impassable.
+	 * 			| for each col in 0..width-1, row in 0..height-1:
+	 * 			|	!new.isPassable(col, row)
+	 * @throws	IllegalArgumentException
+	 * 			The given width or height is not a valid dimension.
+	 * 			| !isValidDimension(width) || !isValidDimension(height)
+	 */
+	@Raw
+	public PassableMap(int width, int height) throws IllegalArgumentException {
+		if (!isValidDimension(width) || !isValidDimension(height))
+			throw new IllegalArgumentException("Illegal dimensions for passable map");
+		this.width = width;
+		this.height = height;
+		this.wordsPerRow = (width + WORD_SIZE - 1) >>> WORD_SHIFT;
+		this.words = new long[wordsPerRow * height];
+	}
+
+	/**
+	 * Initialize this new passable map with the cells of the given boolean map.
+	 *
+	 * @param	passableMap
+	 * 			The map of which the cells will be copied, indexed as [row][column].
+	 * @effect	This new passable map is initialized with the width and height of the given map.
+	 * 			| this(passableMap[0].length, passableMap.length)
+	 * @post	Each cell of this new passable map is passable if and only if the
+	 * 			corresponding cell of the given map is true.
+	 * 			| for each col, row:
+	 * 			|	new.isPassable(col, row) == passableMap[row][col]
+	 */
+	@Raw
+	public PassableMap(boolean[][] passableMap) throws IllegalArgumentException {
+		this(passableMap.length == 0 ? 0 : passableMap[0].length, passableMap.length);
+		for (int row = 0; row < height; row++) {
+			final boolean[] cells = passableMap[row];
+			final int rowOffset = row * wordsPerRow;
+			for (int word = 0; word < wordsPerRow; word++) {
+				final int from = word << WORD_SHIFT;
+				final int to = Math.min(from + WORD_SIZE, width);
+				long bits = 0L;
+				for (int col = from; col < to; col++)
+					if (cells[col])
+						bits |= 1L << (col - from);
+				words[rowOffset + word] = bits;
+			}
+		}
+	}
+
+	/**
+	 * Check whether the given dimension is a valid dimension for any passable map.
+	 *
+	 * @param	dimension
+	 * 			The dimension to check.
+	 * @return	True if and only if the given dimension is strictly positive.
+	 * 			| result == dimension > 0
+	 */
+	public static boolean isValidDimension(int dimension) {
+		return dimension > 0;
+	}
+
+	/**
+	 * Return the width of this passable map.
+	 * 	The width of a passable map expresses the amount of columns of that map.
+	 */
+	@Basic
+	@Immutable
+	public int getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * Variable registering the amount of columns of this passable map.
+	 */
+	private final int width;
+
+	/**
+	 * Return the height of this passable map.
+	 * 	The height of a passable map expresses the amount of rows of that map.
+	 */
+	@Basic
+	@Immutable
+	public int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Variable registering the amount of rows of this passable map.
+	 */
+	private final int height;
+
+	/**
+	 * Check whether the given cell lies within this passable map.
+	 *
+	 * @param	col
+	 * 			The column of the cell to check.
+	 * @param	row
+	 * 			The row of the cell to check.
+	 * @return	True if and only if the given column and row are non-negative and
+	 * 			strictly smaller than the width and height of this map.
+	 * 			| result == col >= 0 && row >= 0 && col < getWidth() && row < getHeight()
+	 */
+	public boolean isValidCell(int col, int row) {
+		return col >= 0 && row >= 0 && col < width && row < height;
+	}
+
+	/**
+	 * Check whether the given cell of this passable map is passable.
+	 *
+	 * @param	col
+	 * 			The column of the cell to check.
+	 * @param	row
+	 * 			The row of the cell to check.
+	 * @return	False if the given cell does not lie within this map.
+	 * 			| if (!isValidCell(col, row))
+	 * 			|	result == false
+	 */
+	public boolean isPassable(int col, int row) {
+		if (!isValidCell(col, row))
+			return false;
+		return (words[row * wordsPerRow + (col >>> WORD_SHIFT)] & (1L << col)) != 0;
+	}
+
+	/**
+	 * Set the given cell of this passable map to the given passability.
+	 *
+	 * @param	col
+	 * 			The column of the cell to set.
+	 * @param	row
+	 * 			The row of the cell to set.
+	 * @param	passable
+	 * 			Whether or not the given cell becomes passable.
+	 * @post	The given cell is passable if and only if passable is true.
+	 * 			| new.isPassable(col, row) == passable
+	 * @throws	IndexOutOfBoundsException
+	 * 			The given cell does not lie within this map.
+	 * 			| !isValidCell(col, row)
+	 */
+	public void setPassable(int col, int row, boolean passable) throws IndexOutOfBoundsException {
+		if (!isValidCell(col, row))
+			throw new IndexOutOfBoundsException("Cell (" + col + ", " + row + ") outside of passable map");
+		final int index = row * wordsPerRow + (col >>> WORD_SHIFT);
+		if (passable)
+			words[index] |= 1L << col;
+		else
+			words[index] &= ~(1L << col);
+		modificationCount++;
+	}
+
+	/**
+	 * Set all cells of the given row to the passabilities in the given words.
+	 * 	Bit i of word w holds the passability of column w * 64 + i.
+	 *
+	 * @param	row
+	 * 			The row to set.
+	 * @param	rowWords
+	 * 			The words holding the new passability of each cell of that row.
+	 * @post	Each cell of the given row is passable if and only if its bit in
+	 * 			the given words is set.
+	 * @throws	IllegalArgumentException
+	 * 			The given words do not match the width of this map.
+	 * 			| rowWords.length != (getWidth() + 63) / 64
+	 * @throws	IndexOutOfBoundsException
+	 * 			The given row does not lie within this map.
+	 * 			| row < 0 || row >= getHeight()
+	 */
+	public void setRow(int row, long[] rowWords) throws IllegalArgumentException, IndexOutOfBoundsException {
+		if (rowWords.length != wordsPerRow)
+			throw new IllegalArgumentException("Row words do not match the width of this map");
+		if (row < 0 || row >= height)
+			throw new IndexOutOfBoundsException("Row " + row + " outside of passable map");
+		System.arraycopy(rowWords, 0, words, row * wordsPerRow, wordsPerRow);
+		words[row * wordsPerRow + wordsPerRow - 1] &= getLastWordMask();
+		modificationCount++;
+	}
+
+	/**
+	 * Check whether all cells of the given row between the given columns are passable.
+	 *
+	 * @param	row
+	 * 			The row to check.
+	 * @param	fromCol
+	 * 			The first column to check, inclusive.
+	 * @param	toCol
+	 * 			The last column to check, exclusive.
+	 * @return	True if and only if each cell of the given row between the given columns
+	 * 			lies within this map and is passable.
+	 * 			| result == for each col in fromCol..toCol-1: isPassable(col, row)
+	 */
+	public boolean isPassableRange(int row, int fromCol, int toCol) {
+		if (fromCol >= toCol)
+			return true;
+		if (row < 0 || row >= height || fromCol < 0 || toCol > width)
+			return false;
+		return countInRange(row, fromCol, toCol, false) == 0;
+	}
+
+	/**
+	 * Check whether all cells of the given row between the given columns are impassable.
+	 *
+	 * @param	row
+	 * 			The row to check.
+	 * @param	fromCol
+	 * 			The first column to check, inclusive.
+	 * @param	toCol
+	 * 			The last column to check, exclusive.
+	 * @return	True if and only if none of the cells of the given row between the given
+	 * 			columns is passable.
+	 * 			| result == for each col in fromCol..toCol-1: !isPassable(col, row)
+	 */
+	public boolean isImpassableRange(int row, int fromCol, int toCol) {
+		if (row < 0 || row >= height)
+			return true;
+		fromCol = Math.max(fromCol, 0);
+		toCol = Math.min(toCol, width);
+		if (fromCol >= toCol)
+			return true;
+		return countInRange(row, fromCol, toCol, true) == 0;
+	}
+
+	/**
+	 * Return the amount of passable cells in the given row between the given columns.
+	 *
+	 * @param	row
+	 * 			The row to count in.
+	 * @param	fromCol
+	 * 			The first column to count, inclusive.
+	 * @param	toCol
+	 * 			The last column to count, exclusive.
+	 * @return	The amount of cells within this map in the given row between the given
+	 * 			columns that are passable.
+	 */
+	public int countPassable(int row, int fromCol, int toCol) {
+		if (row < 0 || row >= height)
+			return 0;
+		fromCol = Math.max(fromCol, 0);
+		toCol = Math.min(toCol, width);
+		if (fromCol >= toCol)
+			return 0;
+		return countInRange(row, fromCol, toCol, true);
+	}
+
+	/**
+	 * Count the set (or cleared) bits of the given row between the given columns,
+	 * 	a whole word at a time.
+	 */
+	private int countInRange(int row, int fromCol, int toCol, boolean passable) {
+		final int rowOffset = row * wordsPerRow;
+		final int firstWord = fromCol >>> WORD_SHIFT;
+		final int lastWord = (toCol - 1) >>> WORD_SHIFT;
+		int count = 0;
+		for (int word = firstWord; word <= lastWord; word++) {
+			long bits = passable ? words[rowOffset + word] : ~words[rowOffset + word];
+			if (word == firstWord)
+				bits &= -1L << fromCol;
+			if (word == lastWord)
+				bits &= -1L >>> (WORD_SIZE - 1 - ((toCol - 1) & WORD_MASK));
+			count += Long.bitCount(bits);
+		}
+		return count;
+	}
+
+	/**
+	 * Return the mask of the bits of the last word of a row that correspond to
+	 * 	columns within this map.
+	 */
+	private long getLastWordMask() {
+		return -1L >>> (WORD_SIZE - 1 - ((width - 1) & WORD_MASK));
+	}
+
+	/**
+	 * Return a copy of this passable map as a two-dimensional array of booleans,
+	 * 	indexed as [row][column].
+	 *
+	 * @return	A new array in which each cell is true if and only if the corresponding
+	 * 			cell of this passable map is passable.
+	 * 			| for each col, row:
+	 * 			|	result[row][col] == isPassable(col, row)
+	 */
+	public boolean[][] toArray() {
+		final boolean[][] result = new boolean[height][width];
+		for (int row = 0; row < height; row++) {
+			final int rowOffset = row * wordsPerRow;
+			for (int col = 0; col < width; col++)
+				result[row][col] = (words[rowOffset + (col >>> WORD_SHIFT)] & (1L << col)) != 0;
+		}
+		return result;
+	}
+
+	/**
+	 * Return the amount of modifications made to the cells of this passable map.
+	 * 	Structures derived from this map can compare this count to find out
+	 * 	whether they are still up to date.
+	 */
+	@Basic
+	public int getModificationCount() {
+		return this.modificationCount;
+	}
+
+	/**
+	 * Variable registering the amount of modifications made to the cells of this passable map.
+	 */
+	private int modificationCount = 0;
+
+	/**
+	 * Return a distance field of this passable map with the given scales that is up to date.
+	 * 	The distance field is shared by all worlds on this passable map with the same scales,
+	 * 	and is only computed again once this passable map has been modified or other scales
+	 * 	are asked for.
+	 *
+	 * @param	widthScale
+	 * 			The width (in meters) of each cell of this map.
+	 * @param	heightScale
+	 * 			The height (in meters) of each cell of this map.
+	 * @return	A distance field of this passable map with the given scales that is up to date.
+	 * 			| result.getPassableMap() == this && result.isUpToDate() &&
+	 * 			|	result.getWidthScale() == widthScale && result.getHeightScale() == heightScale
+	 */
+	synchronized DistanceField getDistanceField(double widthScale, double heightScale) {
+		DistanceField field = this.distanceField;
+		if (field == null || !field.isUpToDate() ||
+				field.getWidthScale() != widthScale || field.getHeightScale() != heightScale) {
+			field = new DistanceField(this, widthScale, heightScale);
+			this.distanceField = field;
+		}
+		return field;
+	}
+
+	/**
+	 * Variable registering the distance field of this passable map for the latest scales.
+	 */
+	private DistanceField distanceField = null;
+
+	/**
+	 * Variable registering the amount of words in each row of this passable map.
+	 */
+	private final int wordsPerRow;
+
+	/**
+	 * Variable registering the cells of this passable map, row after row, 64 cells per word.
+	 */
+	private final long[] words;
+
+	/**
+	 * Variable registering the amount of cells in each word.
+	 */
+	private static final int WORD_SIZE = 64;
+
+	/**
+	 * Variable registering the shift that divides a column by the amount of cells in each word.
+	 */
+	private static final int WORD_SHIFT = 6;
+
+	/**
+	 * Variable registering the mask that gives the position of a column within its word.
+	 */
+	private static final int WORD_MASK = WORD_SIZE - 1;
+}
@@ -259,6 +259,13 @@ public class Position {
 		return positions;		
 	}
 	
+	/**
+	 * Returns the default angle accuracy for calculations.
+	 */
+	public static double getDefaultAngleAccuracy() {
+		return defaultAngleAccuracy;
+	}
+	
 	/**
 	 * A default angle accuracy for calculations.
 	 */
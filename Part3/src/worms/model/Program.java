@@ -1,9 +1,13 @@
 package worms.model;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map.Entry;
 
 import worms.gui.game.IActionHandler;
+import worms.model.programs.ProgramTemplate;
+import worms.model.programs.bytecode.VirtualMachine;
 import worms.model.programs.statements.*;
 import worms.model.programs.types.*;
 import worms.model.programs.expressions.*;
@@ -11,12 +15,21 @@ import worms.model.programs.expressions.EntityExpression;
 
 public class Program {
 
-	public Program(IActionHandler h, Statement s, HashMap<String, Type> globals, String text){
+	public Program(IActionHandler h, Statement s, HashMap<String, Type> globals, List<String> variables, String text){
+		this(h, new ProgramTemplate(s, globals, variables, text));
+	}
+
+	// A program made from a template shares its statement and bytecode, and has its own
+	// machine and variables.
+	public Program(IActionHandler h, ProgramTemplate template){
 		this.handler = h;
-		this.statement = s;
+		this.statement = template.getStatement();
 		this.instructionNb = 0;
-		addGlobals(globals);
-		this.text = text;
+		for (String name : template.getVariables())
+			getSlot(name);
+		addGlobals(template.getGlobals());
+		this.text = template.getText();
+		this.machine = new VirtualMachine(template.getBytecode());
 	}
 
 	public String printText(){
@@ -48,6 +61,12 @@ public class Program {
 
 	private Statement statement;
 
+	public VirtualMachine getMachine() {
+		return this.machine;
+	}
+
+	private final VirtualMachine machine;
+
 	public int getInstructionNb() {
 		return this.instructionNb;
 	}
@@ -58,11 +77,42 @@ public class Program {
 
 	private int instructionNb;
 
+	// A program executes at most its instruction budget of statements in one turn. A program
+	// that runs out of instructions yields, and resumes at its next statement the next turn.
+
+	public boolean hasInstructionsLeft() {
+		return instructionNb - turnStart < instructionBudget;
+	}
+
+	public int getInstructionBudget() {
+		return this.instructionBudget;
+	}
+
+	public static boolean isValidInstructionBudget(int instructionBudget) {
+		return instructionBudget > 0;
+	}
+
+	public void setInstructionBudget(int instructionBudget) throws IllegalArgumentException {
+		if (!isValidInstructionBudget(instructionBudget))
+			throw new IllegalArgumentException("Illegal instruction budget for program");
+		this.instructionBudget = instructionBudget;
+	}
+
+	private int instructionBudget = DEFAULT_INSTRUCTION_BUDGET;
+
+	private int turnStart;
+
+	public static int getDEFAULT_INSTRUCTION_BUDGET() {
+		return DEFAULT_INSTRUCTION_BUDGET;
+	}
+
+	private static final int DEFAULT_INSTRUCTION_BUDGET = 1000;
+
 	public HashMap<String, Expression> getGlobals() {
 		HashMap<String, Expression> all = new HashMap<String, Expression>();
-		all.putAll(doubles);
-		all.putAll(bools);
-		all.putAll(entities);
+		all.putAll(getDoubles());
+		all.putAll(getBools());
+		all.putAll(getEntities());
 		return all;
 	}
 
@@ -78,34 +128,117 @@ public class Program {
 	}
 
 	public void addGlobal(String name, Expression value) {
-		if (value instanceof DoubleLiteral && !bools.containsKey(name) && !entities.containsKey(name))
-			doubles.put(name, (DoubleLiteral) value);
-		else if (value instanceof BoolLiteral && !doubles.containsKey(name) && !entities.containsKey(name))
-			bools.put(name, (BoolLiteral) value);
-		else if (value instanceof EntityExpression && !doubles.containsKey(name) && ! bools.containsKey(name))
-			entities.put(name, (EntityExpression) value);
+		if (value instanceof DoubleLiteral)
+			setDouble(getSlot(name), ((DoubleLiteral) value).getResult());
+		else if (value instanceof BoolLiteral)
+			setBool(getSlot(name), ((BoolLiteral) value).getResult());
+		else if (value instanceof EntityExpression)
+			setEntity(getSlot(name), ((EntityExpression) value).getResult());
 	}
 
-	public HashMap<String, DoubleLiteral> getDoubles() {
-		return this.doubles;
+	// Each variable has a slot, of which the value is kept in the array of its kind.
+	// A variable takes the kind of the first value stored in it, and only keeps values of that kind.
+
+	public int getSlot(String name) {
+		Integer slot = slots.get(name);
+		if (slot == null) {
+			slot = nbVariables;
+			if (nbVariables == names.length) {
+				final int capacity = Math.max(8, 2 * nbVariables);
+				names = Arrays.copyOf(names, capacity);
+				kinds = Arrays.copyOf(kinds, capacity);
+				doubleValues = Arrays.copyOf(doubleValues, capacity);
+				boolValues = Arrays.copyOf(boolValues, capacity);
+				entityValues = Arrays.copyOf(entityValues, capacity);
+			}
+			names[nbVariables++] = name;
+			slots.put(name, slot);
+		}
+		return slot;
 	}
 
-	private HashMap<String, DoubleLiteral> doubles = new HashMap<String, DoubleLiteral>();
+	public double getDouble(int slot) {
+		return this.doubleValues[slot];
+	}
 
-	public HashMap<String, BoolLiteral> getBools() {
-		return this.bools;
+	public void setDouble(int slot, double value) {
+		if (kinds[slot] != NO_KIND && kinds[slot] != DOUBLE_KIND)
+			return;
+		if (Double.MAX_VALUE - value < 0)
+			value = Double.MAX_VALUE;
+		kinds[slot] = DOUBLE_KIND;
+		doubleValues[slot] = value;
 	}
 
-	private HashMap<String, BoolLiteral> bools = new HashMap<String, BoolLiteral>();
+	public boolean getBool(int slot) {
+		return this.boolValues[slot];
+	}
+
+	public void setBool(int slot, boolean value) {
+		if (kinds[slot] != NO_KIND && kinds[slot] != BOOL_KIND)
+			return;
+		kinds[slot] = BOOL_KIND;
+		boolValues[slot] = value;
+	}
+
+	public BallisticObject getEntity(int slot) {
+		return this.entityValues[slot];
+	}
+
+	public void setEntity(int slot, BallisticObject value) {
+		if (kinds[slot] != NO_KIND && kinds[slot] != ENTITY_KIND)
+			return;
+		kinds[slot] = ENTITY_KIND;
+		entityValues[slot] = value;
+	}
+
+	public HashMap<String, DoubleLiteral> getDoubles() {
+		HashMap<String, DoubleLiteral> doubles = new HashMap<String, DoubleLiteral>();
+		for (int slot = 0; slot < nbVariables; slot++)
+			if (kinds[slot] == DOUBLE_KIND)
+				doubles.put(names[slot], new DoubleLiteral(new DoubleType(doubleValues[slot]), -1, -1));
+		return doubles;
+	}
+
+	public HashMap<String, BoolLiteral> getBools() {
+		HashMap<String, BoolLiteral> bools = new HashMap<String, BoolLiteral>();
+		for (int slot = 0; slot < nbVariables; slot++)
+			if (kinds[slot] == BOOL_KIND)
+				bools.put(names[slot], new BoolLiteral(new BoolType(boolValues[slot]), -1, -1));
+		return bools;
+	}
 
 	public HashMap<String, EntityExpression> getEntities() {
-		return this.entities;
+		HashMap<String, EntityExpression> entities = new HashMap<String, EntityExpression>();
+		for (int slot = 0; slot < nbVariables; slot++)
+			if (kinds[slot] == ENTITY_KIND)
+				entities.put(names[slot], new EntityExpression(new EntityType(entityValues[slot]), -1, -1));
+		return entities;
 	}
 
-	private HashMap<String, EntityExpression> entities = new HashMap<String, EntityExpression>();
+	private HashMap<String, Integer> slots = new HashMap<String, Integer>();
+
+	private int nbVariables = 0;
+
+	private String[] names = new String[0];
+
+	private byte[] kinds = new byte[0];
+
+	private double[] doubleValues = new double[0];
+
+	private boolean[] boolValues = new boolean[0];
+
+	private BallisticObject[] entityValues = new BallisticObject[0];
+
+	private static final byte NO_KIND = 0, DOUBLE_KIND = 1, BOOL_KIND = 2, ENTITY_KIND = 3;
 
 	public void run() {
-		statement.execute(this);
+		executeTurn();
 		getPerformingWorm().getWorld().startNextTurn();
 	}
+
+	public void executeTurn() {
+		this.turnStart = instructionNb;
+		machine.execute(this);
+	}
 }
\ No newline at end of file
@@ -187,20 +187,43 @@ public class Projectile extends BallisticObject {
 	/**
 	 * Checks whether or not this jump is finished.
 	 * 
-	 * @param	currPos
-	 * 			The temporary position for this projectile to check if the jump is in a
+	 * @param	x
+	 * 			The temporary x-coordinate for this projectile to check if the jump is in a
 	 * 			finished state.
-	 * @return	True if and only if this projectile with the given position doesn't lie
+	 * @param	y
+	 * 			The temporary y-coordinate for this projectile to check if the jump is in a
+	 * 			finished state.
+	 * @return	True if and only if this projectile at the given coordinates doesn't lie
 	 * 			completely in its world or if its located on an impassable spot or if it
 	 * 			overlaps any worms in its world.
-	 * 			| result == !getWorld().liesWithinWorld(currPos, getRadius(), true) ||
-	 *			|			getWorld().isImpassableSpot(currPos, getRadius()) || !isActive() ||
-	 *			|			getWorld().hasOverlappingWorm(this, currPos)
+	 * 			| result == !getWorld().liesWithinWorld(x, y, getRadius()) ||
+	 *			|			!getWorld().isPassableSpot(x, y, getRadius()) || !isActive() ||
+	 *			|			getWorld().hasOverlappingWorm(this, x, y)
+	 */
+	@Override
+	public boolean isJumpFinished(double x, double y){ 
+		return !getWorld().liesWithinWorld(x, y, getRadius()) ||
+					!getWorld().isPassableSpot(x, y, getRadius()) || !isActive() ||
+						getWorld().hasOverlappingWorm(this, x, y);
+	}
+	
+	/**
+	 * Returns a distance (in meters) such that a jump of this projectile is not finished
+	 * 	at any position closer than that distance to the given position.
+	 * 
+	 * @param	x
+	 * 			The x-coordinate of the position.
+	 * @param	y
+	 * 			The y-coordinate of the position.
+	 * @return	The smallest of the clearance of this projectile in its world and the
+	 * 			distance this projectile can travel before it overlaps a worm.
+	 * 			| result == Math.min(getWorld().getClearance(x, y, getRadius()),
+	 * 			|	getWorld().getWormClearance(this, x, y))
 	 */
-	public boolean isJumpFinished(Position currPos){ 
-		return !getWorld().liesWithinWorld(currPos, getRadius()) ||
-					getWorld().isImpassableSpot(currPos, getRadius()) || !isActive() ||
-						getWorld().hasOverlappingWorm(this, currPos);
+	@Override
+	public double getJumpClearance(double x, double y){
+		return Math.min(getWorld().getClearance(x, y, getRadius()),
+				getWorld().getWormClearance(this, x, y));
 	}
 	
 	/**
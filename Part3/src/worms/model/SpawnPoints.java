@@ -0,0 +1,236 @@
+package worms.model;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of spawn points involving a distance field and a range of radiuses.
+ * 	The spawn points of a distance field are the passable cells at which a worm with a
+ * 	radius in the range might stand, i.e. the cells of which the distance to impassable
+ * 	terrain is close to such a radius. They are collected once and sorted by that distance,
+ * 	so the cells that suit one radius form a single run that is picked from at random.
+ * 	A cell only suggests a position; each position is checked exactly before it is used.
+ *
+ * @invar	The distance field of each set of spawn points is effective.
+ * 			| getDistanceField() != null
+ * @invar	The minimum radius of each set of spawn points is not larger than its maximum radius.
+ * 			| getMinRadius() <= getMaxRadius()
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+class SpawnPoints {
+
+	/**
+	 * Initialize this new set of spawn points for the given distance field and the given
+	 * 	range of radiuses.
+	 *
+	 * @param	distanceField
+	 * 			The distance field for this new set of spawn points.
+	 * @param	minRadius
+	 * 			The smallest radius for which spawn points are collected.
+	 * @param	maxRadius
+	 * 			The largest radius for which spawn points are collected.
+	 * @post	The distance field of this new set of spawn points is equal to the given distance field.
+	 * 			| new.getDistanceField() == distanceField
+	 * @post	The minimum radius of this new set of spawn points is equal to the given minimum radius.
+	 * 			| new.getMinRadius() == minRadius
+	 * @post	The maximum radius of this new set of spawn points is equal to the given maximum radius.
+	 * 			| new.getMaxRadius() == maxRadius
+	 * @throws	IllegalArgumentException
+	 * 			The given distance field is not effective, or the given radiuses do not form a range.
+	 * 			| distanceField == null || !(minRadius <= maxRadius)
+	 */
+	SpawnPoints(DistanceField distanceField, double minRadius, double maxRadius)
+			throws IllegalArgumentException {
+		if (distanceField == null || !(minRadius <= maxRadius))
+			throw new IllegalArgumentException("Illegal distance field or radiuses for spawn points");
+		this.distanceField = distanceField;
+		this.minRadius = minRadius;
+		this.maxRadius = maxRadius;
+		this.width = distanceField.getPassableMap().getWidth();
+		this.height = distanceField.getPassableMap().getHeight();
+		this.diagonal = Math.hypot(distanceField.getWidthScale(), distanceField.getHeightScale());
+		this.candidates = collectCandidates();
+	}
+
+	/**
+	 * Return the distance field of this set of spawn points.
+	 */
+	@Basic
+	@Immutable
+	DistanceField getDistanceField() {
+		return this.distanceField;
+	}
+
+	/**
+	 * Variable registering the distance field of this set of spawn points.
+	 */
+	private final DistanceField distanceField;
+
+	/**
+	 * Return the smallest radius for which this set of spawn points was collected.
+	 */
+	@Basic
+	@Immutable
+	double getMinRadius() {
+		return this.minRadius;
+	}
+
+	/**
+	 * Variable registering the smallest radius for which this set of spawn points was collected.
+	 */
+	private final double minRadius;
+
+	/**
+	 * Return the largest radius for which this set of spawn points was collected.
+	 */
+	@Basic
+	@Immutable
+	double getMaxRadius() {
+		return this.maxRadius;
+	}
+
+	/**
+	 * Variable registering the largest radius for which this set of spawn points was collected.
+	 */
+	private final double maxRadius;
+
+	/**
+	 * Check whether this set of spawn points can be used for the given distance field and radius.
+	 *
+	 * @param	distanceField
+	 * 			The distance field to check.
+	 * @param	radius
+	 * 			The radius to check.
+	 * @return	True if and only if the given distance field is the distance field of this set of
+	 * 			spawn points, and the given radius lies in its range of radiuses.
+	 * 			| result == distanceField == getDistanceField() &&
+	 * 			|	getMinRadius() <= radius && radius <= getMaxRadius()
+	 */
+	boolean covers(DistanceField distanceField, double radius) {
+		return distanceField == this.distanceField && minRadius <= radius && radius <= maxRadius;
+	}
+
+	/**
+	 * Return a random position in the given world at which a worm with the given radius
+	 * 	could be placed, or null if none was found in a limited amount of attempts.
+	 *
+	 * @param	world
+	 * 			The world of which the passable map has the distance field of this set of spawn points.
+	 * @param	radius
+	 * 			The radius of the worm to place.
+	 * @param	random
+	 * 			The random generator that picks the positions.
+	 * @return	Null, or a position at which a worm with the given radius would be adjacent
+	 * 			to impassable terrain and lie within the given world.
+	 * 			| result == null || (world.isAdjacentPosition(result, radius) &&
+	 * 			|	world.liesWithinWorld(result, radius))
+	 */
+	Position findPosition(World world, double radius, Random random) {
+		final int first = lowerBound(toKey(Math.max(0, radius - 2 * diagonal), false));
+		final int last = lowerBound(toKey(radius * (1 + World.getADJACENT_DISTANCE()), true));
+		if (first >= last)
+			return null;
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			final int cell = (int) candidates[first + random.nextInt(last - first)];
+			final int col = cell % width;
+			final int row = cell / width;
+			final double x = (col + random.nextDouble()) * distanceField.getWidthScale();
+			final double y = (height - row - random.nextDouble()) * distanceField.getHeightScale();
+			if (world.isAdjacentPosition(x, y, radius) && world.liesWithinWorld(x, y, radius))
+				return new Position(x, y);
+		}
+		return null;
+	}
+
+	/**
+	 * Collect the passable cells of the distance field of this set of spawn points at which
+	 * 	a worm with a radius in its range might stand, sorted by their distance.
+	 * 	Any point of a cell lies at most one and a half diagonal further from impassable
+	 * 	terrain than the distance registered for that cell, and a worm with radius r
+	 * 	stands at most r times 1 plus the adjacent distance away from impassable terrain.
+	 */
+	private long[] collectCandidates() {
+		final PassableMap map = distanceField.getPassableMap();
+		final double lower = Math.max(0, minRadius - 2 * diagonal);
+		final double upper = maxRadius * (1 + World.getADJACENT_DISTANCE());
+		long[] result = new long[64];
+		int count = 0;
+		for (int row = 0; row < height; row++)
+			for (int col = 0; col < width; col++) {
+				final double distance = distanceField.getCellDistance(col, row);
+				if (distance < lower || distance > upper || !map.isPassable(col, row))
+					continue;
+				if (count == result.length)
+					result = Arrays.copyOf(result, count * 2);
+				result[count++] = ((long) Float.floatToIntBits((float) distance) << 32) | (row * width + col);
+			}
+		result = Arrays.copyOf(result, count);
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * Return the key that sorts just before all candidates with the given distance, or just
+	 * 	after them if the given flag is set.
+	 * 	The bits of a float that is positive or zero sort in the same order as that float.
+	 */
+	private static long toKey(double distance, boolean after) {
+		float rounded = (float) distance;
+		if (after) {
+			if (rounded < distance)
+				rounded = Math.nextUp(rounded);
+			return ((long) Float.floatToIntBits(rounded) << 32) | 0xffffffffL;
+		}
+		if (rounded > distance)
+			rounded = Math.nextDown(rounded);
+		return (long) Float.floatToIntBits(rounded) << 32;
+	}
+
+	/**
+	 * Return the index of the first candidate that is not smaller than the given key.
+	 */
+	private int lowerBound(long key) {
+		int low = 0;
+		int high = candidates.length;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (candidates[middle] < key)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	/**
+	 * Variable registering the amount of columns of the map of this set of spawn points.
+	 */
+	private final int width;
+
+	/**
+	 * Variable registering the amount of rows of the map of this set of spawn points.
+	 */
+	private final int height;
+
+	/**
+	 * Variable registering the length (in meters) of the diagonal of a cell.
+	 */
+	private final double diagonal;
+
+	/**
+	 * Variable registering the candidate cells of this set of spawn points, each as the bits
+	 * 	of its distance followed by its index, in ascending order.
+	 */
+	private final long[] candidates;
+
+	/**
+	 * Variable registering the amount of cells tried for one position.
+	 */
+	private static final int MAX_ATTEMPTS = 64;
+}
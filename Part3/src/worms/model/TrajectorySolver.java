@@ -0,0 +1,193 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of trajectory solvers involving a tolerance.
+ * 	A trajectory solver finds the first moment, on a grid of time steps, at which the jump
+ * 	of a ballistic object is finished. Far from any obstacle the parabola is followed in
+ * 	large steps, as long as the jump clearance of the ballistic object guarantees that
+ * 	the jump can not finish in between. Near an obstacle the grid is walked in strides of
+ * 	the tolerance, and the first finishing moment within the last stride is found by
+ * 	bisection.
+ *
+ * @invar	The tolerance of each trajectory solver is a valid tolerance.
+ * 			| isValidTolerance(getTolerance())
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public class TrajectorySolver {
+
+	/**
+	 * Initialize this new trajectory solver with given tolerance.
+	 *
+	 * @param	tolerance
+	 * 			The tolerance (in seconds) for this new trajectory solver.
+	 * @post	The tolerance of this new trajectory solver is equal to the given tolerance.
+	 * 			| new.getTolerance() == tolerance
+	 * @throws	IllegalArgumentException
+	 * 			The given tolerance is not a valid tolerance.
+	 * 			| !isValidTolerance(tolerance)
+	 */
+	public TrajectorySolver(double tolerance) throws IllegalArgumentException {
+		if (!isValidTolerance(tolerance))
+			throw new IllegalArgumentException("Illegal tolerance for trajectory solver");
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Initialize this new trajectory solver with the default tolerance.
+	 *
+	 * @effect	This new trajectory solver is initialized with the default tolerance.
+	 * 			| this(getDEFAULT_TOLERANCE())
+	 */
+	public TrajectorySolver() {
+		this(DEFAULT_TOLERANCE);
+	}
+
+	/**
+	 * Check whether the given tolerance is a valid tolerance for any trajectory solver.
+	 *
+	 * @param	tolerance
+	 * 			The tolerance to check.
+	 * @return	True if and only if the given tolerance is positive or zero, and finite.
+	 * 			| result == tolerance >= 0 && !Double.isInfinite(tolerance)
+	 */
+	public static boolean isValidTolerance(double tolerance) {
+		return tolerance >= 0 && !Double.isInfinite(tolerance);
+	}
+
+	/**
+	 * Return the tolerance of this trajectory solver.
+	 * 	The tolerance of a trajectory solver expresses how much time (in seconds) may pass
+	 * 	between two moments that are checked near an obstacle. A jump that is finished
+	 * 	during less than the tolerance may therefore be missed.
+	 * 	A tolerance smaller than the time step checks every moment near an obstacle.
+	 */
+	@Basic
+	@Immutable
+	public double getTolerance() {
+		return this.tolerance;
+	}
+
+	/**
+	 * Variable registering the tolerance of this trajectory solver.
+	 */
+	private final double tolerance;
+
+	/**
+	 * Return the default tolerance for trajectory solvers.
+	 */
+	public static double getDEFAULT_TOLERANCE() {
+		return DEFAULT_TOLERANCE;
+	}
+
+	/**
+	 * Variable registering the default tolerance for trajectory solvers.
+	 */
+	private static final double DEFAULT_TOLERANCE = 1e-3;
+
+	/**
+	 * Return the first moment at which the jump of the given ballistic object is finished.
+	 * 	The moments considered start at the time the given object needs to travel its own
+	 * 	radius, and follow each other at the given time step.
+	 *
+	 * @param	object
+	 * 			The ballistic object of which the jump will be followed.
+	 * @param	timeStep
+	 * 			The time between two consecutive moments.
+	 * @return	A moment at which the jump of the given object is finished. It lies less than
+	 * 			the tolerance of this solver after the first such moment, unless the jump is
+	 * 			finished during less than the tolerance before that.
+	 * 			| object.isJumpFinished(object.getJumpStepX(result), object.getJumpStepY(result))
+	 */
+	public double getLandingTime(BallisticObject object, double timeStep) {
+		final double velocity = object.getInitialJumpVelocity(object.getJumpForce());
+		final double direction = object.getVector().getDirection();
+		final double velocityX = velocity * Math.cos(direction);
+		final double velocityY = velocity * Math.sin(direction);
+		final double startTime = object.getRadius() / velocity;
+		final long stride = Math.max(1, (long) Math.floor(tolerance / timeStep));
+
+		if (isFinished(object, startTime))
+			return startTime;
+		// every step up to and including this one is known to be unfinished
+		long step = 0;
+		while (true) {
+			final double time = startTime + step * timeStep;
+			final double clearance = object.getJumpClearance(
+					object.getJumpStepX(time), object.getJumpStepY(time));
+			final long safeSteps = getSafeSteps(velocityX, velocityY, time, clearance, timeStep);
+			if (safeSteps >= stride) {
+				step += safeSteps;
+				continue;
+			}
+			final long unfinished = step + safeSteps;
+			step = unfinished + stride;
+			if (isFinished(object, startTime + step * timeStep))
+				return startTime + bisect(object, startTime, timeStep, unfinished, step) * timeStep;
+		}
+	}
+
+	/**
+	 * Return the amount of time steps after the given time during which the position of
+	 * 	a parabola with given velocity moves less than the given clearance.
+	 * 	The speed along a parabola is convex in time, so it is bounded by its values at
+	 * 	both ends of the interval.
+	 */
+	private static long getSafeSteps(double velocityX, double velocityY, double time,
+			double clearance, double timeStep) {
+		if (!(clearance > 0))
+			return 0;
+		final double speed = getSpeed(velocityX, velocityY, time);
+		final double firstGuess = clearance / speed;
+		final double maxSpeed = Math.max(speed, getSpeed(velocityX, velocityY, time + firstGuess));
+		final double safeTime = clearance / maxSpeed * SAFETY_FACTOR;
+		return (long) Math.min(Math.floor(safeTime / timeStep), MAX_SAFE_STEPS);
+	}
+
+	/**
+	 * Return the speed of a parabola with given initial velocity at the given time.
+	 */
+	private static double getSpeed(double velocityX, double velocityY, double time) {
+		return Math.hypot(velocityX, velocityY - World.getSTD_ACCEL_EARTH() * time);
+	}
+
+	/**
+	 * Check whether the jump of the given ballistic object is finished at the given time.
+	 */
+	private static boolean isFinished(BallisticObject object, double time) {
+		return object.isJumpFinished(object.getJumpStepX(time), object.getJumpStepY(time));
+	}
+
+	/**
+	 * Return the first step between the given steps at which the jump of the given
+	 * 	ballistic object is finished, given that it is not finished at the first given
+	 * 	step and finished at the last given step.
+	 */
+	private static long bisect(BallisticObject object, double startTime, double timeStep,
+			long unfinished, long finished) {
+		while (finished - unfinished > 1) {
+			final long middle = unfinished + (finished - unfinished) / 2;
+			if (isFinished(object, startTime + middle * timeStep))
+				finished = middle;
+			else
+				unfinished = middle;
+		}
+		return finished;
+	}
+
+	/**
+	 * Variable registering the part of a safe time that is actually skipped, to stay clear
+	 * of rounding errors.
+	 */
+	private static final double SAFETY_FACTOR = 0.999;
+
+	/**
+	 * Variable registering the maximum amount of time steps that is skipped at once.
+	 */
+	private static final double MAX_SAFE_STEPS = 1e9;
+}
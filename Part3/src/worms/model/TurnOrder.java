@@ -0,0 +1,249 @@
+package worms.model;
+
+import java.util.AbstractCollection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A class of turn orders involving worms and a current worm.
+ * 	The worms of a turn order are kept in an array in the order in which they were added.
+ * 	A removed worm leaves an empty slot behind, so the other worms keep their place in
+ * 	the rotation; the empty slots are cleared out once they outnumber the worms.
+ * 	When the current worm is removed, the turn goes to the worm that came after it.
+ * 	Iterating over a turn order never fails when worms are added or removed meanwhile.
+ * 	Worms removed meanwhile are skipped, unless the empty slots were cleared out after
+ * 	the iteration started; worms added meanwhile are not returned.
+ *
+ * @invar	A turn order contains no worm twice.
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public class TurnOrder extends AbstractCollection<Worm> {
+
+	/**
+	 * Initialize this new turn order without any worms.
+	 *
+	 * @post	This new turn order has no worms.
+	 * 			| new.size() == 0
+	 */
+	public TurnOrder() {
+		this.slots = new Worm[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Add the given worm at the end of this turn order.
+	 *
+	 * @param	worm
+	 * 			The worm to add.
+	 * @return	True if and only if the given worm was not yet in this turn order.
+	 * 			| result == !contains(worm)
+	 * @throws	IllegalArgumentException
+	 * 			The given worm is not effective.
+	 * 			| worm == null
+	 */
+	@Override
+	public boolean add(Worm worm) throws IllegalArgumentException {
+		if (worm == null)
+			throw new IllegalArgumentException("Non-effective worm");
+		if (indices.containsKey(worm))
+			return false;
+		if (length == slots.length) {
+			final Worm[] grown = new Worm[slots.length * 2];
+			System.arraycopy(slots, 0, grown, 0, length);
+			slots = grown;
+		}
+		slots[length] = worm;
+		indices.put(worm, length);
+		length++;
+		return true;
+	}
+
+	/**
+	 * Remove the given worm from this turn order, if it is in it.
+	 *
+	 * @param	o
+	 * 			The worm to remove.
+	 * @return	True if and only if the given worm was in this turn order.
+	 */
+	@Override
+	public boolean remove(Object o) {
+		final Integer index = indices.remove(o);
+		if (index == null)
+			return false;
+		slots[index] = null;
+		if (index == current)
+			currentRemoved = true;
+		if (length - indices.size() > Math.max(indices.size(), INITIAL_CAPACITY))
+			compact();
+		return true;
+	}
+
+	/**
+	 * Check whether the given object is a worm of this turn order.
+	 */
+	@Override
+	public boolean contains(Object o) {
+		return indices.containsKey(o);
+	}
+
+	/**
+	 * Return the amount of worms in this turn order.
+	 */
+	@Override
+	public int size() {
+		return indices.size();
+	}
+
+	/**
+	 * Return the worm whose turn it is, or null if this turn order has no worms.
+	 * 	If the current worm has been removed, the worm that came after it is returned.
+	 */
+	public Worm getCurrent() {
+		final int index = findWorm(current);
+		return index < 0 ? null : slots[index];
+	}
+
+	/**
+	 * Give the turn to the next worm of this turn order, and return that worm.
+	 * 	If the current worm has been removed, the turn goes to the worm that came after it.
+	 *
+	 * @return	The new current worm, or null if this turn order has no worms.
+	 * 			| result == new.getCurrent()
+	 */
+	public Worm advance() {
+		final int index = findWorm(currentRemoved ? current : current + 1);
+		currentRemoved = false;
+		if (index < 0)
+			return null;
+		current = index;
+		return slots[index];
+	}
+
+	/**
+	 * Give the turn to the first worm of this turn order.
+	 *
+	 * @post	The current worm of this turn order is its first worm.
+	 * 			| new.getCurrent() == getFirst()
+	 */
+	public void reset() {
+		current = 0;
+		currentRemoved = slots[0] == null;
+	}
+
+	/**
+	 * Return the first worm of this turn order, or null if it has no worms.
+	 */
+	public Worm getFirst() {
+		final int index = findWorm(0);
+		return index < 0 ? null : slots[index];
+	}
+
+	/**
+	 * Return the index of the first worm at or after the given index, going round to the
+	 * 	start of this turn order, or -1 if this turn order has no worms.
+	 */
+	private int findWorm(int from) {
+		if (indices.isEmpty())
+			return -1;
+		if (from >= length)
+			from = 0;
+		int index = from;
+		while (slots[index] == null) {
+			index++;
+			if (index == length)
+				index = 0;
+		}
+		return index;
+	}
+
+	/**
+	 * Clear out the empty slots of this turn order, keeping the worms in their order and the
+	 * 	turn at the same worm.
+	 * 	A new array is used, so iterations that have already started are not disturbed.
+	 */
+	private void compact() {
+		final Worm[] compacted = new Worm[Math.max(INITIAL_CAPACITY, indices.size() * 2)];
+		int newLength = 0;
+		int newCurrent = -1;
+		for (int index = 0; index < length; index++) {
+			if (index == current)
+				newCurrent = newLength;
+			if (slots[index] != null) {
+				compacted[newLength] = slots[index];
+				indices.put(slots[index], newLength);
+				newLength++;
+			}
+		}
+		// if the current worm was removed, its successor takes its index
+		this.current = (newCurrent < 0) ? newLength : newCurrent;
+		this.slots = compacted;
+		this.length = newLength;
+	}
+
+	/**
+	 * Return an iterator over the worms of this turn order, in turn order.
+	 */
+	@Override
+	public Iterator<Worm> iterator() {
+		final Worm[] iterated = slots;
+		final int iteratedLength = length;
+		return new Iterator<Worm>() {
+
+			private int index = 0;
+
+			// empty slots are skipped only when they are reached, so worms removed after
+			// the previous worm was returned are skipped as well
+			@Override
+			public boolean hasNext() {
+				while (index < iteratedLength && iterated[index] == null)
+					index++;
+				return index < iteratedLength;
+			}
+
+			@Override
+			public Worm next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return iterated[index++];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * Variable registering the slots of this turn order, in which removed worms leave a null.
+	 */
+	private Worm[] slots;
+
+	/**
+	 * Variable registering the amount of slots of this turn order that are in use.
+	 */
+	private int length = 0;
+
+	/**
+	 * Variable registering the slot of each worm of this turn order.
+	 */
+	private final IdentityHashMap<Worm, Integer> indices = new IdentityHashMap<Worm, Integer>();
+
+	/**
+	 * Variable registering the slot of the current worm of this turn order.
+	 */
+	private int current = 0;
+
+	/**
+	 * Variable registering whether the current worm of this turn order has been removed.
+	 */
+	private boolean currentRemoved = false;
+
+	/**
+	 * Variable registering the initial amount of slots of a turn order.
+	 */
+	private static final int INITIAL_CAPACITY = 8;
+}
@@ -1,6 +1,7 @@
 package worms.model;
 
-import java.util.LinkedList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Random;
 
 import worms.exceptions.IllegalGameStateException;
@@ -32,8 +33,45 @@ import be.kuleuven.cs.som.annotate.Raw;
 
 public class World {
 
+	/**
+	 * Initialize this new world with given width, height, passable map and random generator.
+	 * 
+	 * @param	width
+	 * 			The width (in meters) for this new world.
+	 * @param	height
+	 * 			The height (in meters) for this new world.
+	 * @param	passableMap
+	 * 			The passable map for this new world, indexed as [row][column].
+	 * @param	random
+	 * 			The random generator for this new world.
+	 * @effect	This new world is initialized with a bit-packed copy of the given passable map.
+	 * 			| this(width, height, 
+	 * 			|	(passableMap == null ? null : new PassableMap(passableMap)), random)
+	 */
 	public World(double width, double height,
 			boolean[][] passableMap, Random random) throws IllegalSizeException {
+		this(width, height, (passableMap == null ? null : new PassableMap(passableMap)), random);
+	}
+
+	/**
+	 * Initialize this new world with given width, height, passable map and random generator.
+	 * 	This constructor is package-private, so calls with a null map from other
+	 * 	packages still resolve to the public constructor taking a boolean map.
+	 * 
+	 * @param	width
+	 * 			The width (in meters) for this new world.
+	 * @param	height
+	 * 			The height (in meters) for this new world.
+	 * @param	passableMap
+	 * 			The passable map for this new world.
+	 * @param	random
+	 * 			The random generator for this new world.
+	 * @throws	IllegalSizeException(this, width, height)
+	 * 			The given width or height is not valid for any world.
+	 * 			| !isValidWidth(width) || !isValidHeight(height)
+	 */
+	World(double width, double height,
+			PassableMap passableMap, Random random) throws IllegalSizeException {
 		if (!isValidWidth(width) || !isValidHeight(height))
 			throw new IllegalSizeException(this, width, height);
 		this.WIDTH = width;
@@ -196,6 +234,7 @@ public class World {
 		if (!canAddNewWorm())
 			throw new IllegalGameStateException(this);
 		this.worms.add(worm);
+		this.wormGrid.add(worm);
 		wormNumber++;
 		return worm;
 	}
@@ -241,7 +280,9 @@ public class World {
 		final double radius = minRadius + (minRadius * 2 - minRadius)
 				* this.random.nextDouble();
 		final double direction = 2 * Math.PI * this.random.nextDouble();
-		final Position pos = findAdjacentPosition(new Position(x, y), radius);
+		Position pos = findSpawnPosition(radius, minRadius, minRadius * 2);
+		if (pos == null)
+			pos = findAdjacentPosition(new Position(x, y), radius);
 		final String name = "Worm " + wormNumber;
 		try {
 			addWorm(pos.getX(), pos.getY(), direction, radius, name, program);
@@ -260,11 +301,13 @@ public class World {
 	/**
 	 * Return the worms of this world. The worms of this world determines the
 	 * worms that are situated in this world.
+	 * 	The worms are returned in the order in which they get their turn, and can not be
+	 * 	modified through the collection returned.
 	 */
 	@Basic
 	@Raw
-	public LinkedList<Worm> getWorms() {
-		return this.worms;
+	public Collection<Worm> getWorms() {
+		return this.wormsView;
 	}
 	
 	/**
@@ -284,10 +327,24 @@ public class World {
 	 * 			
 	 */
 	public Worm getOverlappingWorms(Projectile projectile, Position currPos) {
-		for (Worm worm : worms)
-			if (worm.overlapsWith(projectile, currPos) && worm != projectile.getOwner())
-				return worm;
-		return null;
+		return getOverlappingWorms(projectile, currPos.getX(), currPos.getY());
+	}
+	
+	/**
+	 * Returns the worm of this world, other than its owner, that the given projectile at the
+	 * 	given coordinates overlaps with, or null if there is no such worm.
+	 * 
+	 * @param	projectile
+	 * 			The projectile shot.
+	 * @param	x
+	 * 			The x-coordinate of the given projectile.
+	 * @param	y
+	 * 			The y-coordinate of the given projectile.
+	 * @return	The same worm as for a position with the given coordinates.
+	 * 			| result == getOverlappingWorms(projectile, new Position(x, y))
+	 */
+	public Worm getOverlappingWorms(Projectile projectile, double x, double y) {
+		return wormGrid.getFirstOverlapping(projectile, x, y);
 	}
 	
 	/**
@@ -303,6 +360,55 @@ public class World {
 		return getOverlappingWorms(projectile, currPos) != null;
 	}
 	
+	/**
+	 * Checks whether or not the given projectile at the given coordinates overlaps with a worm of this world.
+	 * 
+	 * @param	projectile
+	 * 			The projectile shot.
+	 * @param	x
+	 * 			The x-coordinate of the given projectile.
+	 * @param	y
+	 * 			The y-coordinate of the given projectile.
+	 * @return	True if and only if the given projectile at the given coordinates overlaps with at least one worm.
+	 */
+	public boolean hasOverlappingWorm(Projectile projectile, double x, double y){
+		return getOverlappingWorms(projectile, x, y) != null;
+	}
+	
+	/**
+	 * Returns the distance (in meters) the given projectile can travel from the given
+	 * 	position before it overlaps with a worm of this world.
+	 * 
+	 * @param	projectile
+	 * 			The projectile shot.
+	 * @param	x
+	 * 			The x-coordinate of the position of the given projectile.
+	 * @param	y
+	 * 			The y-coordinate of the position of the given projectile.
+	 * @return	A distance that is positive or zero, and not larger than the distance between the
+	 * 			given projectile and any worm of this world other than its owner, minus both radiuses.
+	 */
+	public double getWormClearance(Projectile projectile, double x, double y) {
+		return wormGrid.getClearance(projectile, x, y);
+	}
+	
+	/**
+	 * Returns the nearest worm of this world in the given direction from the given position,
+	 * 	or null if there is no such worm.
+	 * 
+	 * @param	pos
+	 * 			The position to search from.
+	 * @param	angle
+	 * 			The direction to search in.
+	 * @return	The worm of this world of which the slope from the given position differs from the
+	 * 			given direction by no more than the angle its radius spans at its distance, and
+	 * 			that is nearest to the given position. Of worms at (fuzzily) the same distance,
+	 * 			the last one in the order of the turns is returned.
+	 */
+	public Worm getNearestWorm(Position pos, double angle) {
+		return wormGrid.getNearestInDirection(pos, angle);
+	}
+	
 	/**
 	 * Checks whether or not this world has the same worm twice.
 	 * @return
@@ -321,10 +427,36 @@ public class World {
 		return true;
 	}
 
+	/**
+	 * Registers the current position and radius of the given worm of this world, so
+	 * 	that overlaps with that worm are found at its new location.
+	 * 
+	 * @param	worm
+	 * 			The worm that has moved or changed its radius.
+	 */
+	void updateWormLocation(Worm worm) {
+		wormGrid.update(worm);
+	}
+	
+	/**
+	 * Variable registering the worms of this world by their location.
+	 */
+	private final WormGrid wormGrid = new WormGrid(WORM_GRID_CELL_SIZE);
+	
+	/**
+	 * Variable registering the size (in meters) of the cells in which the worms of a world are registered.
+	 */
+	private static final double WORM_GRID_CELL_SIZE = 1.0;
+	
 	/**
 	 * Variable registering the worms of a world.
 	 */
-	private LinkedList<Worm> worms = new LinkedList<Worm>();
+	private final TurnOrder worms = new TurnOrder();
+
+	/**
+	 * Variable registering a read-only view on the worms of a world.
+	 */
+	private final Collection<Worm> wormsView = Collections.unmodifiableCollection(worms);
 
 	/**
 	 * Return the only active projectile of this world. The active projectile of
@@ -355,12 +487,12 @@ public class World {
 	/**
 	 * Calculates scale of the width of this world.
 	 * 
-	 * @return The width of this world (in meters) divided by the length of this
+	 * @return The width of this world (in meters) divided by the width of this
 	 *         world its passable map. | result ==
-	 *         this.WIDTH / this.passableMap[0].length
+	 *         this.WIDTH / this.passableMap.getWidth()
 	 */
 	public double getWidthScale() {
-		return this.WIDTH / this.passableMap[0].length;
+		return this.WIDTH / this.passableMap.getWidth();
 	}
 
 	/**
@@ -368,10 +500,10 @@ public class World {
 	 * 
 	 * @return The height of this world (in meters) divided by the depth of this
 	 *         world its passable map. | result ==
-	 *         this.HEIGHT / this.passableMap.length
+	 *         this.HEIGHT / this.passableMap.getHeight()
 	 */
 	public double getHeightScale() {
-		return this.HEIGHT / this.passableMap.length;
+		return this.HEIGHT / this.passableMap.getHeight();
 	}
 
 	/**
@@ -384,6 +516,40 @@ public class World {
 		return new Position(this.WIDTH / 2, this.HEIGHT / 2);
 	}
 	
+	/**
+	 * Finds a random adjacent position within this world for a worm with the given radius,
+	 * 	among the spawn points of this world for the given range of radiuses.
+	 * 	The spawn points are collected the first time they are needed, and again each time
+	 * 	the passable map of this world or the range of radiuses changes.
+	 * 
+	 * @param	radius
+	 * 			The radius that will be used to check if a position is adjacent.
+	 * @param	minRadius
+	 * 			The smallest radius a new worm of this world can have.
+	 * @param	maxRadius
+	 * 			The largest radius a new worm of this world can have.
+	 * @return	An adjacent position within this world if found, null otherwise.
+	 * 			| result == null || (isAdjacentPosition(result, radius) &&
+	 * 			|	liesWithinWorld(result, radius))
+	 */
+	private Position findSpawnPosition(double radius, double minRadius, double maxRadius){
+		if (this.passableMap == null)
+			return null;
+		final DistanceField field = getDistanceField();
+		SpawnPoints points = this.spawnPoints;
+		if (points == null || !points.covers(field, radius) ||
+				points.getMinRadius() != minRadius || points.getMaxRadius() != maxRadius) {
+			points = new SpawnPoints(field, minRadius, maxRadius);
+			this.spawnPoints = points;
+		}
+		return points.findPosition(this, radius, this.random);
+	}
+
+	/**
+	 * Variable registering the spawn points of this world for the latest range of radiuses.
+	 */
+	private SpawnPoints spawnPoints = null;
+
 	/**
 	 * Finds an adjacent position by iterating towards the center of this world beginning
 	 * 	from the given position.
@@ -441,17 +607,84 @@ public class World {
 	 * @return	False if the former conditions weren't met.
 	 */
 	public boolean isAdjacentPosition(Position pos, double radius){
-		if (!this.isPassableSpot(pos, radius))
+		return isAdjacentPosition(pos.getX(), pos.getY(), radius);
+	}
+
+	/**
+	 * Checks whether or not the given coordinates with given radius form an adjacent position.
+	 * 
+	 * @param	x
+	 * 			The x-coordinate to check.
+	 * @param	y
+	 * 			The y-coordinate to check.
+	 * @param	radius
+	 * 			The radius to check.
+	 * @return	False if the given coordinates do not form a passable spot.
+	 * 			| result == !this.isPassableSpot(x, y, radius)
+	 * @return	True if and only if a circle with a radius between radius and radius plus
+	 * 			radius multiplied by 0.1 is not a passable spot.
+	 * 			| for (double radiusToCheck : Entity.getRadiuses(radius, 0.1, false, 0.01))
+	 *			|	if (!this.isPassableSpot(x, y, radiusToCheck))
+	 *			|		result == true
+	 * @return	False if the former conditions weren't met.
+	 */
+	public boolean isAdjacentPosition(double x, double y, double radius){
+		if (radius >= Util.DEFAULT_EPSILON &&
+				getDistanceField().getDistance(x, y) > radius * (1 + ADJACENT_DISTANCE))
+			return false;
+		if (!this.isPassableSpot(x, y, radius))
 			return false;
-			
-		for (double radiusToCheck : Entity.getRadiuses(radius, 0.1, false, 0.01))
-			if (!this.isPassableSpot(pos, radiusToCheck))
+		
+		// same radiuses, in the same order, as Entity.getRadiuses(radius, ADJACENT_DISTANCE, false, 0.01)
+		for (double i = ADJACENT_DISTANCE; i > ADJACENT_PRECISION; i -= ADJACENT_PRECISION)
+			if (!this.isPassableSpot(x, y, radius + radius * i))
 				return true;
 		return false;
 	}
+
+	/**
+	 * Variable registering the steps, relative to a radius, in which the distance within
+	 * which impassable terrain makes a position adjacent is checked.
+	 */
+	private static final double ADJACENT_PRECISION = 0.01;
+
+	/**
+	 * Return the distance, relative to a radius, within which impassable terrain makes
+	 * 	a position adjacent.
+	 */
+	public static double getADJACENT_DISTANCE() {
+		return ADJACENT_DISTANCE;
+	}
+
+	/**
+	 * Variable registering the distance, relative to a radius, within which impassable
+	 * terrain makes a position adjacent.
+	 */
+	private static final double ADJACENT_DISTANCE = 0.1;
+
+	/**
+	 * Returns a distance (in meters) such that a circle with the given radius, centered
+	 * 	at any position closer than that distance to the given position, is a passable
+	 * 	spot.
+	 * 
+	 * @param	x
+	 * 			The x-coordinate of the position.
+	 * @param	y
+	 * 			The y-coordinate of the position.
+	 * @param	radius
+	 * 			The radius of the circle.
+	 * @return	The distance of the given position to impassable terrain according to the
+	 * 			distance field of this world, minus the given radius, or zero if that is negative.
+	 * 			| result == Math.max(0, getDistanceField().getDistance(x, y) - radius)
+	 */
+	public double getClearance(double x, double y, double radius) {
+		return Math.max(0, getDistanceField().getDistance(x, y) - radius);
+	}
 	
 	/**
 	 * Checks whether or not the given position with the given radius forms a passable spot.
+	 * 	Positions far enough from the border between passable and impassable terrain are
+	 * 	decided by the distance field of this world; only the others are sampled.
 	 *
 	 * @param	center
 	 * 			The position to check.
@@ -466,16 +699,67 @@ public class World {
 	 * @return True otherwise.
 	 */
 	public boolean isPassableSpot(Position center, double radius){
-		Position[] toCheckList = center.getCircularPositions(radius);
-		
-		for (Position toCheck : toCheckList)
-			if (!liesWithinWorld(toCheck) || 
-					!this.isPassablePosition(toCheck))
+		return isPassableSpot(center.getX(), center.getY(), radius);
+	}
+
+	/**
+	 * Checks whether or not a circle with the given center coordinates and radius forms a
+	 * 	passable spot, without creating any positions.
+	 *
+	 * @param	x
+	 * 			The x-coordinate of the center to check.
+	 * @param	y
+	 * 			The y-coordinate of the center to check.
+	 * @param	radius
+	 * 			The radius to check.
+	 * @return	The same as checking the positions around the given center.
+	 * 			| result == isPassableSpot(new Position(x, y), radius)
+	 */
+	public boolean isPassableSpot(double x, double y, double radius){
+		if (radius >= Util.DEFAULT_EPSILON) {
+			final double distance = getDistanceField().getDistance(x, y);
+			if (distance > radius)
+				return true;
+			if (-distance > radius)
 				return false;
-		
+		}
+		final double sampleRadius = radius - Util.DEFAULT_EPSILON;
+		for (int i = 0; i < CIRCLE_COSINES.length; i++) {
+			final double sampleX = x + CIRCLE_COSINES[i] * sampleRadius;
+			final double sampleY = y + CIRCLE_SINES[i] * sampleRadius;
+			if (!liesWithinWorld(sampleX, sampleY, 0) ||
+					!this.isPassablePosition(sampleX, sampleY))
+				return false;
+		}
 		return true;
 	}
 
+	/**
+	 * Variable registering the cosines of the angles at which Position.getCircularPositions
+	 * 	samples a circle.
+	 */
+	private static final double[] CIRCLE_COSINES;
+
+	/**
+	 * Variable registering the sines of the angles at which Position.getCircularPositions
+	 * 	samples a circle.
+	 */
+	private static final double[] CIRCLE_SINES;
+
+	static {
+		final double interval = Position.getDefaultAngleAccuracy();
+		final int amount = (int) Math.round(2 * Math.PI / interval);
+		CIRCLE_COSINES = new double[amount];
+		CIRCLE_SINES = new double[amount];
+		// accumulated the same way as in Position.getCircularPositions
+		double angle = 0;
+		for (int i = 0; i < amount; i++) {
+			CIRCLE_COSINES[i] = Math.cos(angle);
+			CIRCLE_SINES[i] = Math.sin(angle);
+			angle += interval;
+		}
+	}
+
 	/**
 	 * Checks whether or not the given position is passable.
 	 * 
@@ -485,15 +769,24 @@ public class World {
 	 * 			has a value of true at the given position.
 	 */
 	private boolean isPassablePosition(Position pos) {
-		int xPos = pos.toXPixel(getWidthScale(), passableMap.length);
-		int yPos = passableMap.length - pos.toYPixel(getHeightScale(), passableMap[0].length);
-		
-		if(xPos < 0 || yPos < 0 ||
-				xPos >= passableMap[0].length ||
-				yPos >= passableMap.length)
-			return false;
+		return isPassablePosition(pos.getX(), pos.getY());
+	}
 
-		return passableMap[yPos][xPos];
+	/**
+	 * Checks whether or not the given coordinates are passable.
+	 * 
+	 * @param	x
+	 * 			The x-coordinate to check.
+	 * @param	y
+	 * 			The y-coordinate to check.
+	 * @return	True if they are not located outside of this world its map and if the passable map
+	 * 			has a value of true at the given coordinates.
+	 */
+	private boolean isPassablePosition(double x, double y) {
+		int xPos = (int) Math.floor(x / getWidthScale());
+		int yPos = passableMap.getHeight() - (int) Math.ceil(y / getHeightScale());
+
+		return passableMap.isPassable(xPos, yPos);
 	}
 	
 	/**
@@ -511,10 +804,73 @@ public class World {
 	}
 
 	/**
-	 * Variable registering a map which holds boolean values whether or not a
+	 * Return the passable map of this world.
+	 * 	The passable map of a world expresses which zones of that world are passable.
+	 */
+	@Basic
+	@Immutable
+	public PassableMap getPassableMap() {
+		return this.passableMap;
+	}
+
+	/**
+	 * Variable registering a map which holds, one bit per cell, whether or not a
 	 * specific zone is passable.
 	 */
-	private final boolean[][] passableMap;
+	private final PassableMap passableMap;
+
+	/**
+	 * Return the distance field of the passable map of this world.
+	 * 	The distance field is shared with the other worlds on the same passable map, and
+	 * 	is computed again each time that passable map has been modified.
+	 * 
+	 * @return	A distance field of the passable map of this world that is up to date.
+	 * 			| result.getPassableMap() == getPassableMap() && result.isUpToDate()
+	 */
+	public DistanceField getDistanceField() {
+		DistanceField field = this.distanceField;
+		if (field == null || !field.isUpToDate()) {
+			field = passableMap.getDistanceField(getWidthScale(), getHeightScale());
+			this.distanceField = field;
+		}
+		return field;
+	}
+
+	/**
+	 * Variable registering the distance field of the passable map of this world.
+	 */
+	private DistanceField distanceField = null;
+
+	/**
+	 * Return the trajectory solver of this world.
+	 * 	The trajectory solver of a world finds the landing time of jumps in that world.
+	 */
+	@Basic
+	public TrajectorySolver getTrajectorySolver() {
+		return this.trajectorySolver;
+	}
+
+	/**
+	 * Set the trajectory solver of this world to the given trajectory solver.
+	 * 
+	 * @param	trajectorySolver
+	 * 			The new trajectory solver for this world.
+	 * @post	The new trajectory solver of this world is equal to the given trajectory solver.
+	 * 			| new.getTrajectorySolver() == trajectorySolver
+	 * @throws	IllegalArgumentException
+	 * 			The given trajectory solver is not effective.
+	 * 			| trajectorySolver == null
+	 */
+	public void setTrajectorySolver(TrajectorySolver trajectorySolver) throws IllegalArgumentException {
+		if (trajectorySolver == null)
+			throw new IllegalArgumentException("Non-effective trajectory solver");
+		this.trajectorySolver = trajectorySolver;
+	}
+
+	/**
+	 * Variable registering the trajectory solver of this world.
+	 */
+	private TrajectorySolver trajectorySolver = new TrajectorySolver();
 
 	/**
 	 * Variable registering a random generator.
@@ -526,14 +882,107 @@ public class World {
 		removeDeadWorms();
 		if (!canStartNextTurn())
 			throw new IllegalGameStateException(this);
-		currentWormIdx++;
-		if (currentWormIdx >= worms.size())
-			currentWormIdx = 0;
-		worms.get(currentWormIdx).initializeForTurn();
-		if (getCurrentWorm().hasProgram())
-			getCurrentWorm().runProgram();
+		if (this.running && this.turnNumber >= this.turnLimit)
+			this.running = false;
+		final Worm next = worms.advance();
+		if (next == null)
+			return;
+		if (!isGameFinished())
+			this.turnNumber++;
+		next.initializeForTurn();
+		if (next.hasProgram() && !isGameFinished() && !programsScheduled)
+			next.runProgram();
+	}
+	
+	/**
+	 * Return the turn number of this world.
+	 * 	The turn number of a world expresses how many turns have been started while its
+	 * 	game was running, including the first turn.
+	 */
+	@Basic
+	public long getTurnNumber() {
+		return this.turnNumber;
+	}
+	
+	/**
+	 * Variable registering the turn number of this world.
+	 */
+	private long turnNumber = 0;
+	
+	/**
+	 * Return the turn limit of this world.
+	 * 	The turn limit of a world expresses after how many turns its game is finished,
+	 * 	even if more than one worm is still alive.
+	 */
+	@Basic
+	public long getTurnLimit() {
+		return this.turnLimit;
+	}
+	
+	/**
+	 * Check whether the given turn limit is a valid turn limit for any world.
+	 * 
+	 * @param	turnLimit
+	 * 			The turn limit to check.
+	 * @return	True if and only if the given turn limit is strictly positive.
+	 * 			| result == turnLimit > 0
+	 */
+	public static boolean isValidTurnLimit(long turnLimit) {
+		return turnLimit > 0;
+	}
+	
+	/**
+	 * Set the turn limit of this world to the given turn limit.
+	 * 
+	 * @param	turnLimit
+	 * 			The new turn limit for this world.
+	 * @post	The turn limit of this world is equal to the given turn limit.
+	 * 			| new.getTurnLimit() == turnLimit
+	 * @throws	IllegalArgumentException
+	 * 			The given turn limit is not a valid turn limit.
+	 * 			| !isValidTurnLimit(turnLimit)
+	 */
+	public void setTurnLimit(long turnLimit) throws IllegalArgumentException {
+		if (!isValidTurnLimit(turnLimit))
+			throw new IllegalArgumentException("Illegal turn limit for world");
+		this.turnLimit = turnLimit;
 	}
 	
+	/**
+	 * Variable registering the turn limit of this world.
+	 */
+	private long turnLimit = Long.MAX_VALUE;
+
+	/**
+	 * Check whether the programs of the worms of this world are scheduled.
+	 * 	A programmed worm normally runs its program as soon as its turn starts, and its
+	 * 	program starts the next turn when it is done, so the turns of programmed worms
+	 * 	are nested in each other. When the programs of a world are scheduled, starting a
+	 * 	turn does not run a program: whoever schedules them executes the program of the
+	 * 	current worm for one turn, and then starts the next turn.
+	 */
+	@Basic
+	public boolean isProgramsScheduled() {
+		return this.programsScheduled;
+	}
+
+	/**
+	 * Set whether the programs of the worms of this world are scheduled.
+	 *
+	 * @param	programsScheduled
+	 * 			Whether the programs of this world are scheduled.
+	 * @post	The programs of this world are scheduled if and only if the given flag is true.
+	 * 			| new.isProgramsScheduled() == programsScheduled
+	 */
+	public void setProgramsScheduled(boolean programsScheduled) {
+		this.programsScheduled = programsScheduled;
+	}
+
+	/**
+	 * Variable registering whether the programs of the worms of this world are scheduled.
+	 */
+	private boolean programsScheduled = false;
+	
 	/**
 	 * Checks whether or not this world can start a next turn.
 	 * 
@@ -576,8 +1025,9 @@ public class World {
 		if (!canStartGame())
 			throw new IllegalGameStateException(this);
 		this.running = true;
-		this.currentWormIdx = 0;
-		if (getCurrentWorm().hasProgram())
+		this.turnNumber = 1;
+		this.worms.reset();
+		if (getCurrentWorm().hasProgram() && !programsScheduled)
 			getCurrentWorm().runProgram();
 	}
 
@@ -602,23 +1052,9 @@ public class World {
 	 * @return	The current worm.
 	 */
 	public Worm getCurrentWorm(){
-		if (worms.size() < 1)
-			return null;
-		try {
-			return worms.get(currentWormIdx);
-		} catch (IndexOutOfBoundsException e){
-			currentWormIdx++;
-			if (currentWormIdx >= worms.size())
-				currentWormIdx = 0;
-			return worms.get(currentWormIdx);
-		}
+		return worms.getCurrent();
 	}
 	
-	/**
-	 * Variable registering the index of the current worm in the worms collection.
-	 */
-	private int currentWormIdx;
-	
 	/**
 	 * Returns the name of the winning worm.
 	 * 
@@ -646,12 +1082,25 @@ public class World {
 	 * @return	True if and only if it lies within the world.
 	 */
 	public boolean liesWithinWorld(Position pos, double radius){
-				if(pos.getX() - radius < LOWERBOUND_WIDTH || 
-						pos.getY() - radius < LOWERBOUND_HEIGHT || 
-						pos.getX() + radius > UPPERBOUND_WIDTH || 
-						pos.getY() + radius > UPPERBOUND_HEIGHT) 
-					return false;
-		return true;
+		return liesWithinWorld(pos.getX(), pos.getY(), radius);
+	}
+	
+	/**
+	 * Checks whether or not the given coordinates with the given radius lie within this world.
+	 * 
+	 * @param	x
+	 * 			The x-coordinate to check.
+	 * @param	y
+	 * 			The y-coordinate to check.
+	 * @param	radius
+	 * 			The radius to check.
+	 * @return	True if and only if they lie within the world.
+	 */
+	public boolean liesWithinWorld(double x, double y, double radius){
+		return !(x - radius < LOWERBOUND_WIDTH || 
+				y - radius < LOWERBOUND_HEIGHT || 
+				x + radius > UPPERBOUND_WIDTH || 
+				y + radius > UPPERBOUND_HEIGHT);
 	}
 	
 	public boolean liesWithinWorld(Position pos){
@@ -660,8 +1109,10 @@ public class World {
 	
 	public void terminate(BallisticObject o){
 		o.setInActive();
-		if (o instanceof Worm)
+		if (o instanceof Worm) {
 			worms.remove(o);
+			wormGrid.remove((Worm) o);
+		}
 	}
 	
 	public void removeDeadWorms() {
@@ -3,6 +3,7 @@ package worms.model;
 import java.util.ArrayList;
 
 import worms.exceptions.*;
+import worms.util.Util;
 import be.kuleuven.cs.som.annotate.*;
 
 /**
@@ -181,6 +182,8 @@ public class Worm extends BallisticObject {
 		this.setMass(radius);
 		this.setMaxActionPoints(calculateMaxActionPoints(this.getMass()));
 		this.setMaxHitPoints(calculateMaxHitPoints(this.getMass()));
+		if (getWorld() != null)
+			getWorld().updateWormLocation(this);
 	}
 	
 	/**
@@ -710,6 +713,7 @@ public class Worm extends BallisticObject {
 		
 		getVector().getPosition().setX(newPos.getX());
 		getVector().getPosition().setY(newPos.getY());
+		getWorld().updateWormLocation(this);
 		
 		useActionPoints(this.calculateActionPointsToMove(newPos.getSlope(oldPos)));
 		
@@ -719,72 +723,131 @@ public class Worm extends BallisticObject {
 	
 	/**
 	 * Finds the best position for this worm to move to, from its current position.
+	 * 	The position found is remembered until this worm moves, turns or changes its radius,
+	 * 	or until the terrain of its world changes.
 	 * 
 	 * @return	The best position found, maximising the distance and minimising the difference to its current
 	 * 			direction with a maximum of 0.7875 rad.
 	 */
-	private Position findPositionToMoveTo() {		
-		Position currPos = new Position(
-				getVector().getPosition().getX(),
-				getVector().getPosition().getY());
-		Position bestPos = new Position(currPos.getX(), currPos.getY());
-		double bestDistance = 0;
+	private Position findPositionToMoveTo() {
+		final double currX = getVector().getPosition().getX();
+		final double currY = getVector().getPosition().getY();
+		final double direction = getVector().getDirection();
+		final DistanceField field = getWorld().getDistanceField();
+		MovePlan plan = this.movePlan;
+		if (plan == null || !plan.isFor(currX, currY, direction, getRadius(), field)) {
+			plan = new MovePlan(currX, currY, direction, getRadius(), field, searchPositionToMoveTo());
+			this.movePlan = plan;
+		}
+		return new Position(plan.toX, plan.toY);
+	}
+	
+	/**
+	 * Searches the best position for this worm to move to, from its current position.
+	 * 	The distances are tried from the largest down, so the first adjacent position
+	 * 	found is the best one: it is the position that lies farthest away, and among
+	 * 	those the one closest to the current direction of this worm.
+	 * 
+	 * @return	The best position found, maximising the distance and minimising the difference to its current
+	 * 			direction with a maximum of 0.7875 rad.
+	 */
+	private Position searchPositionToMoveTo() {
+		final double currX = getVector().getPosition().getX();
+		final double currY = getVector().getPosition().getY();
+		final double direction = getVector().getDirection();
 		final double intervalDistance = getRadius() / 100;
 		final double maxDiff = 0.7875;
 		final double stepSize = 0.0175;
 		final int[] posNeg = new int[] {-1,1};
-		boolean foundOne = false;
 		
-		for (double distance = getRadius(); distance >= 0.1; distance -= intervalDistance) {
-			for (double currAngle = 0; currAngle <= maxDiff; currAngle += stepSize) {
-				for (int sgn : posNeg){
-					currPos = new Position(
-							getVector().getPosition().getX() + 
-								distance * Math.cos(getVector().getDirection() + sgn * currAngle),
-							getVector().getPosition().getY() + 
-								distance * Math.sin(getVector().getDirection() + sgn * currAngle));
-
-					if (isBestPositionToMove(distance, bestDistance, currPos)) {
-						foundOne = true;
-						bestDistance = distance;
-						bestPos = new Position(currPos.getX(), currPos.getY());
-					}
-				}
+		// the directions to try, in the order in which they are tried at each distance
+		int nbDirections = 0;
+		for (double currAngle = 0; currAngle <= maxDiff; currAngle += stepSize)
+			nbDirections += posNeg.length;
+		final double[] cosines = new double[nbDirections];
+		final double[] sines = new double[nbDirections];
+		int idx = 0;
+		for (double currAngle = 0; currAngle <= maxDiff; currAngle += stepSize)
+			for (int sgn : posNeg) {
+				cosines[idx] = Math.cos(direction + sgn * currAngle);
+				sines[idx] = Math.sin(direction + sgn * currAngle);
+				idx++;
 			}
-		}
 		
-		if (!foundOne) {
-			for (double distance = getRadius(); distance >= 0.1; distance -= intervalDistance) {
-				currPos = new Position(
-						getVector().getPosition().getX() + distance * Math.cos(getVector().getDirection()),
-						getVector().getPosition().getY() + distance * Math.sin(getVector().getDirection()));
-				if (getWorld().isPassableSpot(currPos, getRadius()))
-					return new Position(currPos.getX(), currPos.getY());
+		for (double distance = getRadius(); distance >= 0.1; distance -= intervalDistance)
+			for (int i = 0; i < nbDirections; i++) {
+				final double x = currX + distance * cosines[i];
+				final double y = currY + distance * sines[i];
+				if (isBestPositionToMove(distance, 0, x, y))
+					return new Position(x, y);
 			}
+		
+		for (double distance = getRadius(); distance >= 0.1; distance -= intervalDistance) {
+			final double x = currX + distance * Math.cos(direction);
+			final double y = currY + distance * Math.sin(direction);
+			if (getWorld().isPassableSpot(x, y, getRadius()))
+				return new Position(x, y);
 		}
-		return bestPos;		
+		return new Position(currX, currY);
 	}
 	
 	/**
-	 * Checks whether or not the given position is the best position to move considering the given distance 
+	 * Variable registering the latest position found for this worm to move to.
+	 */
+	private MovePlan movePlan = null;
+	
+	/**
+	 * A class of move plans registering the position a worm can move to from a given
+	 * 	position, in a given direction, with a given radius, on given terrain.
+	 */
+	private static class MovePlan {
+		
+		private MovePlan(double fromX, double fromY, double direction, double radius,
+				DistanceField field, Position to) {
+			this.fromX = fromX;
+			this.fromY = fromY;
+			this.direction = direction;
+			this.radius = radius;
+			this.field = field;
+			this.toX = to.getX();
+			this.toY = to.getY();
+		}
+		
+		private boolean isFor(double fromX, double fromY, double direction, double radius,
+				DistanceField field) {
+			return this.fromX == fromX && this.fromY == fromY && this.direction == direction &&
+					this.radius == radius && this.field == field;
+		}
+		
+		private final double fromX, fromY, direction, radius;
+		
+		private final DistanceField field;
+		
+		private final double toX, toY;
+	}
+	
+	/**
+	 * Checks whether or not the given coordinates are the best position to move considering the given distance 
 	 * 	and best distance.
 	 * @param	distance
-	 * 			The distance from the worm its current position to the given position.
+	 * 			The distance from the worm its current position to the given coordinates.
 	 * @param	bestDistance
 	 * 			The best distance found so far, the greater the better.
-	 * @param	currPos
-	 * 			The position to check.
+	 * @param	x
+	 * 			The x-coordinate to check.
+	 * @param	y
+	 * 			The y-coordinate to check.
 	 * @return	True if and only if the given distance is strictly greater than the given best distance and if
-	 * 			the given position is located on an adjacent position and if the given position for this worm
-	 * 			lies within this worm its world.
+	 * 			the given coordinates are located on an adjacent position and if the given coordinates for this worm
+	 * 			lie within this worm its world.
 	 * 			| result == distance - bestDistance > 0  && 
-	 *			|	getWorld().isAdjacentPosition(currPos,getRadius()) &&
-	 *			|		getWorld().liesWithinWorld(currPos, getRadius())
+	 *			|	getWorld().isAdjacentPosition(x, y, getRadius()) &&
+	 *			|		getWorld().liesWithinWorld(x, y, getRadius())
 	 */
-	private boolean isBestPositionToMove(double distance, double bestDistance, Position currPos) {
+	private boolean isBestPositionToMove(double distance, double bestDistance, double x, double y) {
 		return distance - bestDistance > 0  && 
-				getWorld().isAdjacentPosition(currPos,getRadius()) &&
-					getWorld().liesWithinWorld(currPos, getRadius());
+				getWorld().isAdjacentPosition(x, y, getRadius()) &&
+					getWorld().liesWithinWorld(x, y, getRadius());
 	}
 	
 	/**
@@ -812,25 +875,66 @@ public class Worm extends BallisticObject {
 	
 	/**
 	 * Makes this worm fall.
+	 * 	This worm is lowered in steps of a hundredth of its radius until it reaches an adjacent
+	 * 	position. Only the positions the distance field of its world can not rule out are
+	 * 	checked one by one; the other steps are taken without checking them.
 	 */
 	public void fall(){
+		final Position pos = getVector().getPosition();
+		final double x = pos.getX();
+		final double oldY = pos.getY();
+		final double step = getRadius() / 100;
+		double y = oldY;
 		boolean outOfWorld = false;
-		Position oldPos = new Position(getVector().getPosition().getX(), getVector().getPosition().getY());
-		while (canFall() && !outOfWorld) {
-			if (!getWorld().liesWithinWorld(getVector().getPosition(), getRadius())) {
-				getWorld().terminate(this);
-				outOfWorld = true;
+		while (isActive() && !outOfWorld) {
+			final double clearance = getFallClearance(x, y);
+			if (!(clearance > 0) && getWorld().isAdjacentPosition(x, y, getRadius()))
 				break;
-			}
-			getVector().getPosition().setY(getVector().getPosition().getY() - getRadius() / 100);
+			// all positions above y minus the clearance are certainly not adjacent
+			final double safeY = y - clearance;
+			do {
+				if (!getWorld().liesWithinWorld(x, y, getRadius())) {
+					getWorld().terminate(this);
+					outOfWorld = true;
+					break;
+				}
+				y -= step;
+			} while (y > safeY);
 		}
-		final int damage = 3 * (int) Math.floor(oldPos.getY() - getVector().getPosition().getY());
+		pos.setY(y);
+		getWorld().updateWormLocation(this);
+		final int damage = 3 * (int) Math.floor(oldY - getVector().getPosition().getY());
 		deductHitPoints(damage);
 		
 		if (getWorld().shouldStartNextTurn())
 			getWorld().startNextTurn();
 	}
 	
+	/**
+	 * Return how far (in meters) this worm can be lowered from the given coordinates
+	 * 	while it certainly stays on positions that are not adjacent.
+	 * 
+	 * @param	x
+	 * 			The x-coordinate of this worm.
+	 * @param	y
+	 * 			The y-coordinate of this worm.
+	 * @return	The distance by which the circle, within which impassable terrain makes a position
+	 * 			adjacent, stays entirely passable, or by which this worm stays entirely in impassable
+	 * 			terrain, according to the distance field of the world of this worm. Zero if neither
+	 * 			holds.
+	 */
+	private double getFallClearance(double x, double y) {
+		if (getRadius() < Util.DEFAULT_EPSILON)
+			return 0;
+		final double distance = getWorld().getDistanceField().getDistance(x, y);
+		final double reach = getRadius() * (1 + World.getADJACENT_DISTANCE());
+		if (distance > reach)
+			return distance - reach;
+		if (-distance > getRadius())
+			return -distance - getRadius();
+		return 0;
+	}
+	
 	/**
 	 * Check whether this worm can turn the given angle.
 	 * 
@@ -901,6 +1005,7 @@ public class Worm extends BallisticObject {
 			throw new IllegalJumpException(this);
 	
 		performJump(timeStep);
+		getWorld().updateWormLocation(this);
 		this.useActionPoints(this.getActionPoints());
 		if (getWorld().shouldStartNextTurn())
 			getWorld().startNextTurn();
@@ -947,21 +1052,42 @@ public class Worm extends BallisticObject {
 	}
 	
 	/**
-	 * Checks whether or not the jump is finished for the given position.
+	 * Checks whether or not the jump is finished for the given coordinates.
 	 * 
-	 * @param	currPos
-	 * 			The position to check.
+	 * @param	x
+	 * 			The x-coordinate to check.
+	 * @param	y
+	 * 			The y-coordinate to check.
 	 * @return	False if this worm is inactive or if the given position for this worm makes the worm be on a adjacent
 	 * 			position or if the given position for this worm lies out of this worm its world or if the given position
 	 * 			for this worm is an impassable spot. False otherwise.
 	 * 			| result == !isActive() || 
-	 *			|	getWorld().isAdjacentPosition(currPos, getRadius()) || 
-	 *			|		!getWorld().liesWithinWorld(currPos, getRadius()) || getWorld().isImpassableSpot(currPos, getRadius())
+	 *			|	getWorld().isAdjacentPosition(x, y, getRadius()) || 
+	 *			|		!getWorld().liesWithinWorld(x, y, getRadius()) || !getWorld().isPassableSpot(x, y, getRadius())
 	 */
-	public boolean isJumpFinished(Position currPos){
+	@Override
+	public boolean isJumpFinished(double x, double y){
 		return !isActive() || 
-					getWorld().isAdjacentPosition(currPos, getRadius()) || 
-						!getWorld().liesWithinWorld(currPos, getRadius()) || getWorld().isImpassableSpot(currPos, getRadius());
+					getWorld().isAdjacentPosition(x, y, getRadius()) || 
+						!getWorld().liesWithinWorld(x, y, getRadius()) || !getWorld().isPassableSpot(x, y, getRadius());
+	}
+	
+	/**
+	 * Returns a distance (in meters) such that a jump of this worm is not finished at
+	 * 	any position closer than that distance to the given position.
+	 * 
+	 * @param	x
+	 * 			The x-coordinate of the position.
+	 * @param	y
+	 * 			The y-coordinate of the position.
+	 * @return	The clearance in the world of this worm of a circle that reaches as far as
+	 * 			a worm can be adjacent to impassable terrain.
+	 * 			| result == getWorld().getClearance(x, y, 
+	 * 			|	getRadius() * (1 + World.getADJACENT_DISTANCE()))
+	 */
+	@Override
+	public double getJumpClearance(double x, double y){
+		return getWorld().getClearance(x, y, getRadius() * (1 + World.getADJACENT_DISTANCE()));
 	}
 	
 	/**
@@ -1085,6 +1211,13 @@ public class Worm extends BallisticObject {
 	public void runProgram() {
 		program.run();
 	}
+
+	/**
+	 * Executes the program of this worm for one turn, without starting the next turn.
+	 */
+	public void executeProgramTurn() {
+		program.executeTurn();
+	}
 	
 	/**
 	 * Variable registering the program of this worm.
@@ -0,0 +1,509 @@
+package worms.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.util.Util;
+
+/**
+ * A class of worm grids involving a cell size.
+ * 	A worm grid is a spatial hash that registers each worm in every square cell its
+ * 	bounding box touches, so queries around a position only look at the worms near
+ * 	that position. Worms that would touch too many cells are kept in a separate list
+ * 	that every query looks at.
+ * 	The grid does not watch the worms it holds: it has to be updated each time one of
+ * 	them moves or changes its radius.
+ *
+ * @invar	The cell size of each worm grid is a valid cell size.
+ * 			| isValidCellSize(getCellSize())
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+class WormGrid {
+
+	/**
+	 * Initialize this new worm grid with given cell size.
+	 *
+	 * @param	cellSize
+	 * 			The cell size (in meters) for this new worm grid.
+	 * @post	The cell size of this new worm grid is equal to the given cell size.
+	 * 			| new.getCellSize() == cellSize
+	 * @throws	IllegalArgumentException
+	 * 			The given cell size is not a valid cell size.
+	 * 			| !isValidCellSize(cellSize)
+	 */
+	WormGrid(double cellSize) throws IllegalArgumentException {
+		if (!isValidCellSize(cellSize))
+			throw new IllegalArgumentException("Illegal cell size for worm grid");
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * Check whether the given cell size is a valid cell size for any worm grid.
+	 *
+	 * @param	cellSize
+	 * 			The cell size to check.
+	 * @return	True if and only if the given cell size is strictly positive and finite.
+	 * 			| result == cellSize > 0 && !Double.isInfinite(cellSize)
+	 */
+	static boolean isValidCellSize(double cellSize) {
+		return cellSize > 0 && !Double.isInfinite(cellSize);
+	}
+
+	/**
+	 * Return the cell size of this worm grid.
+	 * 	The cell size of a worm grid expresses the width and height (in meters) of each of its cells.
+	 */
+	@Basic
+	@Immutable
+	double getCellSize() {
+		return this.cellSize;
+	}
+
+	/**
+	 * Variable registering the cell size of this worm grid.
+	 */
+	private final double cellSize;
+
+	/**
+	 * Add the given worm to this worm grid, after all worms added before.
+	 *
+	 * @param	worm
+	 * 			The worm to add.
+	 */
+	void add(Worm worm) {
+		if (entries.containsKey(worm))
+			return;
+		final Entry entry = new Entry(nextSequence++);
+		entries.put(worm, entry);
+		register(worm, entry);
+	}
+
+	/**
+	 * Remove the given worm from this worm grid, if it holds that worm.
+	 *
+	 * @param	worm
+	 * 			The worm to remove.
+	 */
+	void remove(Worm worm) {
+		final Entry entry = entries.remove(worm);
+		if (entry != null)
+			unregister(worm, entry);
+	}
+
+	/**
+	 * Register the current position and radius of the given worm in this worm grid,
+	 * 	if it holds that worm.
+	 *
+	 * @param	worm
+	 * 			The worm that has moved or changed its radius.
+	 */
+	void update(Worm worm) {
+		final Entry entry = entries.get(worm);
+		if (entry == null)
+			return;
+		final Position pos = worm.getVector().getPosition();
+		final double radius = worm.getRadius();
+		maxRadius = Math.max(maxRadius, radius);
+		if (entry.oversized == isOversized(pos.getX(), pos.getY(), radius) &&
+				entry.minCol == toCell(pos.getX() - radius) && entry.maxCol == toCell(pos.getX() + radius) &&
+				entry.minRow == toCell(pos.getY() - radius) && entry.maxRow == toCell(pos.getY() + radius))
+			return;
+		unregister(worm, entry);
+		register(worm, entry);
+	}
+
+	/**
+	 * Return the worm of this grid, other than its owner, that the given projectile at the
+	 * 	given coordinates overlaps with and that was added first, or null if there is no such worm.
+	 *
+	 * @param	projectile
+	 * 			The projectile shot.
+	 * @param	x
+	 * 			The x-coordinate of the given projectile.
+	 * @param	y
+	 * 			The y-coordinate of the given projectile.
+	 */
+	Worm getFirstOverlapping(Projectile projectile, double x, double y) {
+		final double radius = projectile.getRadius();
+		Worm result = null;
+		long resultSequence = Long.MAX_VALUE;
+		for (Worm worm : oversized)
+			if (isOverlapping(worm, projectile, x, y) && entries.get(worm).sequence < resultSequence) {
+				result = worm;
+				resultSequence = entries.get(worm).sequence;
+			}
+		if (isOversized(x, y, radius))
+			return getFirstOverlappingInAll(projectile, x, y, result, resultSequence);
+
+		final int maxCol = toCell(x + radius);
+		final int maxRow = toCell(y + radius);
+		for (int col = toCell(x - radius); col <= maxCol; col++)
+			for (int row = toCell(y - radius); row <= maxRow; row++) {
+				final List<Worm> cell = cells.get(toKey(col, row));
+				if (cell == null)
+					continue;
+				for (Worm worm : cell) {
+					final long sequence = entries.get(worm).sequence;
+					if (sequence < resultSequence && isOverlapping(worm, projectile, x, y)) {
+						result = worm;
+						resultSequence = sequence;
+					}
+				}
+			}
+		return result;
+	}
+
+	/**
+	 * Return the first worm among all worms of this grid that the given projectile overlaps
+	 * 	with, or the given worm if it was added before.
+	 */
+	private Worm getFirstOverlappingInAll(Projectile projectile, double x, double y,
+			Worm result, long resultSequence) {
+		for (Map.Entry<Worm, Entry> each : entries.entrySet())
+			if (each.getValue().sequence < resultSequence && isOverlapping(each.getKey(), projectile, x, y)) {
+				result = each.getKey();
+				resultSequence = each.getValue().sequence;
+			}
+		return result;
+	}
+
+	/**
+	 * Check whether the given projectile at the given coordinates overlaps with the given worm,
+	 * 	which is not its owner.
+	 */
+	private static boolean isOverlapping(Worm worm, Projectile projectile, double x, double y) {
+		return worm.overlapsWith(projectile, x, y) && worm != projectile.getOwner();
+	}
+
+	/**
+	 * Return a distance (in meters) the given projectile can travel from the given coordinates
+	 * 	before it overlaps with a worm of this grid other than its owner.
+	 * 	Only the cells near the given coordinates are looked at, so the distance returned is
+	 * 	never larger than twice the cell size of this grid.
+	 *
+	 * @param	projectile
+	 * 			The projectile shot.
+	 * @param	x
+	 * 			The x-coordinate of the given projectile.
+	 * @param	y
+	 * 			The y-coordinate of the given projectile.
+	 * @return	A distance that is positive or zero, and not larger than the distance between
+	 * 			the given projectile and any worm other than its owner, minus both radiuses.
+	 */
+	double getClearance(Projectile projectile, double x, double y) {
+		final double reach = CLEARANCE_CELLS * cellSize;
+		// worms outside of the cells looked at lie entirely outside of a square with half side reach
+		double clearance = reach;
+		for (Worm worm : oversized)
+			clearance = Math.min(clearance, getDistance(worm, projectile, x, y));
+		final int maxCol = toCell(x + reach);
+		final int maxRow = toCell(y + reach);
+		for (int col = toCell(x - reach); col <= maxCol; col++)
+			for (int row = toCell(y - reach); row <= maxRow; row++) {
+				final List<Worm> cell = cells.get(toKey(col, row));
+				if (cell != null)
+					for (Worm worm : cell)
+						clearance = Math.min(clearance, getDistance(worm, projectile, x, y));
+			}
+		return Math.max(0, clearance - projectile.getRadius());
+	}
+
+	/**
+	 * Return the distance between the given coordinates and the circle of the given worm, or
+	 * 	infinity if the given worm is the owner of the given projectile.
+	 */
+	private static double getDistance(Worm worm, Projectile projectile, double x, double y) {
+		if (worm == projectile.getOwner())
+			return Double.POSITIVE_INFINITY;
+		final Position pos = worm.getVector().getPosition();
+		return Math.hypot(pos.getX() - x, pos.getY() - y) - worm.getRadius();
+	}
+
+	/**
+	 * Return the nearest worm of this grid in the given direction from the given position,
+	 * 	or null if there is no such worm.
+	 * 	A worm lies in the given direction if the slope from the given position to it differs
+	 * 	from that direction by no more than the angle its radius spans at its distance. Of
+	 * 	worms at (fuzzily) the same distance, the one added last is returned.
+	 * 	The cells around the given position are looked at in square rings of growing size,
+	 * 	and the search ends as soon as no worm outside of the rings looked at can be nearer
+	 * 	than the worms found so far. Once walking the rings costs more than looking at every
+	 * 	worm, the worms not looked at yet are all looked at instead.
+	 *
+	 * @param	pos
+	 * 			The position to search from.
+	 * @param	angle
+	 * 			The direction to search in.
+	 * @return	The same worm as looking at all worms of this grid, in the order in which they
+	 * 			were added, and keeping the last worm that is in the given direction and is not
+	 * 			(fuzzily) farther away than the worm kept before.
+	 */
+	Worm getNearestInDirection(Position pos, double angle) {
+		final List<Candidate> candidates = new ArrayList<Candidate>();
+		// the slope to a worm lies within a right angle of zero, and so does the angle
+		// its radius spans; the farther the given direction is turned beyond a right angle,
+		// the nearer a worm must be to span the difference
+		final double excess = Math.abs(angle) - Math.PI / 2 - Util.DEFAULT_EPSILON;
+		if (excess > Math.PI / 2)
+			return null;
+		final double limit = (excess > 0) ? maxRadius / Math.tan(excess) : Double.POSITIVE_INFINITY;
+		final long search = ++searchCount;
+		int seen = 0;
+		for (Worm worm : oversized) {
+			entries.get(worm).search = search;
+			seen++;
+			addCandidate(candidates, pos, angle, worm);
+		}
+		final int col = toCell(pos.getX());
+		final int row = toCell(pos.getY());
+		long cellsLookedAt = 0;
+		for (int ring = 0; seen < entries.size(); ring++) {
+			if (cellsLookedAt > entries.size()) {
+				for (Map.Entry<Worm, Entry> each : entries.entrySet())
+					if (each.getValue().search != search)
+						addCandidate(candidates, pos, angle, each.getKey());
+				break;
+			}
+			for (int c = col - ring; c <= col + ring; c++) {
+				final boolean side = c == col - ring || c == col + ring;
+				for (int r = row - ring; r <= row + ring; r += (side || ring == 0) ? 1 : 2 * ring) {
+					cellsLookedAt++;
+					final List<Worm> cell = cells.get(toKey(c, r));
+					if (cell == null)
+						continue;
+					for (Worm worm : cell) {
+						final Entry entry = entries.get(worm);
+						if (entry.search == search)
+							continue;
+						entry.search = search;
+						seen++;
+						addCandidate(candidates, pos, angle, worm);
+					}
+				}
+			}
+			// worms that were not looked at lie entirely outside of the rings looked at
+			final double reach = Math.min(
+					Math.min(pos.getX() - (col - ring) * cellSize, (col + ring + 1) * cellSize - pos.getX()),
+					Math.min(pos.getY() - (row - ring) * cellSize, (row + ring + 1) * cellSize - pos.getY()));
+			if (reach > limit ||
+					(!candidates.isEmpty() && getNearestDistance(candidates) + 2 * Util.DEFAULT_EPSILON < reach))
+				break;
+		}
+		if (candidates.isEmpty())
+			return null;
+		// only worms that are fuzzily as near as the nearest one can be kept in the end
+		final double bound = getNearestDistance(candidates);
+		Collections.sort(candidates, new Comparator<Candidate>() {
+
+			@Override
+			public int compare(Candidate first, Candidate second) {
+				return Long.compare(first.sequence, second.sequence);
+			}
+		});
+		Worm result = null;
+		double resultDistance = Double.MAX_VALUE;
+		for (Candidate candidate : candidates)
+			if (candidate.distance <= bound && Util.fuzzyLessThanOrEqualTo(candidate.distance, resultDistance)) {
+				result = candidate.worm;
+				resultDistance = candidate.distance;
+			}
+		return result;
+	}
+
+	/**
+	 * Add the given worm to the given candidates if it lies in the given direction from the
+	 * 	given position.
+	 */
+	private void addCandidate(List<Candidate> candidates, Position pos, double angle, Worm worm) {
+		final Position wormPos = worm.getVector().getPosition();
+		final double distance = pos.getDistanceTo(wormPos);
+		if (Util.fuzzyEquals(pos.getSlope(wormPos), angle, Math.atan(worm.getRadius() / distance)))
+			candidates.add(new Candidate(worm, distance, entries.get(worm).sequence));
+	}
+
+	/**
+	 * Return the largest distance of a chain of the given candidates, starting from the
+	 * 	nearest one, in which each next candidate is at most twice the precision farther away.
+	 * 	No candidate outside of that chain lies within twice the precision of it.
+	 */
+	private static double getNearestDistance(List<Candidate> candidates) {
+		final double[] distances = new double[candidates.size()];
+		for (int index = 0; index < distances.length; index++)
+			distances[index] = candidates.get(index).distance;
+		Arrays.sort(distances);
+		double result = distances[0];
+		for (int index = 1; index < distances.length && distances[index] <= result + 2 * Util.DEFAULT_EPSILON; index++)
+			result = distances[index];
+		return result;
+	}
+
+	/**
+	 * A class of worms found by a search in a worm grid, with their distance and sequence number.
+	 */
+	private static class Candidate {
+
+		private Candidate(Worm worm, double distance, long sequence) {
+			this.worm = worm;
+			this.distance = distance;
+			this.sequence = sequence;
+		}
+
+		private final Worm worm;
+
+		private final double distance;
+
+		private final long sequence;
+	}
+
+	/**
+	 * Register the given worm in each cell its bounding box touches, and remember those cells
+	 * 	in the given entry.
+	 */
+	private void register(Worm worm, Entry entry) {
+		final Position pos = worm.getVector().getPosition();
+		final double radius = worm.getRadius();
+		entry.minCol = toCell(pos.getX() - radius);
+		entry.maxCol = toCell(pos.getX() + radius);
+		entry.minRow = toCell(pos.getY() - radius);
+		entry.maxRow = toCell(pos.getY() + radius);
+		entry.oversized = isOversized(pos.getX(), pos.getY(), radius);
+		maxRadius = Math.max(maxRadius, radius);
+		if (entry.oversized) {
+			oversized.add(worm);
+			return;
+		}
+		for (int col = entry.minCol; col <= entry.maxCol; col++)
+			for (int row = entry.minRow; row <= entry.maxRow; row++) {
+				final long key = toKey(col, row);
+				List<Worm> cell = cells.get(key);
+				if (cell == null) {
+					cell = new ArrayList<Worm>(2);
+					cells.put(key, cell);
+				}
+				cell.add(worm);
+			}
+	}
+
+	/**
+	 * Remove the given worm from each cell remembered in the given entry.
+	 */
+	private void unregister(Worm worm, Entry entry) {
+		if (entry.oversized) {
+			oversized.remove(worm);
+			return;
+		}
+		for (int col = entry.minCol; col <= entry.maxCol; col++)
+			for (int row = entry.minRow; row <= entry.maxRow; row++) {
+				final long key = toKey(col, row);
+				final List<Worm> cell = cells.get(key);
+				if (cell == null)
+					continue;
+				cell.remove(worm);
+				if (cell.isEmpty())
+					cells.remove(key);
+			}
+	}
+
+	/**
+	 * Check whether a circle with the given center and radius touches too many cells to be
+	 * 	registered cell by cell.
+	 */
+	private boolean isOversized(double x, double y, double radius) {
+		final long cols = (long) toCell(x + radius) - toCell(x - radius) + 1;
+		final long rows = (long) toCell(y + radius) - toCell(y - radius) + 1;
+		return cols * rows > MAX_CELLS_PER_WORM;
+	}
+
+	/**
+	 * Return the cell of this grid that contains the given coordinate.
+	 * 	Cells far away from the origin are merged into the outermost cells, so loops over
+	 * 	a range of cells always end.
+	 */
+	private int toCell(double coordinate) {
+		final double cell = Math.floor(coordinate / cellSize);
+		return (int) Math.max(-MAX_CELL, Math.min(MAX_CELL, cell));
+	}
+
+	/**
+	 * Variable registering the largest index of a cell in each direction.
+	 */
+	private static final int MAX_CELL = 1 << 30;
+
+	/**
+	 * Return the key of the cell with given column and row.
+	 */
+	private static long toKey(int col, int row) {
+		return ((long) col << 32) | (row & 0xffffffffL);
+	}
+
+	/**
+	 * Variable registering the worms in each cell of this worm grid that holds any worm.
+	 */
+	private final HashMap<Long, List<Worm>> cells = new HashMap<Long, List<Worm>>();
+
+	/**
+	 * Variable registering the worms of this worm grid that touch too many cells.
+	 */
+	private final List<Worm> oversized = new ArrayList<Worm>();
+
+	/**
+	 * Variable registering, for each worm of this worm grid, where it is registered.
+	 */
+	private final IdentityHashMap<Worm, Entry> entries = new IdentityHashMap<Worm, Entry>();
+
+	/**
+	 * Variable registering the sequence number for the next worm added to this worm grid.
+	 */
+	private long nextSequence = 0;
+
+	/**
+	 * Variable registering a radius that is not smaller than the radius of any worm of
+	 * 	this worm grid.
+	 */
+	private double maxRadius = 0;
+
+	/**
+	 * Variable registering the number of the last search in this worm grid.
+	 */
+	private long searchCount = 0;
+
+	/**
+	 * Variable registering the maximum amount of cells a worm is registered in.
+	 */
+	private static final int MAX_CELLS_PER_WORM = 64;
+
+	/**
+	 * Variable registering the amount of cells around a position looked at for a clearance.
+	 */
+	private static final int CLEARANCE_CELLS = 2;
+
+	/**
+	 * A class of entries registering where a worm is registered in a worm grid, and when
+	 * 	it was added to it.
+	 */
+	private static class Entry {
+
+		private Entry(long sequence) {
+			this.sequence = sequence;
+		}
+
+		private final long sequence;
+
+		private int minCol, maxCol, minRow, maxRow;
+
+		private boolean oversized;
+
+		private long search;
+	}
+}
@@ -0,0 +1,128 @@
+package worms.model.programs;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of program caches involving a capacity.
+ * 	A program cache keeps the templates of the program texts parsed last, keyed by the
+ * 	content of their text. When the cache is full, the template that was used least
+ * 	recently is dropped. Program caches can be used by several threads at once.
+ *
+ * @invar	The capacity of each program cache is a valid capacity.
+ * 			| isValidCapacity(getCapacity())
+ * @invar	A program cache never holds more templates than its capacity.
+ * 			| getSize() <= getCapacity()
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public class ProgramCache {
+
+	/**
+	 * Initialize this new program cache with given capacity.
+	 *
+	 * @param	capacity
+	 * 			The capacity for this new program cache.
+	 * @post	The capacity of this new program cache is equal to the given capacity.
+	 * 			| new.getCapacity() == capacity
+	 * @post	This new program cache holds no templates.
+	 * 			| new.getSize() == 0
+	 * @throws	IllegalArgumentException
+	 * 			The given capacity is not a valid capacity.
+	 * 			| !isValidCapacity(capacity)
+	 */
+	public ProgramCache(final int capacity) throws IllegalArgumentException {
+		if (!isValidCapacity(capacity))
+			throw new IllegalArgumentException("Illegal capacity for program cache");
+		this.capacity = capacity;
+		this.templates = new LinkedHashMap<String, ProgramTemplate>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ProgramTemplate> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Return the capacity of this program cache.
+	 * 	The capacity of a program cache is the largest amount of templates it holds.
+	 */
+	@Basic
+	@Immutable
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Check whether the given capacity is a valid capacity for any program cache.
+	 *
+	 * @param	capacity
+	 * 			The capacity to check.
+	 * @return	True if and only if the given capacity is strictly positive.
+	 * 			| result == (capacity > 0)
+	 */
+	public static boolean isValidCapacity(int capacity) {
+		return capacity > 0;
+	}
+
+	/**
+	 * Variable registering the capacity of this program cache.
+	 */
+	private final int capacity;
+
+	/**
+	 * Return the amount of templates this program cache holds.
+	 */
+	public synchronized int getSize() {
+		return templates.size();
+	}
+
+	/**
+	 * Return the template of the given program text in this program cache, or null if
+	 * 	this program cache holds no template of the given text. The template returned
+	 * 	becomes the one used most recently.
+	 *
+	 * @param	text
+	 * 			The program text of the template.
+	 */
+	public synchronized ProgramTemplate get(String text) {
+		return templates.get(text);
+	}
+
+	/**
+	 * Register the given template in this program cache, under its text. The template
+	 * 	used least recently is dropped if this program cache holds too many templates.
+	 *
+	 * @param	template
+	 * 			The template to register.
+	 * @post	The given template is the template of its text in this program cache.
+	 * 			| new.get(template.getText()) == template
+	 */
+	public synchronized void put(ProgramTemplate template) {
+		templates.put(template.getText(), template);
+	}
+
+	/**
+	 * Remove all templates from this program cache.
+	 *
+	 * @post	This program cache holds no templates.
+	 * 			| new.getSize() == 0
+	 */
+	public synchronized void clear() {
+		templates.clear();
+	}
+
+	/**
+	 * Variable registering the templates of this program cache, from the one used least
+	 * recently to the one used most recently.
+	 */
+	private final LinkedHashMap<String, ProgramTemplate> templates;
+}
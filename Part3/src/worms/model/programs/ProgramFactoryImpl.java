@@ -1,6 +1,10 @@
 package worms.model.programs;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import worms.model.programs.statements.*;
 import worms.model.programs.types.*;
@@ -114,7 +118,7 @@ public class ProgramFactoryImpl implements ProgramFactory<Expression, Statement,
 	@Override
 	public Expression createVariableAccess(int line, int column, String name,
 			Type type) {
-		return new VariableAccess(name, type, line, column);
+		return new VariableAccess(name, type, getSlot(name), line, column);
 	}
 
 	@Override
@@ -225,7 +229,7 @@ public class ProgramFactoryImpl implements ProgramFactory<Expression, Statement,
 	@Override
 	public Statement createAssignment(int line, int column,
 			String variableName, Expression rhs) {
-		return new Assignment(variableName, rhs, line, column);
+		return new Assignment(variableName, getSlot(variableName), rhs, line, column);
 	}
 
 	@Override
@@ -272,4 +276,21 @@ public class ProgramFactoryImpl implements ProgramFactory<Expression, Statement,
 	public Type createEntityType() {
 		return new EntityType();
 	}
+	public int getSlot(String name) {
+		Integer slot = slots.get(name);
+		if (slot == null) {
+			slot = variables.size();
+			slots.put(name, slot);
+			variables.add(name);
+		}
+		return slot;
+	}
+
+	public List<String> getVariables() {
+		return Collections.unmodifiableList(variables);
+	}
+
+	private final Map<String, Integer> slots = new HashMap<String, Integer>();
+
+	private final List<String> variables = new ArrayList<String>();
 }
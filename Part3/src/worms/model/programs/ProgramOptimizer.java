@@ -0,0 +1,396 @@
+package worms.model.programs;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import worms.model.programs.expressions.Add;
+import worms.model.programs.expressions.BoolLiteral;
+import worms.model.programs.expressions.Division;
+import worms.model.programs.expressions.DoubleLiteral;
+import worms.model.programs.expressions.EntityExpression;
+import worms.model.programs.expressions.Equality;
+import worms.model.programs.expressions.Expression;
+import worms.model.programs.expressions.GetAP;
+import worms.model.programs.expressions.GetDir;
+import worms.model.programs.expressions.GetHP;
+import worms.model.programs.expressions.GetMaxAP;
+import worms.model.programs.expressions.GetMaxHP;
+import worms.model.programs.expressions.GetRadius;
+import worms.model.programs.expressions.GetX;
+import worms.model.programs.expressions.GetY;
+import worms.model.programs.expressions.GreaterThan;
+import worms.model.programs.expressions.GreaterThanOrEqualTo;
+import worms.model.programs.expressions.InEquality;
+import worms.model.programs.expressions.IsWorm;
+import worms.model.programs.expressions.LessThan;
+import worms.model.programs.expressions.LessThanOrEqualTo;
+import worms.model.programs.expressions.Multiply;
+import worms.model.programs.expressions.SearchObject;
+import worms.model.programs.expressions.Sqrt;
+import worms.model.programs.expressions.Substraction;
+import worms.model.programs.statements.Assignment;
+import worms.model.programs.statements.Fire;
+import worms.model.programs.statements.If;
+import worms.model.programs.statements.Print;
+import worms.model.programs.statements.Sequence;
+import worms.model.programs.statements.Skip;
+import worms.model.programs.statements.Statement;
+import worms.model.programs.statements.Turn;
+import worms.model.programs.statements.While;
+import worms.model.programs.types.Type;
+
+/**
+ * A class of program optimizers involving the amount of nodes before and after their last
+ * 	optimization.
+ * 	A program optimizer rewrites the statement of a parsed program into a statement that
+ * 	behaves the same, before the program is built:
+ * 	- arithmetic, comparisons and inequalities of literals are folded into literals, and
+ * 	  equalities are folded as they are evaluated, on their operands as written;
+ * 	- a conditional with a literal condition is replaced by a sequence of the branch it
+ * 	  takes, and a loop with a literal false condition by a skip;
+ * 	- the statements of a sequence after a loop with a literal true condition are dropped,
+ * 	  as such a loop never ends.
+ * 	Each statement executed by the optimized statement counts as many instructions as the
+ * 	statement it replaces, so programs run out of instructions at the same points.
+ * 	Statements with missing parts are left as they are.
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public class ProgramOptimizer {
+
+	/**
+	 * Return the amount of nodes in the statement last given to this program optimizer.
+	 */
+	@Basic
+	public int getNbNodesBefore() {
+		return this.nbNodesBefore;
+	}
+
+	/**
+	 * Return the amount of nodes in the statement last returned by this program optimizer.
+	 */
+	@Basic
+	public int getNbNodesAfter() {
+		return this.nbNodesAfter;
+	}
+
+	/**
+	 * Variables registering the amount of nodes before and after the last optimization.
+	 */
+	private int nbNodesBefore = 0;
+	private int nbNodesAfter = 0;
+
+	/**
+	 * Return an optimized statement that behaves the same as the given statement.
+	 * 	The given statement is not changed.
+	 *
+	 * @param	statement
+	 * 			The statement to optimize.
+	 * @post	The amount of nodes before is the amount of nodes in the given statement.
+	 * 			| new.getNbNodesBefore() == countNodes(statement)
+	 * @post	The amount of nodes after is the amount of nodes in the resulting statement.
+	 * 			| new.getNbNodesAfter() == countNodes(result)
+	 */
+	public Statement optimize(Statement statement) {
+		final Statement result = optimizeStatement(statement);
+		nbNodesBefore = countNodes(statement);
+		nbNodesAfter = countNodes(result);
+		return result;
+	}
+
+	private Statement optimizeStatement(Statement statement) {
+		if (statement instanceof Sequence)
+			return optimizeSequence((Sequence) statement);
+		if (statement instanceof If)
+			return optimizeIf((If) statement);
+		if (statement instanceof While)
+			return optimizeWhile((While) statement);
+		if (statement instanceof Turn) {
+			final Turn turn = (Turn) statement;
+			return new Turn(fold(turn.getAngle()), turn.getLine(), turn.getColumn());
+		}
+		if (statement instanceof Print) {
+			final Print print = (Print) statement;
+			return new Print(fold(print.getExpression()), print.getLine(), print.getColumn());
+		}
+		if (statement instanceof Assignment) {
+			final Assignment assignment = (Assignment) statement;
+			return new Assignment(assignment.getName(), assignment.getSlot(),
+					fold(assignment.getValue()), assignment.getLine(), assignment.getColumn());
+		}
+		// the remaining statements have no state and no expressions to fold
+		return statement;
+	}
+
+	private Statement optimizeSequence(Sequence sequence) {
+		final List<Statement> statements = new ArrayList<Statement>();
+		for (Statement statement : sequence.getStatements()) {
+			final Statement optimized = optimizeStatement(statement);
+			statements.add(optimized);
+			if (isEndless(optimized))
+				break;
+		}
+		return new Sequence(statements, sequence.getLine(), sequence.getColumn());
+	}
+
+	private Statement optimizeIf(If conditional) {
+		if (conditional.getCondition() == null || conditional.getThen() == null
+				|| conditional.getOtherwise() == null)
+			return conditional;
+		final Expression condition = fold(conditional.getCondition());
+		if (condition instanceof BoolLiteral) {
+			// the sequence counts an instruction after its branch, as the conditional does
+			final List<Statement> branch = new ArrayList<Statement>();
+			branch.add(optimizeStatement(((BoolLiteral) condition).getResult() ?
+					conditional.getThen() : conditional.getOtherwise()));
+			return new Sequence(branch, conditional.getLine(), conditional.getColumn());
+		}
+		return new If(condition, optimizeStatement(conditional.getThen()),
+				optimizeStatement(conditional.getOtherwise()), conditional.getLine(), conditional.getColumn());
+	}
+
+	private Statement optimizeWhile(While loop) {
+		if (loop.getCondition() == null || loop.getBody() == null)
+			return loop;
+		final Expression condition = fold(loop.getCondition());
+		if (condition instanceof BoolLiteral && !((BoolLiteral) condition).getResult())
+			return new Skip(loop.getLine(), loop.getColumn());
+		return new While(condition, optimizeStatement(loop.getBody()), loop.getLine(), loop.getColumn());
+	}
+
+	/**
+	 * Check whether the given statement never ends, whatever its program does.
+	 */
+	private static boolean isEndless(Statement statement) {
+		return statement instanceof While && ((While) statement).getBody() != null
+				&& ((While) statement).getCondition() instanceof BoolLiteral
+				&& ((BoolLiteral) ((While) statement).getCondition()).getResult();
+	}
+
+	/**
+	 * Return an expression with the same result as the given expression, with its literal
+	 * 	parts folded. Folded expressions are evaluated as they are, so they give the literal
+	 * 	they would give in every program.
+	 */
+	private Expression fold(Expression expression) {
+		if (expression instanceof Add) {
+			final Add add = (Add) expression;
+			final Add folded = new Add(fold(add.getFirstOperand()), fold(add.getSecondOperand()),
+					add.getLine(), add.getColumn());
+			return foldDouble(folded, folded.getFirstOperand(), folded.getSecondOperand());
+		}
+		if (expression instanceof Substraction) {
+			final Substraction sub = (Substraction) expression;
+			final Substraction folded = new Substraction(fold(sub.getFirstOperand()),
+					fold(sub.getSecondOperand()), sub.getLine(), sub.getColumn());
+			return foldDouble(folded, folded.getFirstOperand(), folded.getSecondOperand());
+		}
+		if (expression instanceof Multiply) {
+			final Multiply mul = (Multiply) expression;
+			final Multiply folded = new Multiply(fold(mul.getFirstOperand()),
+					fold(mul.getSecondOperand()), mul.getLine(), mul.getColumn());
+			return foldDouble(folded, folded.getFirstOperand(), folded.getSecondOperand());
+		}
+		if (expression instanceof Division)
+			// divisions only have literal operands
+			return foldDouble(expression, ((Division) expression).getFirstOperand(),
+					((Division) expression).getSecondOperand());
+		if (expression instanceof Sqrt) {
+			final Sqrt sqrt = (Sqrt) expression;
+			final Sqrt folded = new Sqrt(fold(sqrt.getOperand()), sqrt.getLine(), sqrt.getColumn());
+			return (folded.getOperand() instanceof DoubleLiteral) ? folded.getValue(null) : folded;
+		}
+		if (expression instanceof LessThan) {
+			final LessThan lt = (LessThan) expression;
+			final LessThan folded = new LessThan(fold(lt.getFirstOperand()),
+					fold(lt.getSecondOperand()), lt.getLine(), lt.getColumn());
+			return foldDouble(folded, folded.getFirstOperand(), folded.getSecondOperand());
+		}
+		if (expression instanceof GreaterThan) {
+			final GreaterThan gt = (GreaterThan) expression;
+			final GreaterThan folded = new GreaterThan(fold(gt.getFirstOperand()),
+					fold(gt.getSecondOperand()), gt.getLine(), gt.getColumn());
+			return foldDouble(folded, folded.getFirstOperand(), folded.getSecondOperand());
+		}
+		if (expression instanceof LessThanOrEqualTo) {
+			final LessThanOrEqualTo le = (LessThanOrEqualTo) expression;
+			final LessThanOrEqualTo folded = new LessThanOrEqualTo(fold(le.getFirstOperand()),
+					fold(le.getSecondOperand()), le.getLine(), le.getColumn());
+			return foldDouble(folded, folded.getFirstOperand(), folded.getSecondOperand());
+		}
+		if (expression instanceof GreaterThanOrEqualTo) {
+			final GreaterThanOrEqualTo ge = (GreaterThanOrEqualTo) expression;
+			final GreaterThanOrEqualTo folded = new GreaterThanOrEqualTo(fold(ge.getFirstOperand()),
+					fold(ge.getSecondOperand()), ge.getLine(), ge.getColumn());
+			return foldDouble(folded, folded.getFirstOperand(), folded.getSecondOperand());
+		}
+		if (expression instanceof InEquality) {
+			final InEquality ne = (InEquality) expression;
+			final InEquality folded = new InEquality(fold(ne.getFirstOperand()),
+					fold(ne.getSecondOperand()), ne.getLine(), ne.getColumn());
+			if (folded.getFirstOperand() instanceof BoolLiteral
+					&& folded.getSecondOperand() instanceof BoolLiteral)
+				return folded.getValue(null);
+			return foldDouble(folded, folded.getFirstOperand(), folded.getSecondOperand());
+		}
+		if (expression instanceof Equality) {
+			// an equality only compares literals as written, so its operands are not folded
+			final Equality eq = (Equality) expression;
+			if (eq.getFirstOperand() instanceof EntityExpression
+					&& eq.getSecondOperand() instanceof EntityExpression)
+				return eq;
+			return eq.getValue(null);
+		}
+		return expression;
+	}
+
+	/**
+	 * Return the value of the given expression if both given operands are double literals,
+	 * 	or the given expression otherwise.
+	 */
+	private static Expression foldDouble(Expression expression, Expression first, Expression second) {
+		if (first instanceof DoubleLiteral && second instanceof DoubleLiteral)
+			return expression.getValue(null);
+		return expression;
+	}
+
+	/**
+	 * Return the amount of nodes in the given statement, its expressions included.
+	 */
+	public static int countNodes(Statement statement) {
+		if (statement == null)
+			return 0;
+		if (statement instanceof Sequence) {
+			int nbNodes = 1;
+			for (Statement part : ((Sequence) statement).getStatements())
+				nbNodes += countNodes(part);
+			return nbNodes;
+		}
+		if (statement instanceof If) {
+			final If conditional = (If) statement;
+			return 1 + countNodes(conditional.getCondition()) + countNodes(conditional.getThen())
+					+ countNodes(conditional.getOtherwise());
+		}
+		if (statement instanceof While)
+			return 1 + countNodes(((While) statement).getCondition())
+					+ countNodes(((While) statement).getBody());
+		if (statement instanceof Turn)
+			return 1 + countNodes(((Turn) statement).getAngle());
+		if (statement instanceof Print)
+			return 1 + countNodes(((Print) statement).getExpression());
+		if (statement instanceof Assignment)
+			return 1 + countNodes(((Assignment) statement).getValue());
+		if (statement instanceof Fire)
+			return 1 + countNodes(((Fire) statement).getYield());
+		return 1;
+	}
+
+	/**
+	 * Return the amount of nodes in the given expression.
+	 */
+	public static int countNodes(Expression expression) {
+		if (expression == null)
+			return 0;
+		if (expression instanceof Add)
+			return 1 + countNodes(((Add) expression).getFirstOperand())
+					+ countNodes(((Add) expression).getSecondOperand());
+		if (expression instanceof Substraction)
+			return 1 + countNodes(((Substraction) expression).getFirstOperand())
+					+ countNodes(((Substraction) expression).getSecondOperand());
+		if (expression instanceof Multiply)
+			return 1 + countNodes(((Multiply) expression).getFirstOperand())
+					+ countNodes(((Multiply) expression).getSecondOperand());
+		if (expression instanceof Division)
+			return 1 + countNodes(((Division) expression).getFirstOperand())
+					+ countNodes(((Division) expression).getSecondOperand());
+		if (expression instanceof LessThan)
+			return 1 + countNodes(((LessThan) expression).getFirstOperand())
+					+ countNodes(((LessThan) expression).getSecondOperand());
+		if (expression instanceof GreaterThan)
+			return 1 + countNodes(((GreaterThan) expression).getFirstOperand())
+					+ countNodes(((GreaterThan) expression).getSecondOperand());
+		if (expression instanceof LessThanOrEqualTo)
+			return 1 + countNodes(((LessThanOrEqualTo) expression).getFirstOperand())
+					+ countNodes(((LessThanOrEqualTo) expression).getSecondOperand());
+		if (expression instanceof GreaterThanOrEqualTo)
+			return 1 + countNodes(((GreaterThanOrEqualTo) expression).getFirstOperand())
+					+ countNodes(((GreaterThanOrEqualTo) expression).getSecondOperand());
+		if (expression instanceof Equality)
+			return 1 + countNodes(((Equality) expression).getFirstOperand())
+					+ countNodes(((Equality) expression).getSecondOperand());
+		if (expression instanceof InEquality)
+			return 1 + countNodes(((InEquality) expression).getFirstOperand())
+					+ countNodes(((InEquality) expression).getSecondOperand());
+		if (expression instanceof Sqrt)
+			return 1 + countNodes(((Sqrt) expression).getOperand());
+		if (expression instanceof SearchObject)
+			return 1 + countNodes(((SearchObject) expression).getTheta());
+		if (expression instanceof GetX)
+			return 1 + countNodes(((GetX) expression).getEntity());
+		if (expression instanceof GetY)
+			return 1 + countNodes(((GetY) expression).getEntity());
+		if (expression instanceof GetRadius)
+			return 1 + countNodes(((GetRadius) expression).getEntity());
+		if (expression instanceof GetAP)
+			return 1 + countNodes(((GetAP) expression).getEntity());
+		if (expression instanceof GetDir)
+			return 1 + countNodes(((GetDir) expression).getEntity());
+		if (expression instanceof GetHP)
+			return 1 + countNodes(((GetHP) expression).getEntity());
+		if (expression instanceof GetMaxAP)
+			return 1 + countNodes(((GetMaxAP) expression).getEntity());
+		if (expression instanceof GetMaxHP)
+			return 1 + countNodes(((GetMaxHP) expression).getEntity());
+		if (expression instanceof IsWorm)
+			return 1 + countNodes(((IsWorm) expression).getEntity());
+		return 1;
+	}
+
+	/**
+	 * Parse and optimize the programs in the files with the given names, and print the
+	 * 	amount of nodes in each of them before and after its optimization.
+	 */
+	public static void main(String[] args) throws IOException {
+		for (String filename : args) {
+			final ProgramFactoryImpl factory = new ProgramFactoryImpl();
+			final ProgramParser<Expression, Statement, Type> parser =
+					new ProgramParser<Expression, Statement, Type>(factory);
+			try {
+				parser.parse(readFile(filename));
+			} catch (RuntimeException e) {
+				System.out.println(filename + ": could not be parsed (" + e + ")");
+				continue;
+			}
+			if (!parser.getErrors().isEmpty()) {
+				System.out.println(filename + ": " + parser.getErrors());
+				continue;
+			}
+			final ProgramOptimizer optimizer = new ProgramOptimizer();
+			optimizer.optimize(parser.getStatement());
+			System.out.println(filename + ": " + optimizer.getNbNodesBefore() + " nodes before, "
+					+ optimizer.getNbNodesAfter() + " nodes after optimization");
+		}
+	}
+
+	private static String readFile(String filename) throws IOException {
+		final BufferedReader reader = new BufferedReader(new FileReader(filename));
+		final StringBuilder text = new StringBuilder();
+		try {
+			String line = reader.readLine();
+			while (line != null) {
+				text.append(line);
+				text.append("\n");
+				line = reader.readLine();
+			}
+		} finally {
+			reader.close();
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,125 @@
+package worms.model.programs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.model.programs.bytecode.Bytecode;
+import worms.model.programs.bytecode.BytecodeCompiler;
+import worms.model.programs.statements.Statement;
+import worms.model.programs.types.Type;
+
+/**
+ * A class of program templates involving a statement, globals, variables, a text and bytecode.
+ * 	A program template is what is left of a parsed program text once the state of a
+ * 	program is taken out, so any number of programs can be made from one template. Those
+ * 	programs share its statement and bytecode, and each have their own virtual machine and
+ * 	variables; they execute the statement through their machine, which keeps the state of
+ * 	its execution.
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public class ProgramTemplate {
+
+	/**
+	 * Initialize this new program template with given statement, globals, variables and text,
+	 * 	and compile its statement.
+	 *
+	 * @param	statement
+	 * 			The statement for this new program template.
+	 * @param	globals
+	 * 			The declared global variables for this new program template, with their initial values.
+	 * @param	variables
+	 * 			The names of the variables for this new program template, in the order of their slots.
+	 * @param	text
+	 * 			The program text for this new program template.
+	 * @post	The statement of this new program template is equal to the given statement.
+	 * 			| new.getStatement() == statement
+	 * @post	The globals and variables of this new program template are equal to the given
+	 * 			globals and variables.
+	 * 			| new.getGlobals().equals(globals) && new.getVariables().equals(variables)
+	 * @post	The text of this new program template is equal to the given text.
+	 * 			| new.getText() == text
+	 */
+	public ProgramTemplate(Statement statement, HashMap<String, Type> globals, List<String> variables,
+			String text) {
+		this.statement = statement;
+		this.globals = new HashMap<String, Type>(globals);
+		this.variables = Collections.unmodifiableList(new ArrayList<String>(variables));
+		this.text = text;
+		this.bytecode = BytecodeCompiler.compile(statement, globals);
+	}
+
+	/**
+	 * Return the statement of this program template.
+	 */
+	@Basic
+	@Immutable
+	public Statement getStatement() {
+		return this.statement;
+	}
+
+	/**
+	 * Variable registering the statement of this program template.
+	 */
+	private final Statement statement;
+
+	/**
+	 * Return the declared global variables of this program template, with their initial values.
+	 */
+	public HashMap<String, Type> getGlobals() {
+		return new HashMap<String, Type>(this.globals);
+	}
+
+	/**
+	 * Variable registering the declared global variables of this program template.
+	 */
+	private final HashMap<String, Type> globals;
+
+	/**
+	 * Return the names of the variables of this program template, in the order of their slots.
+	 */
+	@Basic
+	@Immutable
+	public List<String> getVariables() {
+		return this.variables;
+	}
+
+	/**
+	 * Variable registering the names of the variables of this program template.
+	 */
+	private final List<String> variables;
+
+	/**
+	 * Return the program text of this program template.
+	 */
+	@Basic
+	@Immutable
+	public String getText() {
+		return this.text;
+	}
+
+	/**
+	 * Variable registering the program text of this program template.
+	 */
+	private final String text;
+
+	/**
+	 * Return the bytecode compiled from the statement of this program template.
+	 */
+	@Basic
+	@Immutable
+	public Bytecode getBytecode() {
+		return this.bytecode;
+	}
+
+	/**
+	 * Variable registering the bytecode of this program template.
+	 */
+	private final Bytecode bytecode;
+}
@@ -0,0 +1,126 @@
+package worms.model.programs.bytecode;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of bytecode involving code, constants, nodes and register counts.
+ * 	Bytecode is the compiled form of the statement of a program. Its code is a sequence
+ * 	of instructions as described in Opcode; constants and nodes are referred to by their
+ * 	index, and variables by their slot in the program. Nodes are the parts of the
+ * 	statement that are not compiled and are executed as they are.
+ *
+ * @invar	The code of each bytecode consists of whole instructions.
+ * 			| getCode().length % Opcode.WIDTH == 0
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public class Bytecode {
+
+	/**
+	 * Initialize this new bytecode with given code, constants, nodes and register counts.
+	 * 	The given arrays are not copied.
+	 */
+	Bytecode(int[] code, double[] constants, Object[] nodes,
+			int nbDoubleRegisters, int nbBoolRegisters, int nbEntityRegisters) {
+		this.code = code;
+		this.constants = constants;
+		this.nodes = nodes;
+		this.nbDoubleRegisters = nbDoubleRegisters;
+		this.nbBoolRegisters = nbBoolRegisters;
+		this.nbEntityRegisters = nbEntityRegisters;
+	}
+
+	/**
+	 * Return the code of this bytecode.
+	 */
+	@Basic
+	@Immutable
+	int[] getCode() {
+		return this.code;
+	}
+
+	/**
+	 * Return the amount of instructions in this bytecode.
+	 */
+	public int getLength() {
+		return code.length / Opcode.WIDTH;
+	}
+
+	/**
+	 * Variable registering the code of this bytecode.
+	 */
+	private final int[] code;
+
+	/**
+	 * Return the constants of this bytecode.
+	 */
+	@Basic
+	@Immutable
+	double[] getConstants() {
+		return this.constants;
+	}
+
+	/**
+	 * Variable registering the constants of this bytecode.
+	 */
+	private final double[] constants;
+
+	/**
+	 * Return the expressions and statements this bytecode executes as they are.
+	 */
+	@Basic
+	@Immutable
+	Object[] getNodes() {
+		return this.nodes;
+	}
+
+	/**
+	 * Variable registering the expressions and statements this bytecode executes as they are.
+	 */
+	private final Object[] nodes;
+
+	/**
+	 * Return the amount of double registers this bytecode uses.
+	 */
+	@Basic
+	@Immutable
+	public int getNbDoubleRegisters() {
+		return this.nbDoubleRegisters;
+	}
+
+	/**
+	 * Variable registering the amount of double registers this bytecode uses.
+	 */
+	private final int nbDoubleRegisters;
+
+	/**
+	 * Return the amount of boolean registers this bytecode uses.
+	 */
+	@Basic
+	@Immutable
+	public int getNbBoolRegisters() {
+		return this.nbBoolRegisters;
+	}
+
+	/**
+	 * Variable registering the amount of boolean registers this bytecode uses.
+	 */
+	private final int nbBoolRegisters;
+
+	/**
+	 * Return the amount of entity registers this bytecode uses.
+	 */
+	@Basic
+	@Immutable
+	public int getNbEntityRegisters() {
+		return this.nbEntityRegisters;
+	}
+
+	/**
+	 * Variable registering the amount of entity registers this bytecode uses.
+	 */
+	private final int nbEntityRegisters;
+}
@@ -0,0 +1,510 @@
+package worms.model.programs.bytecode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import worms.model.programs.expressions.*;
+import worms.model.programs.statements.*;
+import worms.model.programs.types.BoolType;
+import worms.model.programs.types.DoubleType;
+import worms.model.programs.types.EntityType;
+import worms.model.programs.types.Type;
+
+/**
+ * A class of compilers that translate the statement of a program into bytecode.
+ * 	Expressions are computed in registers of their own kind, which are handed out
+ * 	as a stack: an expression leaves its value in the first free register.
+ * 	The compiled code does what executing the statement does, including the counting of
+ * 	executed statements and the exceptions thrown for missing or ill-typed parts. Parts
+ * 	for which that can not be guaranteed are not compiled, but executed as they are.
+ * 	When an action fails, the program is suspended and later resumed at the start of
+ * 	the statement of that action, rather than executed again from the start.
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public class BytecodeCompiler {
+
+	/**
+	 * Compile the given statement, of which the variables have the given types.
+	 *
+	 * @param	statement
+	 * 			The statement to compile.
+	 * @param	globals
+	 * 			The types of the variables of the given statement.
+	 * @return	Bytecode that, executed by a virtual machine, does the same as executing
+	 * 			the given statement.
+	 */
+	public static Bytecode compile(Statement statement, Map<String, Type> globals) {
+		final BytecodeCompiler compiler = new BytecodeCompiler(globals);
+		compiler.compileStatement(statement);
+		compiler.emit(Opcode.RETURN, 0, 0, 0);
+		return compiler.toBytecode();
+	}
+
+	/**
+	 * Initialize this new compiler for variables of the given types.
+	 */
+	private BytecodeCompiler(Map<String, Type> globals) {
+		this.globals = globals;
+	}
+
+	/**
+	 * Variable registering the types of the variables of the compiled statement.
+	 */
+	private final Map<String, Type> globals;
+
+	/**
+	 * Return the bytecode compiled so far.
+	 */
+	private Bytecode toBytecode() {
+		return new Bytecode(Arrays.copyOf(code, length), Arrays.copyOf(constants, nbConstants),
+				nodes.toArray(), maxDoubles, maxBools, maxEntities);
+	}
+
+	/*
+	 * Statements
+	 */
+
+	private void compileStatement(Statement statement) {
+		doubleTop = boolTop = entityTop = 0;
+		final int start = length;
+		if (statement == null)
+			emit(Opcode.FAIL, 0, 0, 0);
+		else if (statement instanceof Sequence) {
+			for (Statement nested : ((Sequence) statement).getStatements())
+				compileStatement(nested);
+			emit(Opcode.COUNT, 0, 0, 0);
+		} else if (statement instanceof If)
+			compileIf((If) statement);
+		else if (statement instanceof While)
+			compileWhile((While) statement);
+		else if (statement instanceof Skip)
+			emit(Opcode.COUNT, 0, 0, 0);
+		else if (statement instanceof Move)
+			emitAction(Opcode.MOVE, 0, start);
+		else if (statement instanceof Jump)
+			emitAction(Opcode.JUMP, 0, start);
+		else if (statement instanceof ToggleWeapon)
+			emitAction(Opcode.TOGGLE, 0, start);
+		else if (statement instanceof Turn && isStrict(((Turn) statement).getAngle(), DOUBLE))
+			emitAction(Opcode.TURN, compileDouble(((Turn) statement).getAngle()), start);
+		else if (statement instanceof Fire && ((Fire) statement).getYield() != null)
+			emitAction(Opcode.FIRE, compileDouble(((Fire) statement).getYield()), start);
+		else if (statement instanceof Print && isExact(((Print) statement).getExpression()))
+			compilePrint(((Print) statement).getExpression());
+		else if (statement instanceof Assignment && isExact(((Assignment) statement).getValue())
+				&& kindOf(globals.get(((Assignment) statement).getName())) != OTHER)
+			compileAssignment((Assignment) statement);
+		else
+			emit(Opcode.EXEC, node(statement), start, 0);
+	}
+
+	/**
+	 * Emit the given action on the given register, followed by its count. If the action
+	 * 	fails, the program is resumed at the given start of its statement.
+	 */
+	private void emitAction(int opcode, int register, int start) {
+		emit(opcode, register, start, 0);
+		emit(Opcode.COUNT, 0, 0, 0);
+	}
+
+	private void compilePrint(Expression expression) {
+		switch (kindOf(expression)) {
+		case DOUBLE:
+			emitAction(Opcode.PRINTD, compileDouble(expression), 0);
+			break;
+		case BOOL:
+			emitAction(Opcode.PRINTB, compileBool(expression), 0);
+			break;
+		default:
+			emitAction(Opcode.PRINTE, compileEntity(expression), 0);
+		}
+	}
+
+	/**
+	 * Compile the given assignment, of which the value has an exact kind and the variable
+	 * 	a known kind. A value of another kind than the variable is computed, but not stored.
+	 */
+	private void compileAssignment(Assignment assignment) {
+		final int variable = assignment.getSlot();
+		final boolean stored = kindOf(assignment.getValue()) == kindOf(globals.get(assignment.getName()));
+		switch (kindOf(assignment.getValue())) {
+		case DOUBLE:
+			final int d = compileDouble(assignment.getValue());
+			if (stored)
+				emit(Opcode.DSTORE, variable, d, 0);
+			break;
+		case BOOL:
+			final int b = compileBool(assignment.getValue());
+			if (stored)
+				emit(Opcode.BSTORE, variable, b, 0);
+			break;
+		default:
+			final int e = compileEntity(assignment.getValue());
+			if (stored)
+				emit(Opcode.ESTORE, variable, e, 0);
+		}
+		emit(Opcode.COUNT, 0, 0, 0);
+	}
+
+	/**
+	 * Compile the given conditional. A conditional with a missing part can not be executed,
+	 * 	so it suspends its program every time it is reached.
+	 */
+	private void compileIf(If conditional) {
+		final int start = length;
+		if (conditional.getCondition() == null || conditional.getThen() == null
+				|| conditional.getOtherwise() == null) {
+			emit(Opcode.SUSPEND, start, 0, 0);
+			return;
+		}
+		final int condition = compileBool(conditional.getCondition());
+		final int branch = emit(Opcode.GOTO_IF_FALSE, condition, 0, 0);
+		compileStatement(conditional.getThen());
+		final int skip = emit(Opcode.GOTO, 0, 0, 0);
+		code[branch + 2] = length;
+		compileStatement(conditional.getOtherwise());
+		code[skip + 1] = length;
+		emit(Opcode.COUNT, 0, 0, 0);
+	}
+
+	private void compileWhile(While loop) {
+		final int start = length;
+		final int condition = compileBool(loop.getCondition());
+		final int exit = emit(Opcode.GOTO_IF_FALSE, condition, 0, 0);
+		compileStatement(loop.getBody());
+		emit(Opcode.GOTO, start, 0, 0);
+		code[exit + 2] = length;
+		emit(Opcode.COUNT, 0, 0, 0);
+	}
+
+	/*
+	 * Expressions
+	 */
+
+	/**
+	 * The kinds of values expressions have. An expression of kind OTHER has no known kind.
+	 */
+	private static final int DOUBLE = 0, BOOL = 1, ENTITY = 2, OTHER = 3;
+
+	/**
+	 * Return the kind of values the given expression has, when it has a value.
+	 */
+	private static int kindOf(Expression expression) {
+		if (expression instanceof VariableAccess)
+			return kindOf(((VariableAccess) expression).getType());
+		if (expression instanceof DoubleLiteral || expression instanceof Add
+				|| expression instanceof Substraction || expression instanceof Multiply
+				|| expression instanceof Division || expression instanceof Sqrt
+				|| expression instanceof GetX || expression instanceof GetY
+				|| expression instanceof GetRadius)
+			return DOUBLE;
+		if (expression instanceof BoolLiteral || expression instanceof LessThan
+				|| expression instanceof GreaterThan || expression instanceof LessThanOrEqualTo
+				|| expression instanceof GreaterThanOrEqualTo || expression instanceof Equality
+				|| expression instanceof InEquality)
+			return BOOL;
+		if (expression instanceof NullLiteral || expression instanceof SelfWormExpression
+				|| expression instanceof SearchObject || expression instanceof EntityExpression)
+			return ENTITY;
+		return OTHER;
+	}
+
+	private static int kindOf(Type type) {
+		if (type instanceof DoubleType)
+			return DOUBLE;
+		if (type instanceof BoolType)
+			return BOOL;
+		if (type instanceof EntityType)
+			return ENTITY;
+		return OTHER;
+	}
+
+	/**
+	 * Check whether the given expression either has a value of its kind or throws an exception.
+	 * 	The coordinates and radius of something that is not an object are null instead.
+	 */
+	private static boolean isExact(Expression expression) {
+		return kindOf(expression) != OTHER && !(expression instanceof GetX
+				|| expression instanceof GetY || expression instanceof GetRadius);
+	}
+
+	/**
+	 * Check whether the given expression has a value of the given kind, where a null value
+	 * 	would make the expression that uses it throw an exception.
+	 */
+	private static boolean isStrict(Expression expression, int kind) {
+		return kindOf(expression) == kind;
+	}
+
+	/**
+	 * Compile the given expression, of which the value is used as a double, and return the
+	 * 	register in which it is left.
+	 */
+	private int compileDouble(Expression expression) {
+		if (expression instanceof DoubleLiteral) {
+			final int result = allocateDouble();
+			emit(Opcode.DCONST, result, constant(((DoubleLiteral) expression).getResult()), 0);
+			return result;
+		}
+		if (expression instanceof VariableAccess && isStrict(expression, DOUBLE)) {
+			final int result = allocateDouble();
+			emit(Opcode.DLOAD, result, ((VariableAccess) expression).getSlot(), 0);
+			return result;
+		}
+		if (expression instanceof Add)
+			return compileArithmetic(Opcode.DADD, ((Add) expression).getFirstOperand(),
+					((Add) expression).getSecondOperand(), expression);
+		if (expression instanceof Substraction)
+			return compileArithmetic(Opcode.DSUB, ((Substraction) expression).getFirstOperand(),
+					((Substraction) expression).getSecondOperand(), expression);
+		if (expression instanceof Multiply)
+			return compileArithmetic(Opcode.DMUL, ((Multiply) expression).getFirstOperand(),
+					((Multiply) expression).getSecondOperand(), expression);
+		if (expression instanceof Division)
+			return compileArithmetic(Opcode.DDIV, ((Division) expression).getFirstOperand(),
+					((Division) expression).getSecondOperand(), expression);
+		if (expression instanceof Sqrt && isStrict(((Sqrt) expression).getOperand(), DOUBLE)) {
+			final int result = compileDouble(((Sqrt) expression).getOperand());
+			emit(Opcode.DSQRT, result, result, 0);
+			return result;
+		}
+		if (expression instanceof GetX && isStrict(((GetX) expression).getEntity(), ENTITY))
+			return compileProperty(Opcode.DGETX, ((GetX) expression).getEntity());
+		if (expression instanceof GetY && isStrict(((GetY) expression).getEntity(), ENTITY))
+			return compileProperty(Opcode.DGETY, ((GetY) expression).getEntity());
+		if (expression instanceof GetRadius && isStrict(((GetRadius) expression).getEntity(), ENTITY))
+			return compileProperty(Opcode.DGETRADIUS, ((GetRadius) expression).getEntity());
+		final int result = allocateDouble();
+		emit(Opcode.DEVAL, result, node(expression), 0);
+		return result;
+	}
+
+	private int compileArithmetic(int opcode, Expression first, Expression second, Expression expression) {
+		if (!isStrict(first, DOUBLE) || !isStrict(second, DOUBLE)) {
+			final int result = allocateDouble();
+			emit(Opcode.DEVAL, result, node(expression), 0);
+			return result;
+		}
+		final int result = compileDouble(first);
+		final int operand = compileDouble(second);
+		emit(opcode, result, result, operand);
+		doubleTop = result + 1;
+		return result;
+	}
+
+	private int compileProperty(int opcode, Expression entity) {
+		final int object = compileEntity(entity);
+		final int result = allocateDouble();
+		emit(opcode, result, object, 0);
+		entityTop = object;
+		return result;
+	}
+
+	/**
+	 * Compile the given expression, of which the value is used as a condition, and return
+	 * 	the register in which it is left.
+	 */
+	private int compileBool(Expression expression) {
+		if (expression instanceof BoolLiteral) {
+			final int result = allocateBool();
+			emit(Opcode.BCONST, result, ((BoolLiteral) expression).getResult() ? 1 : 0, 0);
+			return result;
+		}
+		if (expression instanceof VariableAccess && isStrict(expression, BOOL)) {
+			final int result = allocateBool();
+			emit(Opcode.BLOAD, result, ((VariableAccess) expression).getSlot(), 0);
+			return result;
+		}
+		if (expression instanceof LessThan)
+			return compileComparison(Opcode.DLT, ((LessThan) expression).getFirstOperand(),
+					((LessThan) expression).getSecondOperand(), expression);
+		if (expression instanceof GreaterThan)
+			return compileComparison(Opcode.DGT, ((GreaterThan) expression).getFirstOperand(),
+					((GreaterThan) expression).getSecondOperand(), expression);
+		if (expression instanceof LessThanOrEqualTo)
+			return compileComparison(Opcode.DLE, ((LessThanOrEqualTo) expression).getFirstOperand(),
+					((LessThanOrEqualTo) expression).getSecondOperand(), expression);
+		if (expression instanceof GreaterThanOrEqualTo)
+			return compileComparison(Opcode.DGE, ((GreaterThanOrEqualTo) expression).getFirstOperand(),
+					((GreaterThanOrEqualTo) expression).getSecondOperand(), expression);
+		if (expression instanceof Equality)
+			return compileEquality((Equality) expression);
+		if (expression instanceof InEquality)
+			return compileInEquality((InEquality) expression);
+		final int result = allocateBool();
+		emit(Opcode.BEVAL, result, node(expression), 0);
+		return result;
+	}
+
+	private int compileComparison(int opcode, Expression first, Expression second, Expression expression) {
+		if (!isStrict(first, DOUBLE) || !isStrict(second, DOUBLE)) {
+			final int result = allocateBool();
+			emit(Opcode.BEVAL, result, node(expression), 0);
+			return result;
+		}
+		final int left = compileDouble(first);
+		final int right = compileDouble(second);
+		doubleTop = left;
+		final int result = allocateBool();
+		emit(opcode, result, left, right);
+		return result;
+	}
+
+	/**
+	 * Compile the given equality. An equality only compares literals, so its value is
+	 * 	known beforehand unless it compares entity expressions.
+	 */
+	private int compileEquality(Equality equality) {
+		final Expression first = equality.getFirstOperand();
+		final Expression second = equality.getSecondOperand();
+		final int result = allocateBool();
+		if (first instanceof EntityExpression && second instanceof EntityExpression)
+			emit(Opcode.BEVAL, result, node(equality), 0);
+		else
+			emit(Opcode.BCONST, result, equality.getResult(null) ? 1 : 0, 0);
+		return result;
+	}
+
+	private int compileInEquality(InEquality inEquality) {
+		final Expression first = inEquality.getFirstOperand();
+		final Expression second = inEquality.getSecondOperand();
+		final int kind = kindOf(first);
+		if (!isExact(first) || !isExact(second) || kind != kindOf(second)) {
+			final int result = allocateBool();
+			emit(Opcode.BEVAL, result, node(inEquality), 0);
+			return result;
+		}
+		final int result;
+		if (kind == DOUBLE) {
+			final int left = compileDouble(first);
+			final int right = compileDouble(second);
+			doubleTop = left;
+			result = allocateBool();
+			emit(Opcode.DNE, result, left, right);
+		} else if (kind == BOOL) {
+			result = compileBool(first);
+			final int right = compileBool(second);
+			emit(Opcode.BNE, result, result, right);
+			boolTop = result + 1;
+		} else {
+			final int left = compileEntity(first);
+			final int right = compileEntity(second);
+			entityTop = left;
+			result = allocateBool();
+			emit(Opcode.ENE, result, left, right);
+		}
+		return result;
+	}
+
+	/**
+	 * Compile the given expression, of which the value is used as an entity, and return
+	 * 	the register in which it is left.
+	 */
+	private int compileEntity(Expression expression) {
+		if (expression instanceof SearchObject && ((SearchObject) expression).getTheta() != null) {
+			final int theta = compileDouble(((SearchObject) expression).getTheta());
+			doubleTop = theta;
+			final int result = allocateEntity();
+			emit(Opcode.ESEARCH, result, theta, 0);
+			return result;
+		}
+		final int result = allocateEntity();
+		if (expression instanceof NullLiteral)
+			emit(Opcode.ENULL, result, 0, 0);
+		else if (expression instanceof SelfWormExpression)
+			emit(Opcode.ESELF, result, 0, 0);
+		else if (expression instanceof VariableAccess && isStrict(expression, ENTITY))
+			emit(Opcode.ELOAD, result, ((VariableAccess) expression).getSlot(), 0);
+		else
+			emit(Opcode.EEVAL, result, node(expression), 0);
+		return result;
+	}
+
+	/*
+	 * Registers
+	 */
+
+	private int allocateDouble() {
+		maxDoubles = Math.max(maxDoubles, doubleTop + 1);
+		return doubleTop++;
+	}
+
+	private int allocateBool() {
+		maxBools = Math.max(maxBools, boolTop + 1);
+		return boolTop++;
+	}
+
+	private int allocateEntity() {
+		maxEntities = Math.max(maxEntities, entityTop + 1);
+		return entityTop++;
+	}
+
+	/**
+	 * Variables registering the first free register and the amount of registers used,
+	 * 	of each kind.
+	 */
+	private int doubleTop, boolTop, entityTop, maxDoubles, maxBools, maxEntities;
+
+	/*
+	 * Code and pools
+	 */
+
+	/**
+	 * Append the given instruction to the code, and return its position.
+	 */
+	private int emit(int opcode, int a, int b, int c) {
+		if (length + Opcode.WIDTH > code.length)
+			code = Arrays.copyOf(code, code.length * 2);
+		code[length] = opcode;
+		code[length + 1] = a;
+		code[length + 2] = b;
+		code[length + 3] = c;
+		length += Opcode.WIDTH;
+		return length - Opcode.WIDTH;
+	}
+
+	/**
+	 * Variable registering the code compiled so far.
+	 */
+	private int[] code = new int[64];
+
+	/**
+	 * Variable registering the amount of slots of the code in use.
+	 */
+	private int length;
+
+	private int constant(double value) {
+		for (int index = 0; index < nbConstants; index++)
+			if (Double.compare(constants[index], value) == 0)
+				return index;
+		if (nbConstants == constants.length)
+			constants = Arrays.copyOf(constants, nbConstants * 2);
+		constants[nbConstants] = value;
+		return nbConstants++;
+	}
+
+	/**
+	 * Variable registering the constants of the code.
+	 */
+	private double[] constants = new double[8];
+
+	/**
+	 * Variable registering the amount of constants of the code.
+	 */
+	private int nbConstants;
+
+	private int node(Object node) {
+		nodes.add(node);
+		return nodes.size() - 1;
+	}
+
+	/**
+	 * Variable registering the nodes the code executes as they are.
+	 */
+	private final List<Object> nodes = new ArrayList<Object>();
+}
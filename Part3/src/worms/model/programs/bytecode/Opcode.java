@@ -0,0 +1,130 @@
+package worms.model.programs.bytecode;
+
+/**
+ * A class collecting the operation codes of bytecode.
+ * 	Each instruction takes four slots in the code of a bytecode: its operation code
+ * 	followed by three operands a, b and c. Operands that are not used are zero.
+ * 	Double, boolean and entity registers are numbered separately.
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public final class Opcode {
+
+	/**
+	 * Opcode is a utility class, so no instances of it can be made.
+	 */
+	private Opcode() {
+	}
+
+	/**
+	 * The amount of slots each instruction takes.
+	 */
+	public static final int WIDTH = 4;
+
+	// double registers
+
+	/** d[a] = constant b */
+	public static final int DCONST = 0;
+	/** d[a] = double variable in slot b */
+	public static final int DLOAD = 1;
+	/** double variable in slot a = d[b] */
+	public static final int DSTORE = 2;
+	/** d[a] = d[b] + d[c], clamped like Add */
+	public static final int DADD = 3;
+	/** d[a] = d[b] - d[c], clamped like Substraction */
+	public static final int DSUB = 4;
+	/** d[a] = d[b] * d[c], clamped like Multiply */
+	public static final int DMUL = 5;
+	/** d[a] = d[b] / d[c], clamped like Division */
+	public static final int DDIV = 6;
+	/** d[a] = square root of d[b], zero if infinite */
+	public static final int DSQRT = 7;
+	/** d[a] = x coordinate of e[b] */
+	public static final int DGETX = 8;
+	/** d[a] = y coordinate of e[b] */
+	public static final int DGETY = 9;
+	/** d[a] = radius of e[b] */
+	public static final int DGETRADIUS = 10;
+	/** d[a] = result of expression node b */
+	public static final int DEVAL = 11;
+
+	// boolean registers
+
+	/** b[a] = (b != 0) */
+	public static final int BCONST = 12;
+	/** b[a] = boolean variable in slot b */
+	public static final int BLOAD = 13;
+	/** boolean variable in slot a = b[b] */
+	public static final int BSTORE = 14;
+	/** b[a] = d[b] < d[c] */
+	public static final int DLT = 15;
+	/** b[a] = d[b] > d[c] */
+	public static final int DGT = 16;
+	/** b[a] = d[b] fuzzy less than or equal to d[c] */
+	public static final int DLE = 17;
+	/** b[a] = d[b] fuzzy greater than or equal to d[c] */
+	public static final int DGE = 18;
+	/** b[a] = d[b] differs from d[c] */
+	public static final int DNE = 19;
+	/** b[a] = b[b] differs from b[c] */
+	public static final int BNE = 20;
+	/** b[a] = e[b] and e[c] are effective and different */
+	public static final int ENE = 21;
+	/** b[a] = result of expression node b, taken as a condition */
+	public static final int BEVAL = 22;
+
+	// entity registers
+
+	/** e[a] = null */
+	public static final int ENULL = 23;
+	/** e[a] = performing worm */
+	public static final int ESELF = 24;
+	/** e[a] = entity variable in slot b */
+	public static final int ELOAD = 25;
+	/** entity variable in slot a = e[b], unless e[b] is null */
+	public static final int ESTORE = 26;
+	/** e[a] = nearest object in the direction of the performing worm turned by d[b] */
+	public static final int ESEARCH = 27;
+	/** e[a] = result of expression node b */
+	public static final int EEVAL = 28;
+
+	// actions
+
+	/** turn by d[a], or suspend to resume at b */
+	public static final int TURN = 29;
+	/** move, or suspend to resume at b */
+	public static final int MOVE = 30;
+	/** jump, or suspend to resume at b */
+	public static final int JUMP = 31;
+	/** select the next weapon */
+	public static final int TOGGLE = 32;
+	/** fire with yield d[a], or suspend to resume at b */
+	public static final int FIRE = 33;
+	/** print d[a] */
+	public static final int PRINTD = 34;
+	/** print b[a] */
+	public static final int PRINTB = 35;
+	/** print e[a] */
+	public static final int PRINTE = 36;
+	/** execute statement node a, or suspend to resume at b if it fails; suspend to resume
+	 * at the next instruction if the program has no instructions left */
+	public static final int EXEC = 37;
+
+	// control
+
+	/** count one executed statement, and suspend to resume at the next instruction if the
+	 * program has no instructions left */
+	public static final int COUNT = 38;
+	/** continue at a */
+	public static final int GOTO = 39;
+	/** continue at b if not b[a] */
+	public static final int GOTO_IF_FALSE = 40;
+	/** stop a statement that is missing */
+	public static final int FAIL = 41;
+	/** suspend to resume at a */
+	public static final int SUSPEND = 42;
+	/** end the program, to start it again from the start */
+	public static final int RETURN = 43;
+}
@@ -0,0 +1,286 @@
+package worms.model.programs.bytecode;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.model.BallisticObject;
+import worms.model.Program;
+import worms.model.Worm;
+import worms.model.programs.expressions.Expression;
+import worms.model.programs.expressions.SearchObject;
+import worms.model.programs.statements.Statement;
+import worms.model.programs.types.DoubleType;
+import worms.util.Util;
+
+/**
+ * A class of virtual machines involving bytecode, registers and a resume point.
+ * 	A virtual machine executes its bytecode for one program, one turn at a time. A turn
+ * 	ends when the program ends, when an action fails or when the program has no
+ * 	instructions left for this turn. In the latter cases the program is suspended, and
+ * 	its next turn resumes at the statement of that action or at the next instruction:
+ * 	statements that were completed are not executed again. A program that ended starts
+ * 	again from the start in its next turn.
+ *
+ * @invar	The bytecode of each virtual machine is effective.
+ * 			| getBytecode() != null
+ *
+ * @version 2.0
+ * @author Mathias Van Herreweghe, Bachelor Informatics, https://github.com/mathiasvh/worms
+ *
+ */
+public class VirtualMachine {
+
+	/**
+	 * Initialize this new virtual machine with given bytecode.
+	 *
+	 * @param	bytecode
+	 * 			The bytecode for this new virtual machine.
+	 * @post	The bytecode of this new virtual machine is equal to the given bytecode.
+	 * 			| new.getBytecode() == bytecode
+	 * @throws	IllegalArgumentException
+	 * 			The given bytecode is not effective.
+	 * 			| bytecode == null
+	 */
+	public VirtualMachine(Bytecode bytecode) throws IllegalArgumentException {
+		if (bytecode == null)
+			throw new IllegalArgumentException("Non-effective bytecode");
+		this.bytecode = bytecode;
+		this.doubles = new double[bytecode.getNbDoubleRegisters()];
+		this.bools = new boolean[bytecode.getNbBoolRegisters()];
+		this.entities = new BallisticObject[bytecode.getNbEntityRegisters()];
+	}
+
+	/**
+	 * Return the bytecode of this virtual machine.
+	 */
+	@Basic
+	@Immutable
+	public Bytecode getBytecode() {
+		return this.bytecode;
+	}
+
+	/**
+	 * Variable registering the bytecode of this virtual machine.
+	 */
+	private final Bytecode bytecode;
+
+	/**
+	 * Variables registering the double, boolean and entity registers of this virtual machine.
+	 */
+	private final double[] doubles;
+	private final boolean[] bools;
+	private final BallisticObject[] entities;
+
+	/**
+	 * Return the position in the code of this virtual machine at which its next turn starts.
+	 */
+	@Basic
+	public int getResumePoint() {
+		return this.resumePoint;
+	}
+
+	/**
+	 * Variable registering the position in the code at which the next turn starts.
+	 */
+	private int resumePoint = 0;
+
+	/**
+	 * Execute the bytecode of this virtual machine for the given program from its resume
+	 * 	point, until it ends, an action fails or it has no instructions left.
+	 *
+	 * @param	program
+	 * 			The program for which the bytecode is executed.
+	 * @return	True if and only if the bytecode was executed to the end.
+	 */
+	public boolean execute(Program program) {
+		final int[] code = bytecode.getCode();
+		final double[] constants = bytecode.getConstants();
+		final Object[] nodes = bytecode.getNodes();
+		final double[] d = doubles;
+		final boolean[] b = bools;
+		final BallisticObject[] e = entities;
+		int pc = resumePoint;
+		while (true) {
+			final int x = code[pc + 1];
+			final int y = code[pc + 2];
+			final int z = code[pc + 3];
+			switch (code[pc]) {
+			case Opcode.DCONST:
+				d[x] = constants[y];
+				break;
+			case Opcode.DLOAD:
+				d[x] = program.getDouble(y);
+				break;
+			case Opcode.DSTORE:
+				program.setDouble(x, d[y]);
+				break;
+			case Opcode.DADD:
+				d[x] = clamp(d[y] + d[z]);
+				break;
+			case Opcode.DSUB:
+				d[x] = clamp(d[y] - d[z]);
+				break;
+			case Opcode.DMUL:
+				d[x] = clamp(d[y] * d[z]);
+				break;
+			case Opcode.DDIV:
+				d[x] = clamp(d[y] / d[z]);
+				break;
+			case Opcode.DSQRT:
+				final double root = Math.sqrt(d[y]);
+				d[x] = Double.isInfinite(root) ? 0.0 : root;
+				break;
+			case Opcode.DGETX:
+				d[x] = e[y].getVector().getPosition().getX();
+				break;
+			case Opcode.DGETY:
+				d[x] = e[y].getVector().getPosition().getY();
+				break;
+			case Opcode.DGETRADIUS:
+				d[x] = e[y].getRadius();
+				break;
+			case Opcode.DEVAL:
+				d[x] = ((Expression) nodes[y]).evalDouble(program);
+				break;
+			case Opcode.BCONST:
+				b[x] = (y != 0);
+				break;
+			case Opcode.BLOAD:
+				b[x] = program.getBool(y);
+				break;
+			case Opcode.BSTORE:
+				program.setBool(x, b[y]);
+				break;
+			case Opcode.DLT:
+				b[x] = d[y] < d[z];
+				break;
+			case Opcode.DGT:
+				b[x] = d[y] > d[z];
+				break;
+			case Opcode.DLE:
+				b[x] = Util.fuzzyLessThanOrEqualTo(d[y], d[z]);
+				break;
+			case Opcode.DGE:
+				b[x] = Util.fuzzyGreaterThanOrEqualTo(d[y], d[z]);
+				break;
+			case Opcode.DNE:
+				b[x] = Double.compare(d[y], d[z]) != 0;
+				break;
+			case Opcode.BNE:
+				b[x] = b[y] != b[z];
+				break;
+			case Opcode.ENE:
+				b[x] = e[y] != null && e[z] != null && e[y] != e[z];
+				break;
+			case Opcode.BEVAL:
+				b[x] = ((Expression) nodes[y]).evalBool(program);
+				break;
+			case Opcode.ENULL:
+				e[x] = null;
+				break;
+			case Opcode.ESELF:
+				e[x] = program.getPerformingWorm();
+				break;
+			case Opcode.ELOAD:
+				e[x] = program.getEntity(y);
+				break;
+			case Opcode.ESTORE:
+				if (e[y] != null)
+					program.setEntity(x, e[y]);
+				break;
+			case Opcode.ESEARCH:
+				e[x] = SearchObject.search(program, d[y]);
+				break;
+			case Opcode.EEVAL:
+				e[x] = ((Expression) nodes[y]).evalEntity(program);
+				break;
+			case Opcode.TURN:
+				final Worm turning = program.getPerformingWorm();
+				if (!turning.canTurn(d[x]))
+					return suspend(y);
+				program.getHandler().turn(turning, d[x]);
+				break;
+			case Opcode.MOVE:
+				final Worm moving = program.getPerformingWorm();
+				if (!moving.canMove())
+					return suspend(y);
+				program.getHandler().move(moving);
+				break;
+			case Opcode.JUMP:
+				final Worm jumping = program.getPerformingWorm();
+				if (!jumping.canJump())
+					return suspend(y);
+				program.getHandler().jump(jumping);
+				break;
+			case Opcode.TOGGLE:
+				program.getHandler().toggleWeapon(program.getPerformingWorm());
+				break;
+			case Opcode.FIRE:
+				final Worm firing = program.getPerformingWorm();
+				if (!firing.canShoot())
+					return suspend(y);
+				program.getHandler().fire(firing, DoubleType.toInt(d[x]));
+				break;
+			case Opcode.PRINTD:
+				System.out.println(d[x]);
+				break;
+			case Opcode.PRINTB:
+				System.out.println(b[x]);
+				break;
+			case Opcode.PRINTE:
+				System.out.println(e[x]);
+				break;
+			case Opcode.EXEC:
+				if (!((Statement) nodes[x]).execute(program))
+					return suspend(y);
+				if (!program.hasInstructionsLeft())
+					return suspend(pc + Opcode.WIDTH);
+				break;
+			case Opcode.COUNT:
+				program.incrementInstructionNb();
+				if (!program.hasInstructionsLeft())
+					return suspend(pc + Opcode.WIDTH);
+				break;
+			case Opcode.GOTO:
+				pc = x;
+				continue;
+			case Opcode.GOTO_IF_FALSE:
+				if (!b[x]) {
+					pc = y;
+					continue;
+				}
+				break;
+			case Opcode.FAIL:
+				throw new NullPointerException("Missing statement");
+			case Opcode.SUSPEND:
+				return suspend(x);
+			case Opcode.RETURN:
+				resumePoint = 0;
+				return true;
+			default:
+				throw new IllegalStateException("Illegal opcode " + code[pc]);
+			}
+			pc += Opcode.WIDTH;
+		}
+	}
+
+	/**
+	 * Suspend the execution of the bytecode of this virtual machine, to resume it at the
+	 * 	given position.
+	 *
+	 * @return	False.
+	 */
+	private boolean suspend(int position) {
+		resumePoint = position;
+		return false;
+	}
+
+	/**
+	 * Return the given value, or the largest double if the given value lies outside the
+	 * 	range of finite doubles, as the arithmetic expressions do.
+	 */
+	private static double clamp(double value) {
+		if (value > Double.MAX_VALUE || value < -Double.MAX_VALUE)
+			return Double.MAX_VALUE;
+		return value;
+	}
+}
@@ -28,5 +28,10 @@ public class BoolLiteral extends Expression {
 		return getResult();
 	}
 
+	@Override
+	public boolean evalBool(Program program) {
+		return this.value.getValue();
+	}
+
 	private BoolType value;
 }
@@ -11,24 +11,30 @@ public class Division extends Expression {
 		this.e2 = (DoubleLiteral) e2;
 	}
 
+	public DoubleLiteral getFirstOperand() {
+		return this.e1;
+	}
+
+	public DoubleLiteral getSecondOperand() {
+		return this.e2;
+	}
+
 	private DoubleLiteral e1;
 
 	private DoubleLiteral e2;
 
 	@Override
 	public DoubleLiteral getValue(Program program) {
-		return calculate(program);
+		return new DoubleLiteral(new DoubleType(evalDouble(program)), getLine(), getColumn());
 	}
 
 	@Override
 	public Double getResult(Program program) {
-		return calculate(program).getResult();
+		return evalDouble(program);
 	}
 	
-	private DoubleLiteral calculate(Program program) {
-		if ((e1.getResult() / e2.getResult() > Double.MAX_VALUE)
-				|| (e1.getResult() / e2.getResult() < -(Double.MAX_VALUE)))
-			return new DoubleLiteral(new DoubleType(Double.MAX_VALUE), getLine(), getColumn());
-		return new DoubleLiteral(new DoubleType(e1.getResult() / e2.getResult()), getLine(), getColumn());
+	@Override
+	public double evalDouble(Program program) {
+		return clamp(e1.getResult() / e2.getResult());
 	}
 }
\ No newline at end of file
@@ -34,5 +34,10 @@ public class DoubleLiteral extends Expression {
 		return this.value.getValue();
 	}
 
+	@Override
+	public double evalDouble(Program program) {
+		return this.value.getValue();
+	}
+
 	private DoubleType value;
 }
@@ -25,5 +25,10 @@ public class EntityExpression extends Expression {
 		return getResult();
 	}
 
+	@Override
+	public BallisticObject evalEntity(Program program) {
+		return this.value.getValue();
+	}
+
 	private final EntityType value;
 }
@@ -1,6 +1,5 @@
 package worms.model.programs.expressions;
 
-import worms.model.Entity;
 import worms.model.Program;
 import worms.model.programs.types.*;
 
@@ -12,28 +11,36 @@ public class Equality extends Expression {
 		this.e2 = e2;
 	}
 
+	public Expression getFirstOperand() {
+		return this.e1;
+	}
+
+	public Expression getSecondOperand() {
+		return this.e2;
+	}
+
 	private Expression e1;
 
 	private Expression e2;
 
 	@Override
 	public BoolLiteral getValue(Program program) {
-		return calculate(program);
+		return new BoolLiteral(new BoolType(evalBool(program)), getLine(), getColumn());
 	}
 	
 	@Override
 	public Boolean getResult(Program program) {
-		return calculate(program).getResult();
+		return evalBool(program);
 	}
 	
-	private BoolLiteral calculate(Program program) {
-		if (e1 instanceof DoubleLiteral && e2 instanceof DoubleLiteral) {		
-			return new BoolLiteral(new BoolType(((Double) e1.getResult(program)).compareTo((Double) e2.getResult(program)) == 0), getLine(), getColumn());
-		} else if (e1 instanceof BoolLiteral && e2 instanceof BoolLiteral) {	
-			return new BoolLiteral(new BoolType(((Boolean) e1.getResult(program)).compareTo((Boolean) e2.getResult(program)) == 0), getLine(), getColumn());
-		} else if (e1 instanceof EntityExpression && e2 instanceof EntityExpression) {		
-			return new BoolLiteral(new BoolType((Entity) e1.getResult(program) == (Entity) e2.getResult(program)), getLine(), getColumn());
-		}
-		return new BoolLiteral(new BoolType(false), getLine(), getColumn());
+	@Override
+	public boolean evalBool(Program program) {
+		if (e1 instanceof DoubleLiteral && e2 instanceof DoubleLiteral)
+			return Double.compare(e1.evalDouble(program), e2.evalDouble(program)) == 0;
+		else if (e1 instanceof BoolLiteral && e2 instanceof BoolLiteral)
+			return e1.evalBool(program) == e2.evalBool(program);
+		else if (e1 instanceof EntityExpression && e2 instanceof EntityExpression)
+			return e1.evalEntity(program) == e2.evalEntity(program);
+		return false;
 	}
 }
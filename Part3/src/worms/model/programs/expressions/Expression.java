@@ -1,5 +1,6 @@
 package worms.model.programs.expressions;
 
+import worms.model.BallisticObject;
 import worms.model.Program;
 
 public abstract class Expression {
@@ -25,4 +26,29 @@ public abstract class Expression {
 
 	public abstract Object getResult(Program program);
 
+	// Typed evaluation: each expression overrides the method of its own type, so its value
+	// is computed without boxing; the others take its result as the callers used to.
+
+	public double evalDouble(Program program) {
+		return (Double) getResult(program);
+	}
+
+	public boolean evalBool(Program program) {
+		final Object result = getResult(program);
+		if (result instanceof BoolLiteral)
+			return ((BoolLiteral) result).getResult();
+		return (Boolean) result;
+	}
+
+	public BallisticObject evalEntity(Program program) {
+		return (BallisticObject) getResult(program);
+	}
+
+	// The largest double stands in for results outside the range of finite doubles.
+	protected static double clamp(double value) {
+		if (value > Double.MAX_VALUE || value < -Double.MAX_VALUE)
+			return Double.MAX_VALUE;
+		return value;
+	}
+
 }
@@ -10,6 +10,10 @@ public class GetDir extends Expression {
 		this.entity = (EntityExpression) entity;
 	}
 
+	public EntityExpression getEntity() {
+		return this.entity;
+	}
+
 	@Override
 	public EntityExpression getValue(Program program) {
 		return entity;
@@ -26,5 +30,10 @@ public class GetDir extends Expression {
 		return getResult();
 	}
 
+	@Override
+	public double evalDouble(Program program) {
+		return entity.getResult().getVector().getDirection();
+	}
+
 	private final EntityExpression entity;
 }
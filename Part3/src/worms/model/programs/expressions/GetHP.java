@@ -10,6 +10,10 @@ public class GetHP extends Expression {
 		this.entity = (EntityExpression) entity;
 	}
 
+	public EntityExpression getEntity() {
+		return this.entity;
+	}
+
 	@Override
 	public EntityExpression getValue(Program program) {
 		return entity;
@@ -10,6 +10,10 @@ public class GetRadius extends Expression {
 		this.entity = entity;
 	}
 
+	public Expression getEntity() {
+		return this.entity;
+	}
+
 	@Override
 	public Expression getValue(Program program) {
 		return entity;
@@ -22,5 +26,10 @@ public class GetRadius extends Expression {
 		return ((BallisticObject) entity.getResult(program)).getRadius();
 	}
 
+	@Override
+	public double evalDouble(Program program) {
+		return entity.evalEntity(program).getRadius();
+	}
+
 	private final Expression entity;
 }
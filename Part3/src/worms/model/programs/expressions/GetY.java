@@ -9,6 +9,10 @@ public class GetY extends Expression {
 		super(line, column);			
 		this.entity = entity;
 	}
+
+	public Expression getEntity() {
+		return this.entity;
+	}
 	
 	@Override
 	public Expression getValue(Program program) {
@@ -21,6 +25,11 @@ public class GetY extends Expression {
 			return null;
 		return ((BallisticObject) entity.getResult(program)).getVector().getPosition().getY();
 	}
+
+	@Override
+	public double evalDouble(Program program) {
+		return entity.evalEntity(program).getVector().getPosition().getY();
+	}
 	
 	private final Expression entity;
 }
@@ -12,28 +12,39 @@ public class InEquality extends Expression {
 			this.e2 = e2;
 		}
 
+		public Expression getFirstOperand() {
+			return this.e1;
+		}
+
+		public Expression getSecondOperand() {
+			return this.e2;
+		}
+
 		private Expression e1;
 
 		private Expression e2;
 
 		@Override
 		public BoolLiteral getValue(Program program) {
-			return execute(program);
+			return new BoolLiteral(new BoolType(evalBool(program)), getLine(), getColumn());
 		}
 		
 		@Override
 		public Boolean getResult(Program program) {
-			return execute(program).getResult();
+			return evalBool(program);
 		}
 		
-		private BoolLiteral execute(Program program) {
-			if (e1.getResult(program) instanceof Double && e2.getResult(program) instanceof Double) {		
-				return new BoolLiteral(new BoolType(((Double) e1.getResult(program)).compareTo((Double) e2.getResult(program)) != 0), getLine(), getColumn());
-			} else if (e1.getResult(program) instanceof Boolean && e2.getResult(program) instanceof Boolean) {	
-				return new BoolLiteral(new BoolType(((Boolean) e1.getResult(program)).compareTo((Boolean) e2.getResult(program)) != 0), getLine(), getColumn());
-			} else if (e1.getResult(program) instanceof Entity && e2.getResult(program) instanceof Entity) {		
-				return new BoolLiteral(new BoolType(!(e1.getResult(program) == e2.getResult(program))), getLine(), getColumn());
-			}
-			return new BoolLiteral(new BoolType(false), getLine(), getColumn());
+		@Override
+		public boolean evalBool(Program program) {
+			// the operands have no known type, so their results are compared as they are
+			final Object first = e1.getResult(program);
+			final Object second = e2.getResult(program);
+			if (first instanceof Double && second instanceof Double)
+				return ((Double) first).compareTo((Double) second) != 0;
+			else if (first instanceof Boolean && second instanceof Boolean)
+				return ((Boolean) first).compareTo((Boolean) second) != 0;
+			else if (first instanceof Entity && second instanceof Entity)
+				return first != second;
+			return false;
 		}
 	}
\ No newline at end of file
@@ -10,6 +10,10 @@ public class IsWorm extends Expression {
 		super(line, column);
 		this.entity = (EntityExpression) e;
 	}
+
+	public EntityExpression getEntity() {
+		return this.entity;
+	}
 	
 	@Override
 	public BoolLiteral getValue(Program program) {
@@ -18,11 +22,16 @@ public class IsWorm extends Expression {
 	
 	@Override
 	public Boolean getResult(Program program) {
-		return execute(program).getResult();
+		return evalBool(program);
 	}
 	
 	private BoolLiteral execute(Program program) {
-		return new BoolLiteral(new BoolType(this.entity.getResult() instanceof Worm), getLine(), getColumn());
+		return new BoolLiteral(new BoolType(evalBool(program)), getLine(), getColumn());
+	}
+
+	@Override
+	public boolean evalBool(Program program) {
+		return this.entity.getResult() instanceof Worm;
 	}
 	
 	private EntityExpression entity;
@@ -10,6 +10,14 @@ public class LessThan extends Expression {
 		this.e1 = e1;
 		this.e2 = e2;
 	}
+
+	public Expression getFirstOperand() {
+		return this.e1;
+	}
+
+	public Expression getSecondOperand() {
+		return this.e2;
+	}
 	
 	private Expression e1;
 	
@@ -17,18 +25,17 @@ public class LessThan extends Expression {
 
 	@Override
 	public BoolLiteral getValue(Program program) {
-		return execute(program);
+		return new BoolLiteral(new BoolType(evalBool(program)), getLine(), getColumn());
 	}
 	
 	@Override
 	public Boolean getResult(Program program) {
-		return execute(program).getResult();
+		return evalBool(program);
 	}
 	
-	private BoolLiteral execute(Program program) {
-		if (!(e1.getResult(program) instanceof Double && e2.getResult(program) instanceof Double))
-			return null;
-		return new BoolLiteral(new BoolType((Double) e1.getResult(program) < (Double) e2.getResult(program)), getLine(), getColumn());
+	@Override
+	public boolean evalBool(Program program) {
+		return e1.evalDouble(program) < e2.evalDouble(program);
 	}
 
 }
@@ -11,26 +11,30 @@ public class Multiply extends Expression {
 		this.e2 = e2;
 	}
 
+	public Expression getFirstOperand() {
+		return this.e1;
+	}
+
+	public Expression getSecondOperand() {
+		return this.e2;
+	}
+
 	private Expression e1;
 
 	private Expression e2;
 
 	@Override
 	public DoubleLiteral getValue(Program program) {
-		return execute(program);
+		return new DoubleLiteral(new DoubleType(evalDouble(program)), getLine(), getColumn());
 	}
 	
 	@Override
 	public Double getResult(Program program) {
-		return execute(program).getResult();
+		return evalDouble(program);
 	}
 	
-	private DoubleLiteral execute(Program program) {
-		if (!(e1.getResult(program) instanceof Double && e2.getResult(program) instanceof Double))
-			return null;
-		if (((Double) e1.getResult(program) * (Double) e2.getResult(program) > Double.MAX_VALUE) || 
-				((Double) e1.getResult(program) * (Double) e2.getResult(program) < -(Double.MAX_VALUE)))
-			return new DoubleLiteral(new DoubleType(Double.MAX_VALUE), getLine(), getColumn());
-		return new DoubleLiteral(new DoubleType((Double) e1.getResult(program) * (Double) e2.getResult(program)), getLine(), getColumn());
+	@Override
+	public double evalDouble(Program program) {
+		return clamp(e1.evalDouble(program) * e2.evalDouble(program));
 	}
 }
@@ -1,5 +1,6 @@
 package worms.model.programs.expressions;
 
+import worms.model.BallisticObject;
 import worms.model.Program;
 
 public class NullLiteral extends Expression {
@@ -22,4 +23,9 @@ public class NullLiteral extends Expression {
 		return getResult();
 	}
 
+	@Override
+	public BallisticObject evalEntity(Program program) {
+		return null;
+	}
+
 }
@@ -18,4 +18,9 @@ public class SelfWormExpression extends Expression {
 	public Worm getResult(Program program) {
 		return program.getPerformingWorm();
 	}
+
+	@Override
+	public Worm evalEntity(Program program) {
+		return program.getPerformingWorm();
+	}
 }
@@ -10,23 +10,25 @@ public class Sqrt extends Expression {
 		this.e = e;
 	}
 
+	public Expression getOperand() {
+		return this.e;
+	}
+
 	private Expression e;
 
 	@Override
 	public DoubleLiteral getValue(Program program) {
-		return execute(program);
+		return new DoubleLiteral(new DoubleType(evalDouble(program)), getLine(), getColumn());
 	}
 	
 	@Override
 	public Double getResult(Program program) {
-		return execute(program).getResult();
+		return evalDouble(program);
 	}
 	
-	private DoubleLiteral execute(Program program) {
-		if (!(e.getResult(program) instanceof Double))
-			return null;
-		if (Double.isInfinite(Math.sqrt((Double) e.getResult(program))))
-			return new DoubleLiteral(new DoubleType(0.0), getLine(), getColumn());
-		return new DoubleLiteral(new DoubleType(Math.sqrt((Double) e.getResult(program))), getLine(), getColumn());
+	@Override
+	public double evalDouble(Program program) {
+		final double root = Math.sqrt(e.evalDouble(program));
+		return Double.isInfinite(root) ? 0.0 : root;
 	}
 }
\ No newline at end of file
@@ -1,15 +1,27 @@
 package worms.model.programs.expressions;
 
-import worms.model.Program;
 import worms.model.*;
 import worms.model.programs.types.*;
 
 public class VariableAccess extends Expression {
 
-	public VariableAccess(String n, Type t, int line, int column) {
+	public VariableAccess(String n, Type t, int slot, int line, int column) {
 		super(line, column);
 		this.name = n;
 		this.type = t;
+		this.slot = slot;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public Type getType() {
+		return this.type;
+	}
+
+	public int getSlot() {
+		return this.slot;
 	}
 
 	@Override
@@ -30,23 +42,35 @@ public class VariableAccess extends Expression {
 		return execute(program);
 	}
 	
+	@Override
+	public double evalDouble(Program program) {
+		if (type instanceof DoubleType)
+			return program.getDouble(slot);
+		return super.evalDouble(program);
+	}
+
+	@Override
+	public boolean evalBool(Program program) {
+		if (type instanceof BoolType)
+			return program.getBool(slot);
+		return super.evalBool(program);
+	}
+
+	@Override
+	public BallisticObject evalEntity(Program program) {
+		if (type instanceof EntityType)
+			return program.getEntity(slot);
+		return super.evalEntity(program);
+	}
+	
 	private Object execute(Program program) {
-		if (type instanceof DoubleType) {
-			if (program.getDoubles().containsKey(name))
-				return program.getDoubles().get(name).getResult();
-			else
-				return new Double(0.0);
-		} else if (type instanceof BoolType) {
-			if (program.getBools().containsKey(name))
-				return program.getBools().get(name).getResult();
-			else
-				return new Boolean(false);
-		} else if (type instanceof EntityType) {
-			if (program.getEntities().containsKey(name))
-				return program.getEntities().get(name).getResult();
-			else
-				return new Worm(null, 0, null, null, program);
-		} else
+		if (type instanceof DoubleType)
+			return program.getDouble(slot);
+		else if (type instanceof BoolType)
+			return program.getBool(slot);
+		else if (type instanceof EntityType)
+			return program.getEntity(slot);
+		else
 			return null;
 	}
 
@@ -54,4 +78,6 @@ public class VariableAccess extends Expression {
 
 	private Type type;
 
+	private int slot;
+
 }
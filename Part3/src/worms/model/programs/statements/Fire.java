@@ -12,11 +12,15 @@ public class Fire extends Statement {
 		this.yield = (DoubleLiteral) yield;
 	}
 
+	public DoubleLiteral getYield() {
+		return this.yield;
+	}
+
 	@Override
 	public boolean execute(Program program) {
 		if (!program.getPerformingWorm().canShoot())
 			return false;
-		program.getHandler().fire(program.getPerformingWorm(), DoubleType.toInt(yield.getResult(program)));
+		program.getHandler().fire(program.getPerformingWorm(), DoubleType.toInt(yield.evalDouble(program)));
 		super.afterExecution(program);
 		return true;
 	}
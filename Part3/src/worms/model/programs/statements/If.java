@@ -12,14 +12,22 @@ public class If extends Statement {
 		this.otherwise = otherwise;
 	}
 
+	public Expression getCondition() {
+		return this.condition;
+	}
+
+	public Statement getThen() {
+		return this.then;
+	}
+
+	public Statement getOtherwise() {
+		return this.otherwise;
+	}
+
 	public boolean execute(Program program) {
 		if (condition == null || then == null || otherwise == null)
 			return false; // Backup plan for unimplemented methods (one-person group left-outs)
-		boolean myCondition;
-		if (condition.getResult(program) instanceof BoolLiteral)
-			myCondition = ((BoolLiteral) condition.getResult(program)).getResult();
-		else
-			myCondition = (Boolean) condition.getResult(program);
+		final boolean myCondition = condition.evalBool(program);
 
 		if (cancelled == null){
 			if (myCondition) {
@@ -10,6 +10,10 @@ public class Print extends Statement {
 		this.e = e;
 	}
 
+	public Expression getExpression() {
+		return this.e;
+	}
+
 	@Override
 	public boolean execute(Program program) {
 		System.out.println(e.getResult(program));
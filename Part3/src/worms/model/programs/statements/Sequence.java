@@ -11,6 +11,10 @@ public class Sequence extends Statement {
 		this.statements = statements;
 	}
 
+	public List<Statement> getStatements() {
+		return this.statements;
+	}
+
 	private List<Statement> statements;
 
 	@Override
@@ -10,11 +10,16 @@ public class Turn extends Statement {
 		this.angle = angle;
 	}
 
+	public Expression getAngle() {
+		return this.angle;
+	}
+
 	@Override
 	public boolean execute(Program program) {
-		if (!program.getPerformingWorm().canTurn(((Double) angle.getResult(program))))
+		final double theta = angle.evalDouble(program);
+		if (!program.getPerformingWorm().canTurn(theta))
 			return false;
-		program.getHandler().turn(program.getPerformingWorm(), (Double) angle.getResult(program));
+		program.getHandler().turn(program.getPerformingWorm(), theta);
 		super.afterExecution(program);
 		return true;
 	}
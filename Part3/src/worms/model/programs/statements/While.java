@@ -11,6 +11,14 @@ public class While extends Statement {
 		this.body = body;
 	}
 
+	public Expression getCondition() {
+		return this.condition;
+	}
+
+	public Statement getBody() {
+		return this.body;
+	}
+
 	@Override
 	public boolean execute(Program program) {
 		finishedNestedStatement = true;
@@ -25,10 +33,7 @@ public class While extends Statement {
 	}
 
 	private boolean checkCondition(Program program) {
-		if (condition.getResult(program) instanceof BoolLiteral)
-			return ((BoolLiteral) condition.getResult(program)).getResult();
-		else
-			return (Boolean) condition.getResult(program);
+		return condition.evalBool(program);
 	}
 
 	private Expression condition;
@@ -0,0 +1,195 @@
+package worms.headless;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.model.Facade;
+import worms.model.IFacade;
+import worms.model.Program;
+import worms.model.TestSupport;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.statements.Statement;
+import worms.model.programs.types.Type;
+
+public class TurnSchedulerTest {
+
+	private IFacade facade;
+
+	private HeadlessActionHandler handler;
+
+	private Random random;
+
+	@Before
+	public void setup() {
+		facade = new Facade();
+		handler = new HeadlessActionHandler(facade);
+		random = new Random(7357);
+	}
+
+	// the programs parsed so far, in order
+	private List<Program> programs = new ArrayList<Program>();
+
+	private Program parse(String text) {
+		Program program = TestSupport.parse(facade, text, handler);
+		programs.add(program);
+		return program;
+	}
+
+	private World createWorld(List<Worm> worms, String... programTexts) {
+		World world = TestSupport.createFlatWorld(facade, random);
+		for (int i = 0; i < programTexts.length; i++)
+			worms.add(facade.createWorm(world, 20.0 + 30.0 * i, 50.51, 0, 0.5,
+					"Worm " + (i + 1), parse(programTexts[i])));
+		world.setProgramsScheduled(true);
+		return world;
+	}
+
+	@Test
+	public void testPlayTurnsOrder() {
+		String jumper = "turn 0.1; jump; turn 0.1;";
+		List<Worm> worms = new ArrayList<Worm>();
+		World world = createWorld(worms, jumper, jumper, jumper);
+		world.startGame();
+		for (int turn = 1; turn <= 10; turn++) {
+			assertEquals(turn, world.getTurnNumber());
+			assertSame(worms.get((turn - 1) % 3), world.getCurrentWorm());
+			assertTrue(facade.getActionPoints(world.getCurrentWorm()) > 0);
+			TurnScheduler.playTurns(world, 1);
+		}
+	}
+
+	/**
+	 * A statement that removes the worm performing it from its world.
+	 */
+	private static class Suicide extends Statement {
+
+		public Suicide() {
+			super(-1, -1);
+		}
+
+		@Override
+		public boolean execute(Program program) {
+			Worm worm = program.getPerformingWorm();
+			worm.getWorld().terminate(worm);
+			afterExecution(program);
+			return true;
+		}
+	}
+
+	@Test
+	public void testPlayTurnsCurrentWormRemoved() {
+		String turner = "turn 0.1;";
+		List<Worm> worms = new ArrayList<Worm>();
+		World world = createWorld(worms, turner, turner, turner);
+		Program suicide = new Program(handler, new Suicide(), new HashMap<String, Type>(),
+				new ArrayList<String>(), "");
+		Worm removed = facade.createWorm(world, 95.0, 50.51, 0, 0.5, "Removed", suicide);
+		world.startGame();
+		for (int turn = 1; turn <= 3; turn++)
+			TurnScheduler.playTurns(world, 1);
+		assertSame(removed, world.getCurrentWorm());
+		assertEquals(4, world.getTurnNumber());
+		// the successor of the removed worm gets a turn of its own, with all its action points
+		worms.get(0).useActionPoints(1);
+		TurnScheduler.playTurns(world, 1);
+		assertFalse(world.getWorms().contains(removed));
+		assertEquals(5, world.getTurnNumber());
+		assertSame(worms.get(0), world.getCurrentWorm());
+		assertEquals(facade.getMaxActionPoints(worms.get(0)), facade.getActionPoints(worms.get(0)));
+		assertEquals(0.1, facade.getOrientation(worms.get(0)), 1e-10);
+		TurnScheduler.playTurns(world, 1);
+		assertEquals(6, world.getTurnNumber());
+		assertSame(worms.get(1), world.getCurrentWorm());
+		assertEquals(0.2, facade.getOrientation(worms.get(0)), 1e-10);
+	}
+
+	private List<World> createWorlds(List<List<Worm>> worms, long turnLimit,
+			String[][] programTexts) {
+		List<World> worlds = new ArrayList<World>();
+		for (String[] texts : programTexts) {
+			List<Worm> wormsOfWorld = new ArrayList<Worm>();
+			World world = createWorld(wormsOfWorld, texts);
+			world.setTurnLimit(turnLimit);
+			worlds.add(world);
+			worms.add(wormsOfWorld);
+		}
+		return worlds;
+	}
+
+	@Test
+	public void testPlayFinishesAllWorlds() {
+		String turner = "turn 0.1; turn -0.05;";
+		String looper = "while (true) do { skip; }";
+		String mover = "turn 3.1; move;";
+		String[][] programTexts = new String[][] { { turner, looper },
+				{ looper, looper, looper }, { mover, turner }, { turner, turner },
+				{ mover, looper, turner }, { looper, mover } };
+		List<List<Worm>> worms = new ArrayList<List<Worm>>();
+		List<World> worlds = createWorlds(worms, 12, programTexts);
+		int nbPrograms = programs.size();
+		long[] times = new TurnScheduler(3, 2).play(worlds);
+		assertEquals(worlds.size(), times.length);
+		// the same games, each played on its own
+		List<List<Worm>> expectedWorms = new ArrayList<List<Worm>>();
+		List<World> expectedWorlds = createWorlds(expectedWorms, 12, programTexts);
+		for (World world : expectedWorlds) {
+			world.startGame();
+			assertTrue(TurnScheduler.playTurns(world, Long.MAX_VALUE));
+		}
+		for (int i = 0; i < worlds.size(); i++) {
+			assertTrue(worlds.get(i).isGameFinished());
+			assertTrue(times[i] >= 0);
+			assertEquals(12, worlds.get(i).getTurnNumber());
+			for (int j = 0; j < worms.get(i).size(); j++) {
+				Worm worm = worms.get(i).get(j);
+				Worm expected = expectedWorms.get(i).get(j);
+				assertEquals(facade.getOrientation(expected), facade.getOrientation(worm), 1e-10);
+				assertEquals(facade.getX(expected), facade.getX(worm), 1e-10);
+				assertEquals(facade.getY(expected), facade.getY(worm), 1e-10);
+				assertEquals(facade.getActionPoints(expected), facade.getActionPoints(worm));
+			}
+		}
+		for (int k = 0; k < nbPrograms; k++)
+			assertEquals(programs.get(nbPrograms + k).getInstructionNb(),
+					programs.get(k).getInstructionNb());
+	}
+
+	@Test
+	public void testPlayRethrowsFailure() {
+		String turner = "turn 0.1; turn -0.05;";
+		// the parser leaves the operators it does not support out
+		String failer = "print (true && false);";
+		String[][] programTexts = new String[][] { { turner, turner },
+				{ turner, failer }, { turner, turner }, { turner, turner } };
+		List<List<Worm>> worms = new ArrayList<List<Worm>>();
+		List<World> worlds = createWorlds(worms, 12, programTexts);
+		try {
+			new TurnScheduler(2, 1).play(worlds);
+			fail("The failure of a game should be rethrown");
+		} catch (NullPointerException exc) {
+		}
+		// the other games were played on
+		for (int i = 0; i < worlds.size(); i++) {
+			if (i == 1) {
+				assertFalse(worlds.get(i).isGameFinished());
+				assertEquals(2, worlds.get(i).getTurnNumber());
+			} else {
+				assertTrue(worlds.get(i).isGameFinished());
+				assertEquals(12, worlds.get(i).getTurnNumber());
+			}
+		}
+	}
+
+}
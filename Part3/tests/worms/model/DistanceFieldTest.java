@@ -0,0 +1,85 @@
+package worms.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks the distances of a distance field against looking at all cells, and that
+ * worlds on the same passable map share their distance field.
+ */
+public class DistanceFieldTest {
+
+	/**
+	 * Return the distance between the centers of the given cell and the nearest cell of
+	 * the other kind, on the given map surrounded by a border of impassable cells.
+	 */
+	private double searchDistance(PassableMap map, int col, int row, double widthScale,
+			double heightScale) {
+		boolean passable = map.isPassable(col, row);
+		double result = Double.POSITIVE_INFINITY;
+		for (int otherRow = -1; otherRow <= map.getHeight(); otherRow++)
+			for (int otherCol = -1; otherCol <= map.getWidth(); otherCol++)
+				if (map.isPassable(otherCol, otherRow) != passable)
+					result = Math.min(result, Math.hypot((otherCol - col) * widthScale,
+							(otherRow - row) * heightScale));
+		return result;
+	}
+
+	@Test
+	public void testDistancesRandomMaps() {
+		Random random = new Random(1);
+		for (int round = 0; round < 100; round++) {
+			int width = 1 + random.nextInt(30);
+			int height = 1 + random.nextInt(30);
+			double density = random.nextDouble();
+			PassableMap map = new PassableMap(width, height);
+			for (int row = 0; row < height; row++)
+				for (int col = 0; col < width; col++)
+					map.setPassable(col, row, random.nextDouble() < density);
+			double widthScale = 0.01 + random.nextDouble();
+			double heightScale = random.nextBoolean() ? widthScale : 0.01 + random.nextDouble();
+			DistanceField field = new DistanceField(map, widthScale, heightScale);
+			double diagonal = Math.hypot(widthScale, heightScale);
+			double quantum = Math.min(widthScale, heightScale) / 16;
+			for (int row = 0; row < height; row++)
+				for (int col = 0; col < width; col++) {
+					double distance = field.getCellDistance(col, row);
+					double exact = searchDistance(map, col, row, widthScale, heightScale) - diagonal;
+					if (Double.isInfinite(exact)) {
+						// a map without passable cells
+						assertTrue(distance < 0);
+						continue;
+					}
+					// never farther from the border than any point of the cell, and at most a quantum nearer
+					assertTrue(Math.abs(distance) <= Math.max(0, exact));
+					assertTrue(Math.max(0, exact) - Math.abs(distance) < quantum);
+					if (distance != 0)
+						assertEquals(map.isPassable(col, row), distance > 0);
+				}
+		}
+	}
+
+	@Test
+	public void testSharedByWorlds() {
+		PassableMap map = new PassableMap(new boolean[][] { { true, true }, { false, false } });
+		World first = new World(100.0, 100.0, map, new Random(1));
+		World second = new World(100.0, 100.0, map, new Random(2));
+		DistanceField field = first.getDistanceField();
+		assertSame(field, second.getDistanceField());
+		// worlds of another size see the cells at another scale
+		World other = new World(50.0, 100.0, map, new Random(3));
+		assertEquals(25.0, other.getDistanceField().getWidthScale(), 0);
+		// a modification of the map gives both worlds a new field
+		map.setPassable(0, 1, true);
+		DistanceField modified = first.getDistanceField();
+		assertNotSame(field, modified);
+		assertTrue(modified.isUpToDate());
+		assertSame(modified, second.getDistanceField());
+	}
+}
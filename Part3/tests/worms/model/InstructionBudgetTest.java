@@ -0,0 +1,101 @@
+package worms.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static worms.model.TestSupport.createFlatWorld;
+import static worms.model.TestSupport.executeTurn;
+import static worms.model.TestSupport.lines;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.gui.game.IActionHandler;
+
+/**
+ * Checks that a program yields once it used up its instruction budget, and
+ * resumes at its next instruction in its next turn.
+ */
+public class InstructionBudgetTest {
+
+	private IFacade facade;
+
+	private IActionHandler handler;
+
+	private World world;
+
+	@Before
+	public void setup() {
+		facade = new Facade();
+		handler = new SimpleActionHandler(facade);
+		world = createFlatWorld(facade);
+	}
+
+	private Program createProgram(String text) {
+		Program program = TestSupport.parse(facade, text, handler);
+		facade.createWorm(world, 50.0, 50.51, 0, 0.5, "Looper", program);
+		return program;
+	}
+
+	@Test
+	public void testEndlessLoopYields() {
+		Program program = createProgram("while (true) do { skip; }");
+		int budget = Program.getDEFAULT_INSTRUCTION_BUDGET();
+		assertEquals(budget, program.getInstructionBudget());
+		for (int turn = 1; turn <= 3; turn++) {
+			program.executeTurn();
+			assertEquals(turn * budget, program.getInstructionNb());
+			assertTrue(program.getMachine().getResumePoint() > 0);
+		}
+	}
+
+	@Test
+	public void testProgramWithinBudgetDoesNotYield() {
+		Program program = createProgram("double n; while (n < 10) do { n := n + 1; }");
+		program.executeTurn();
+		assertEquals(0, program.getMachine().getResumePoint());
+		assertEquals(10.0, program.getDoubles().get("n").getResult(), 0);
+		assertTrue(program.getInstructionNb() < program.getInstructionBudget());
+	}
+
+	@Test
+	public void testResumeAtNextInstruction() {
+		for (int budget = 1; budget <= 7; budget++) {
+			Program program = createProgram(
+					"double n; while (true) do { n := n + 1; print n; }");
+			program.setInstructionBudget(budget);
+			StringBuilder output = new StringBuilder();
+			for (int turn = 1; turn <= 20; turn++) {
+				output.append(executeTurn(program));
+				assertEquals(turn * budget, program.getInstructionNb());
+			}
+			// no assignment or print is skipped or executed twice across turns
+			String[] printed = output.toString().trim().split("\\s+");
+			assertTrue(printed.length > 1);
+			for (int index = 0; index < printed.length; index++)
+				assertEquals(index + 1.0, Double.parseDouble(printed[index]), 0);
+			double n = program.getDoubles().get("n").getResult();
+			assertTrue(n == printed.length || n == printed.length + 1);
+		}
+	}
+
+	@Test
+	public void testBudgetPerTurn() {
+		// the budget counts the instructions from the start of each turn
+		Program program = createProgram(
+				"double n; while (n < 50) do { n := n + 1; } print n;");
+		program.setInstructionBudget(20);
+		program.executeTurn();
+		assertEquals(20, program.getInstructionNb());
+		program.executeTurn();
+		assertEquals(40, program.getInstructionNb());
+		assertTrue(program.getMachine().getResumePoint() > 0);
+		assertEquals(lines(50.0), executeTurn(program));
+		assertEquals(53, program.getInstructionNb());
+		assertEquals(0, program.getMachine().getResumePoint());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalBudget() {
+		createProgram("skip;").setInstructionBudget(0);
+	}
+}
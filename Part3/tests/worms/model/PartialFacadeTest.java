@@ -3,9 +3,14 @@ package worms.model;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -13,6 +18,8 @@ import org.junit.Test;
 import worms.gui.game.IActionHandler;
 import worms.model.programs.ParseOutcome;
 import worms.model.programs.ParseOutcome.Success;
+import worms.model.programs.ProgramOptimizer;
+import worms.model.programs.ProgramTemplate;
 import worms.util.Util;
 
 public class PartialFacadeTest {
@@ -121,4 +128,125 @@ public class PartialFacadeTest {
 																// program
 	}
 
+	@Test
+	public void testParsePrograms() {
+		IActionHandler handler = new SimpleActionHandler(facade);
+		List<String> texts = new ArrayList<String>();
+		for (int i = 0; i < 40; i++) {
+			texts.add("double x; x := " + i + "; while (x < 1.5) {\nx := x + 0.1;\n}\n turn x;");
+			texts.add("double x; x := " + i + " turn x;");
+		}
+		List<ParseOutcome<?>> outcomes = new Facade().parsePrograms(texts, handler);
+		assertEquals(texts.size(), outcomes.size());
+		for (int i = 0; i < texts.size(); i++) {
+			ParseOutcome<?> expected = facade.parseProgram(texts.get(i), handler);
+			assertEquals(expected.isSuccess(), outcomes.get(i).isSuccess());
+			if (!expected.isSuccess())
+				assertEquals(expected.getResult(), outcomes.get(i).getResult());
+		}
+	}
+
+	/**
+	 * Return program texts of different shapes, some of which do not parse.
+	 */
+	private List<String> createProgramTexts(int nbTexts) {
+		List<String> texts = new ArrayList<String>();
+		for (int i = 0; i < nbTexts; i++)
+			switch (i % 4) {
+			case 0:
+				texts.add("double x; x := " + i + "; while (x < " + (i + 3) + ") {\nx := x + 1;\n}\n turn x;");
+				break;
+			case 1:
+				texts.add("double x; x := " + i + " turn x;");
+				break;
+			case 2:
+				StringBuilder text = new StringBuilder("double x; ");
+				for (int j = 0; j < i % 7 + 1; j++)
+					text.append("if (x < " + j + ") then { x := x + " + j + "; } else { print x; } ");
+				texts.add(text.toString());
+				break;
+			default:
+				texts.add("bool b; b := " + i + " < 3; print b; skip;");
+			}
+		return texts;
+	}
+
+	/**
+	 * Describe the given outcome in a way that tells apart programs of different shapes.
+	 */
+	private String describe(ParseOutcome<?> outcome) {
+		if (!outcome.isSuccess())
+			return "failure " + outcome.getResult();
+		Program program = (Program) outcome.getResult();
+		return "success " + ProgramOptimizer.countNodes(program.getStatement()) + " "
+				+ program.getDoubles().keySet() + " " + program.getBools().keySet();
+	}
+
+	@Test
+	public void testParseProgramsConcurrently() throws InterruptedException {
+		final IActionHandler handler = new SimpleActionHandler(facade);
+		final List<String> texts = createProgramTexts(60);
+		final List<String> expected = new ArrayList<String>();
+		final List<List<String>> expectedErrors = new ArrayList<List<String>>();
+		for (String text : texts) {
+			ParseOutcome<?> outcome = new Facade().parseProgram(text, handler);
+			expected.add(describe(outcome));
+			expectedErrors.add(outcome.isSuccess() ? Collections.<String>emptyList()
+					: ((ParseOutcome.Failure) outcome).getResult());
+		}
+		assertTrue(expected.toString().contains("failure"));
+		// threads that parse the same texts at once on one facade, in batches and one by one
+		final Facade shared = new Facade();
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 8; t++) {
+			final Random order = new Random(t);
+			Thread thread = new Thread() {
+
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (int round = 0; round < 3; round++) {
+							List<ParseOutcome<?>> outcomes = shared.parsePrograms(texts, handler);
+							for (int i = 0; i < texts.size(); i++)
+								assertEquals(expected.get(i), describe(outcomes.get(i)));
+							assertEquals(expectedErrors, shared.checkPrograms(texts));
+							List<Integer> indices = new ArrayList<Integer>();
+							for (int i = 0; i < texts.size(); i++)
+								indices.add(i);
+							Collections.shuffle(indices, order);
+							for (int i : indices)
+								assertEquals(expected.get(i),
+										describe(shared.parseProgram(texts.get(i), handler)));
+						}
+					} catch (Throwable e) {
+						failures.add(e);
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		start.countDown();
+		for (Thread thread : threads)
+			thread.join();
+		assertTrue(failures.toString(), failures.isEmpty());
+	}
+
+	@Test
+	public void testBatchesSkipProgramCache() {
+		IActionHandler handler = new SimpleActionHandler(facade);
+		Facade parser = new Facade();
+		String text = "double x; x := 1; turn x;";
+		assertTrue(parser.parseProgram(text, handler).isSuccess());
+		ProgramTemplate template = parser.getProgramCache().get(text);
+		List<String> texts = createProgramTexts(200);
+		texts.add(text);
+		assertEquals(texts.size(), parser.parsePrograms(texts, handler).size());
+		assertEquals(texts.size(), parser.checkPrograms(texts).size());
+		assertEquals(1, parser.getProgramCache().getSize());
+		assertSame(template, parser.getProgramCache().get(text));
+	}
 }
@@ -0,0 +1,140 @@
+package worms.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static worms.model.TestSupport.captureOutput;
+import static worms.model.TestSupport.createFlatWorld;
+import static worms.model.TestSupport.lines;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.gui.game.IActionHandler;
+
+/**
+ * Checks that a suspended program resumes at the statement that was not done,
+ * without repeating the statements it already completed.
+ */
+public class ProgramResumeTest {
+
+	private IFacade facade;
+
+	private IActionHandler handler;
+
+	private World world;
+
+	private Worm worm;
+
+	private Program program;
+
+	@Before
+	public void setup() {
+		facade = new Facade();
+		handler = new SimpleActionHandler(facade);
+		world = createFlatWorld(facade);
+	}
+
+	/**
+	 * Start a game in which the first worm runs the given program and the second
+	 * worm waits. The first worm faces up steeply, so it needs 5 action points
+	 * to move.
+	 */
+	private void startGame(String text) {
+		program = TestSupport.parse(facade, text, handler);
+		worm = facade.createWorm(world, 30.0, 50.51, 1.2, 0.5, "Runner", program);
+		facade.createWorm(world, 70.0, 50.51, 0, 0.5, "Waiter", null);
+		world.setProgramsScheduled(true);
+		world.startGame();
+		assertSame(worm, world.getCurrentWorm());
+	}
+
+	/**
+	 * Leave the worm of the program the given amount of action points.
+	 */
+	private void leaveActionPoints(int amount) {
+		worm.useActionPoints(worm.getActionPoints() - amount);
+	}
+
+	/**
+	 * Execute the program for one turn, and return what it printed.
+	 */
+	private String playTurn() {
+		return captureOutput(new Runnable() {
+
+			@Override
+			public void run() {
+				worm.executeProgramTurn();
+			}
+		});
+	}
+
+	/**
+	 * Let the other worm take its turn, and give the turn back to the worm of
+	 * the program, with all its action points.
+	 */
+	private void nextRound() {
+		world.startNextTurn();
+		world.startNextTurn();
+		assertSame(worm, world.getCurrentWorm());
+		assertEquals(facade.getMaxActionPoints(worm), facade.getActionPoints(worm));
+	}
+
+	@Test
+	public void testActionsBeforeFailedMoveNotRepeated() {
+		startGame("print 1; turn 0.1; move; print 2;");
+		leaveActionPoints(3);
+		assertEquals(lines(1.0), playTurn());
+		assertEquals(1.3, facade.getOrientation(worm), 1e-10);
+		assertEquals(2, facade.getActionPoints(worm));
+		assertTrue(program.getMachine().getResumePoint() > 0);
+		assertEquals(2, program.getInstructionNb());
+		double x = facade.getX(worm);
+		nextRound();
+		// resumes at the move: the print and the turn are not executed again
+		assertEquals(lines(2.0), playTurn());
+		assertEquals(1.3, facade.getOrientation(worm), 1e-10);
+		assertTrue(facade.getX(worm) != x);
+		assertEquals(0, program.getMachine().getResumePoint());
+		// the four statements and the three sequences the parser nests them in
+		assertEquals(7, program.getInstructionNb());
+		nextRound();
+		// a program that ended starts again from the start
+		assertEquals(lines(1.0, 2.0), playTurn());
+		assertEquals(1.4, facade.getOrientation(worm), 1e-10);
+	}
+
+	@Test
+	public void testResumeInsideWhileBody() {
+		startGame("double i; while (i < 3) do { print i; move; i := i + 1; } print 10;");
+		leaveActionPoints(3);
+		assertEquals(lines(0.0), playTurn());
+		int resumePoint = program.getMachine().getResumePoint();
+		assertTrue(resumePoint > 0);
+		// suspending again before any action points return resumes at the same move
+		assertEquals("", playTurn());
+		assertEquals(resumePoint, program.getMachine().getResumePoint());
+		nextRound();
+		// neither the condition nor the print of the first iteration are executed again
+		assertEquals(lines(1.0, 2.0, 10.0), playTurn());
+		assertEquals(3.0, program.getDoubles().get("i").getResult(), 0);
+		assertEquals(0, program.getMachine().getResumePoint());
+	}
+
+	@Test
+	public void testIfWithMissingPartSuspendsAtItself() {
+		// the parser leaves the operators it does not support out
+		startGame("print 0; if (true && false) then { print 1; } else { print 2; } print 3;");
+		assertEquals(lines(0.0), playTurn());
+		int resumePoint = program.getMachine().getResumePoint();
+		int instructionNb = program.getInstructionNb();
+		assertTrue(resumePoint > 0);
+		for (int round = 0; round < 3; round++) {
+			nextRound();
+			assertEquals("", playTurn());
+			assertEquals(resumePoint, program.getMachine().getResumePoint());
+			assertEquals(instructionNb, program.getInstructionNb());
+			assertEquals(facade.getMaxActionPoints(worm), facade.getActionPoints(worm));
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package worms.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the positions spawn points suggest, and that a world still looks for a
+ * position itself once none of the spawn points it tried turned out to fit.
+ */
+public class SpawnPointsTest {
+
+	private IFacade facade;
+
+	private World world;
+
+	private SpawnPoints points;
+
+	private double minRadius;
+
+	@Before
+	public void setup() {
+		facade = new Facade();
+		// the lower third is solid ground, the rest holds scattered rocks
+		Random terrain = new Random(1);
+		boolean[][] map = new boolean[120][120];
+		for (int row = 0; row < map.length; row++)
+			for (int col = 0; col < map[row].length; col++)
+				map[row][col] = row < 80 && terrain.nextInt(10) != 0;
+		world = facade.createWorld(30.0, 30.0, map, new Random(3));
+		minRadius = Worm.getPREDEFINED_MIN_RADIUS1();
+		points = new SpawnPoints(world.getDistanceField(), minRadius, 2 * minRadius);
+	}
+
+	/**
+	 * Return the positions the spawn points find for radiuses in their range,
+	 * picked with the given seed.
+	 */
+	private List<Position> findPositions(long seed, int nbPositions) {
+		Random random = new Random(seed);
+		List<Position> result = new ArrayList<Position>();
+		for (int i = 0; i < nbPositions; i++) {
+			double radius = minRadius + minRadius * random.nextDouble();
+			Position pos = points.findPosition(world, radius, random);
+			if (pos != null) {
+				assertTrue(world.isAdjacentPosition(pos, radius));
+				assertTrue(world.isPassableSpot(pos, radius));
+				assertTrue(world.liesWithinWorld(pos, radius));
+			}
+			result.add(pos);
+		}
+		return result;
+	}
+
+	@Test
+	public void testFindPositionFixedSeed() {
+		List<Position> positions = findPositions(5, 300);
+		int nbFound = 0;
+		for (Position pos : positions)
+			if (pos != null)
+				nbFound++;
+		assertTrue(nbFound > 285);
+		// the same seed picks the same positions
+		List<Position> again = findPositions(5, 300);
+		for (int i = 0; i < positions.size(); i++)
+			if (positions.get(i) == null)
+				assertNull(again.get(i));
+			else {
+				assertEquals(positions.get(i).getX(), again.get(i).getX(), 0);
+				assertEquals(positions.get(i).getY(), again.get(i).getY(), 0);
+			}
+	}
+
+	@Test
+	public void testFindPositionOutsideRange() {
+		// no spawn points were collected for radiuses this large
+		assertNull(points.findPosition(world, 20 * minRadius, new Random(5)));
+		assertTrue(points.covers(world.getDistanceField(), 1.5 * minRadius));
+		assertFalse(points.covers(world.getDistanceField(), 20 * minRadius));
+	}
+
+	@Test
+	public void testFallbackWhenCandidatesUsedUp() {
+		// in a world of two cells, almost no point of the passable cell is adjacent
+		int nbFallbacks = 0;
+		for (int seed = 0; seed < 20; seed++) {
+			world = TestSupport.createFlatWorld(facade, new Random(seed));
+			points = new SpawnPoints(world.getDistanceField(), minRadius, 2 * minRadius);
+			// draw the same numbers as adding a new worm does before it tries the spawn points
+			Random random = new Random(seed);
+			random.nextDouble();
+			random.nextDouble();
+			double radius = minRadius + minRadius * random.nextDouble();
+			random.nextDouble();
+			Position spawned = points.findPosition(world, radius, random);
+			facade.addNewWorm(world, null);
+			if (world.getWorms().isEmpty())
+				continue;
+			Worm worm = world.getWorms().iterator().next();
+			assertEquals(radius, worm.getRadius(), 0);
+			assertTrue(world.canHaveAsWorm(worm));
+			if (spawned != null) {
+				assertEquals(spawned.getX(), facade.getX(worm), 0);
+				assertEquals(spawned.getY(), facade.getY(worm), 0);
+			} else
+				nbFallbacks++;
+		}
+		assertTrue(nbFallbacks > 5);
+	}
+}
@@ -0,0 +1,77 @@
+package worms.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+import worms.gui.game.IActionHandler;
+import worms.model.programs.ParseOutcome.Success;
+
+/**
+ * The worlds, programs and output the tests share.
+ */
+public class TestSupport {
+
+	private TestSupport() {
+	}
+
+	/**
+	 * Create a world of 100 by 100 meters of which the upper half is passable and the
+	 * lower half is not, so worms with radius r stand at a height of 50.01 + r.
+	 */
+	public static World createFlatWorld(IFacade facade) {
+		return createFlatWorld(facade, new Random(7357));
+	}
+
+	// . (upper half passable)
+	// X (lower half impassable)
+	public static World createFlatWorld(IFacade facade, Random random) {
+		return facade.createWorld(100.0, 100.0, new boolean[][] { { true },
+				{ false } }, random);
+	}
+
+	/**
+	 * Parse the given program text, which must be well-formed.
+	 */
+	public static Program parse(IFacade facade, String text, IActionHandler handler) {
+		return ((Success) facade.parseProgram(text, handler)).getResult();
+	}
+
+	/**
+	 * Perform the given action, and return what it printed.
+	 */
+	public static String captureOutput(Runnable action) {
+		PrintStream out = System.out;
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(buffer, true));
+		try {
+			action.run();
+		} finally {
+			System.setOut(out);
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * Execute the given program for one turn, and return what it printed.
+	 */
+	public static String executeTurn(final Program program) {
+		return captureOutput(new Runnable() {
+
+			@Override
+			public void run() {
+				program.executeTurn();
+			}
+		});
+	}
+
+	/**
+	 * Return the given values as printed by programs, one per line.
+	 */
+	public static String lines(Object... values) {
+		StringBuilder result = new StringBuilder();
+		for (Object value : values)
+			result.append(value).append(System.getProperty("line.separator"));
+		return result.toString();
+	}
+}
@@ -0,0 +1,154 @@
+package worms.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TurnOrderTest {
+
+	private IFacade facade;
+
+	private World world;
+
+	private TurnOrder order;
+
+	private List<Worm> worms;
+
+	@Before
+	public void setup() {
+		facade = new Facade();
+		world = TestSupport.createFlatWorld(facade);
+		order = new TurnOrder();
+		worms = new ArrayList<Worm>();
+		for (int i = 0; i < 20; i++) {
+			Worm worm = facade.createWorm(world, 2.0 + 4.0 * i, 50.51, 0, 0.5,
+					"Worm " + (i + 1), null);
+			worms.add(worm);
+		}
+	}
+
+	private List<Worm> drain(Iterator<Worm> iterator) {
+		List<Worm> result = new ArrayList<Worm>();
+		while (iterator.hasNext())
+			result.add(iterator.next());
+		return result;
+	}
+
+	@Test
+	public void testRemoveAheadOfIterator() {
+		Worm a = worms.get(0), b = worms.get(1), c = worms.get(2);
+		order.add(a);
+		order.add(b);
+		order.add(c);
+		Iterator<Worm> iterator = order.iterator();
+		assertSame(a, iterator.next());
+		order.remove(b);
+		assertTrue(iterator.hasNext());
+		assertSame(c, iterator.next());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testRemoveBetweenHasNextAndNext() {
+		Worm a = worms.get(0), b = worms.get(1), c = worms.get(2);
+		order.add(a);
+		order.add(b);
+		order.add(c);
+		Iterator<Worm> iterator = order.iterator();
+		iterator.next();
+		assertTrue(iterator.hasNext());
+		order.remove(b);
+		assertSame(c, iterator.next());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testRemoveLastAheadOfIterator() {
+		Worm a = worms.get(0), b = worms.get(1);
+		order.add(a);
+		order.add(b);
+		Iterator<Worm> iterator = order.iterator();
+		iterator.next();
+		order.remove(b);
+		assertFalse(iterator.hasNext());
+		iterator.next();
+	}
+
+	@Test
+	public void testAddDuringIteration() {
+		for (int i = 0; i < 8; i++)
+			order.add(worms.get(i));
+		Iterator<Worm> iterator = order.iterator();
+		List<Worm> returned = new ArrayList<Worm>();
+		returned.add(iterator.next());
+		// grows the slots beyond their initial capacity
+		for (int i = 8; i < 20; i++)
+			order.add(worms.get(i));
+		returned.addAll(drain(iterator));
+		assertEquals(worms.subList(0, 8), returned);
+		assertEquals(worms, drain(order.iterator()));
+	}
+
+	@Test
+	public void testIterationNeverReturnsNull() {
+		Random random = new Random(42);
+		for (int round = 0; round < 200; round++) {
+			TurnOrder order = new TurnOrder();
+			for (Worm worm : worms)
+				order.add(worm);
+			Iterator<Worm> iterator = order.iterator();
+			while (iterator.hasNext()) {
+				Worm worm = iterator.next();
+				assertTrue(worm != null);
+				// removes worms ahead of the iterator, sometimes enough to compact
+				for (int k = random.nextInt(4); k > 0; k--)
+					order.remove(worms.get(random.nextInt(worms.size())));
+			}
+		}
+	}
+
+	@Test
+	public void testIterationSkipsRemoved() {
+		for (Worm worm : worms)
+			order.add(worm);
+		Iterator<Worm> iterator = order.iterator();
+		List<Worm> returned = new ArrayList<Worm>();
+		returned.add(iterator.next());
+		for (int i = 1; i < 20; i += 2)
+			order.remove(worms.get(i));
+		returned.addAll(drain(iterator));
+		List<Worm> expected = new ArrayList<Worm>();
+		for (int i = 0; i < 20; i++)
+			if (i == 0 || i % 2 == 0)
+				expected.add(worms.get(i));
+		assertEquals(expected, returned);
+	}
+
+	@Test
+	public void testAdvanceAfterRemovingCurrent() {
+		Worm a = worms.get(0), b = worms.get(1), c = worms.get(2);
+		order.add(a);
+		order.add(b);
+		order.add(c);
+		order.reset();
+		assertSame(b, order.advance());
+		order.remove(b);
+		assertSame(c, order.getCurrent());
+		assertSame(c, order.advance());
+		assertSame(a, order.advance());
+		order.remove(a);
+		order.remove(c);
+		assertNull(order.getCurrent());
+		assertNull(order.advance());
+	}
+}
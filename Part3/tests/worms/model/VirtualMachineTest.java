@@ -0,0 +1,373 @@
+package worms.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static worms.model.TestSupport.captureOutput;
+import static worms.model.TestSupport.createFlatWorld;
+import static worms.model.TestSupport.lines;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.gui.game.IActionHandler;
+import worms.model.programs.expressions.Add;
+import worms.model.programs.expressions.BoolLiteral;
+import worms.model.programs.expressions.DoubleLiteral;
+import worms.model.programs.expressions.EntityExpression;
+import worms.model.programs.expressions.Expression;
+import worms.model.programs.expressions.LessThan;
+import worms.model.programs.expressions.SelfWormExpression;
+import worms.model.programs.expressions.VariableAccess;
+import worms.model.programs.statements.Assignment;
+import worms.model.programs.statements.If;
+import worms.model.programs.statements.Print;
+import worms.model.programs.statements.Sequence;
+import worms.model.programs.statements.Skip;
+import worms.model.programs.statements.Statement;
+import worms.model.programs.statements.Turn;
+import worms.model.programs.statements.While;
+import worms.model.programs.types.BoolType;
+import worms.model.programs.types.DoubleType;
+import worms.model.programs.types.EntityType;
+import worms.model.programs.types.Type;
+
+/**
+ * Runs programs both on their virtual machine and by executing their statement,
+ * and checks that both do the same.
+ */
+public class VirtualMachineTest {
+
+	private IFacade facade;
+
+	private IActionHandler handler;
+
+	private World world;
+
+	// the worms performing the compiled and the interpreted program
+	private Worm compiledWorm, interpretedWorm;
+
+	@Before
+	public void setup() {
+		facade = new Facade();
+		handler = new SimpleActionHandler(facade);
+		world = createFlatWorld(facade);
+		compiledWorm = facade.createWorm(world, 30.0, 50.51, 0, 0.5,
+				"Compiled", null);
+		interpretedWorm = facade.createWorm(world, 70.0, 50.51, 0, 0.5,
+				"Interpreted", null);
+	}
+
+	private Program parse(String text) {
+		return TestSupport.parse(facade, text, handler);
+	}
+
+	/**
+	 * Run the given program for one turn, on its machine or by executing its
+	 * statement, and return what it printed with its worm written as "self".
+	 */
+	private String run(final Program program, final boolean compiled) {
+		String output = captureOutput(new Runnable() {
+
+			@Override
+			public void run() {
+				if (compiled)
+					program.executeTurn();
+				else
+					program.getStatement().execute(program);
+			}
+		});
+		return output.replace(program.getPerformingWorm().toString(), "self");
+	}
+
+	private Map<String, Object> variables(Program program) {
+		Map<String, Object> result = new HashMap<String, Object>();
+		for (Map.Entry<String, DoubleLiteral> entry : program.getDoubles().entrySet())
+			result.put(entry.getKey(), entry.getValue().getResult());
+		for (Map.Entry<String, BoolLiteral> entry : program.getBools().entrySet())
+			result.put(entry.getKey(), entry.getValue().getResult());
+		for (Map.Entry<String, EntityExpression> entry : program.getEntities().entrySet()) {
+			Object entity = entry.getValue().getResult();
+			result.put(entry.getKey(),
+					entity == program.getPerformingWorm() ? "self" : entity);
+		}
+		return result;
+	}
+
+	/**
+	 * Run the given programs, the first on its machine and the second by
+	 * executing its statement, check that they did the same and return what
+	 * they printed.
+	 */
+	private String assertSameExecution(Program compiled, Program interpreted) {
+		compiled.setPerformingWorm(compiledWorm);
+		interpreted.setPerformingWorm(interpretedWorm);
+		String compiledOutput = run(compiled, true);
+		String interpretedOutput = run(interpreted, false);
+		assertEquals(interpretedOutput, compiledOutput);
+		assertEquals(interpreted.getInstructionNb(), compiled.getInstructionNb());
+		assertEquals(variables(interpreted), variables(compiled));
+		assertEquals(facade.getOrientation(interpretedWorm),
+				facade.getOrientation(compiledWorm), 1e-10);
+		assertEquals(facade.getActionPoints(interpretedWorm),
+				facade.getActionPoints(compiledWorm));
+		assertEquals(facade.getSelectedWeapon(interpretedWorm),
+				facade.getSelectedWeapon(compiledWorm));
+		return compiledOutput;
+	}
+
+	private String assertSameExecution(String text) {
+		return assertSameExecution(parse(text), parse(text));
+	}
+
+	@Test
+	public void testArithmeticAndConditionals() {
+		String output = assertSameExecution("double x; double y; bool b; entity e; "
+				+ "x := 1; y := 0; "
+				+ "while (x < 100) { "
+				+ "  y := y + (x * 3) - 1; x := x * 2; "
+				+ "  if (y >= 50) then { b := true; } else { b := false; } "
+				+ "} "
+				+ "e := self; "
+				+ "print y; print b; print e; print sqrt(y); print 9 / 2; print x != y; "
+				+ "print x <= 128; print e != null;");
+		// an inequality with null is false
+		assertEquals(lines(374.0, true, "self", Math.sqrt(374.0), 4.5,
+				true, true, false), output);
+	}
+
+	@Test
+	public void testVariablesOfOtherKind() {
+		// a value of another kind than its variable is computed, but not stored
+		assertSameExecution("double x; bool b; entity e; "
+				+ "x := 3; b := x > 2; x := b; b := 4; e := self; e := null; x := e; "
+				+ "print x; print b; print e;");
+	}
+
+	@Test
+	public void testNestedLoops() {
+		assertSameExecution("double i; double j; double n; "
+				+ "while (i < 5) do { "
+				+ "  j := 0; "
+				+ "  while (j < i) do { n := n + j; j := j + 1; } "
+				+ "  if (n > 3) then { print n; } else { skip; } "
+				+ "  i := i + 1; "
+				+ "} "
+				+ "while (false) do { print i; } "
+				+ "print n;");
+	}
+
+	@Test
+	public void testActions() {
+		String output = assertSameExecution("double a; "
+				+ "while (a < 3) do { turn 0.1; a := a + 1; } "
+				+ "toggleweap; turn -0.05; print gety self; print getradius self;");
+		assertEquals(lines(50.51, 0.5), output);
+		assertEquals(0.25, facade.getOrientation(compiledWorm), 1e-10);
+	}
+
+	/**
+	 * An expression the compiler does not know, which counts how many times it
+	 * was evaluated.
+	 */
+	private static class CountedExpression extends Expression {
+
+		public CountedExpression(Object value) {
+			super(-1, -1);
+			this.value = value;
+		}
+
+		private final Object value;
+
+		private int nbEvaluations;
+
+		@Override
+		public Expression getValue(Program program) {
+			return this;
+		}
+
+		@Override
+		public Object getResult(Program program) {
+			nbEvaluations++;
+			return value;
+		}
+	}
+
+	/**
+	 * A statement the compiler does not know, which counts how many times it was
+	 * executed.
+	 */
+	private static class CountedStatement extends Statement {
+
+		public CountedStatement() {
+			super(-1, -1);
+		}
+
+		private int nbExecutions;
+
+		@Override
+		public boolean execute(Program program) {
+			nbExecutions++;
+			afterExecution(program);
+			return true;
+		}
+	}
+
+	private Program createProgram(Statement statement) {
+		HashMap<String, Type> globals = new HashMap<String, Type>();
+		globals.put("x", new DoubleType());
+		globals.put("b", new BoolType());
+		globals.put("e", new EntityType());
+		return new Program(handler, statement, globals, Arrays.asList("x", "b", "e"), "");
+	}
+
+	private VariableAccess x() {
+		return new VariableAccess("x", new DoubleType(), 0, -1, -1);
+	}
+
+	/**
+	 * Build a program of which the expressions of unknown kind are evaluated and
+	 * the statements of unknown kind are executed as they are: the double
+	 * expression by a DEVAL, the condition by a BEVAL, the entity by an EEVAL
+	 * and the statement by an EXEC instruction.
+	 */
+	private Statement fallbackStatement(CountedExpression number, CountedExpression condition,
+			Worm worm, CountedStatement statement) {
+		Expression entity = new EntityExpression(new EntityType(worm), -1, -1);
+		List<Statement> body = new ArrayList<Statement>();
+		body.add(new Assignment("x", 0, new Add(x(), number, -1, -1), -1, -1));
+		body.add(statement);
+		List<Statement> statements = new ArrayList<Statement>();
+		statements.add(new While(new LessThan(x(), new DoubleLiteral(new DoubleType(10.0),
+				-1, -1), -1, -1), new Sequence(body, -1, -1), -1, -1));
+		statements.add(new If(condition, new Assignment("b", 1, condition, -1, -1),
+				new Skip(-1, -1), -1, -1));
+		statements.add(new Assignment("e", 2, entity, -1, -1));
+		statements.add(new Print(entity, -1, -1));
+		statements.add(new Turn(new Add(number, new DoubleLiteral(new DoubleType(-2.5),
+				-1, -1), -1, -1), -1, -1));
+		statements.add(new Print(x(), -1, -1));
+		return new Sequence(statements, -1, -1);
+	}
+
+	@Test
+	public void testFallbackNodes() {
+		CountedExpression[] numbers = new CountedExpression[2];
+		CountedExpression[] conditions = new CountedExpression[2];
+		CountedStatement[] statements = new CountedStatement[2];
+		Program[] programs = new Program[2];
+		for (int i = 0; i < 2; i++) {
+			numbers[i] = new CountedExpression(2.75);
+			conditions[i] = new CountedExpression(true);
+			statements[i] = new CountedStatement();
+			programs[i] = createProgram(fallbackStatement(numbers[i],
+					conditions[i], i == 0 ? compiledWorm : interpretedWorm,
+					statements[i]));
+		}
+		String output = assertSameExecution(programs[0], programs[1]);
+		assertEquals(lines("self", 11.0), output);
+		assertEquals(0.25, facade.getOrientation(compiledWorm), 1e-10);
+		for (int i = 0; i < 2; i++) {
+			assertEquals(5, numbers[i].nbEvaluations);
+			assertEquals(2, conditions[i].nbEvaluations);
+			assertEquals(4, statements[i].nbExecutions);
+		}
+	}
+
+	@Test
+	public void testUnknownStatementsSuspend() {
+		// an unknown statement that is not done suspends its program, to be
+		// executed again in the next turn
+		final int[] nbExecutions = new int[1];
+		Statement statement = new Statement(-1, -1) {
+
+			@Override
+			public boolean execute(Program program) {
+				nbExecutions[0]++;
+				if (nbExecutions[0] == 1)
+					return false;
+				afterExecution(program);
+				return true;
+			}
+		};
+		Program program = createProgram(new Sequence(Arrays.asList(
+				new Print(new SelfWormExpression(-1, -1), -1, -1), statement),
+				-1, -1));
+		program.setPerformingWorm(compiledWorm);
+		assertEquals(lines("self"), run(program, true));
+		assertEquals(1, program.getInstructionNb());
+		assertEquals("", run(program, true));
+		assertEquals(2, nbExecutions[0]);
+		assertEquals(3, program.getInstructionNb());
+		assertEquals(0, program.getMachine().getResumePoint());
+	}
+
+	@Test
+	public void testMissingStatement() {
+		Program[] programs = new Program[2];
+		for (int i = 0; i < 2; i++) {
+			Statement missing = null;
+			programs[i] = createProgram(new Sequence(Arrays.asList(new Skip(-1, -1),
+					new Print(x(), -1, -1), missing), -1, -1));
+			programs[i].setPerformingWorm(i == 0 ? compiledWorm : interpretedWorm);
+		}
+		String[] outputs = new String[2];
+		for (int i = 0; i < 2; i++) {
+			final Program program = programs[i];
+			final boolean compiled = i == 0;
+			outputs[i] = captureOutput(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						if (compiled)
+							program.executeTurn();
+						else
+							program.getStatement().execute(program);
+						fail("A missing statement should fail");
+					} catch (NullPointerException exc) {
+					}
+				}
+			});
+		}
+		assertEquals(lines(0.0), outputs[0]);
+		assertEquals(outputs[1], outputs[0]);
+		assertEquals(2, programs[0].getInstructionNb());
+		assertEquals(programs[1].getInstructionNb(), programs[0].getInstructionNb());
+	}
+
+	@Test
+	public void testMissingExpression() {
+		// the parser leaves the operators it does not support out
+		for (String text : new String[] { "print (true && false);",
+				"bool b; b := !true;", "while (true || false) do { skip; }" }) {
+			for (boolean compiled : new boolean[] { true, false }) {
+				Program program = parse(text);
+				program.setPerformingWorm(compiledWorm);
+				try {
+					run(program, compiled);
+					fail("A missing expression should fail: " + text);
+				} catch (NullPointerException exc) {
+				}
+				assertEquals(0, program.getInstructionNb());
+			}
+		}
+	}
+
+	@Test
+	public void testRepeatedTurns() {
+		Program compiled = parse("double n; n := n + 1; print n;");
+		Program interpreted = parse("double n; n := n + 1; print n;");
+		for (int turn = 1; turn <= 3; turn++) {
+			assertEquals(lines((double) turn),
+					assertSameExecution(compiled, interpreted));
+			assertEquals(0, compiled.getMachine().getResumePoint());
+		}
+		assertEquals(9, compiled.getInstructionNb());
+	}
+}
@@ -0,0 +1,452 @@
+package worms.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.util.Util;
+
+public class WormGridTest {
+
+	private IFacade facade;
+
+	private World world;
+
+	private Random random;
+
+	private WormGrid grid;
+
+	// the worms of the grid, in the order in which they were added
+	private List<Worm> worms;
+
+	// a worm outside of the grid, that shoots the projectiles of no other worm
+	private Worm shooter;
+
+	@Before
+	public void setup() {
+		facade = new Facade();
+		world = TestSupport.createFlatWorld(facade);
+		random = new Random(42);
+		grid = new WormGrid(1.0);
+		worms = new ArrayList<Worm>();
+		shooter = facade.createWorm(world, 10.0, 50.26, 0, 0.25, "Shooter", null);
+	}
+
+	/**
+	 * Create a worm with the given radius at the given position, and add it to
+	 * the grid.
+	 */
+	private Worm addWorm(double x, double y, double radius) {
+		Worm worm = facade.createWorm(world, 50.0, 50.01 + radius, 0, radius,
+				"Worm " + (worms.size() + 1), null);
+		moveWorm(worm, x, y);
+		grid.add(worm);
+		worms.add(worm);
+		return worm;
+	}
+
+	/**
+	 * Move the given worm to the given position, without telling the grid.
+	 */
+	private void moveWorm(Worm worm, double x, double y) {
+		worm.getVector().getPosition().setX(x);
+		worm.getVector().getPosition().setY(y);
+	}
+
+	/**
+	 * Give the given worm the given radius, without telling the grid.
+	 */
+	private void resizeWorm(Worm worm, double radius) {
+		worm.setRadius(radius);
+	}
+
+	private void removeWorm(Worm worm) {
+		grid.remove(worm);
+		worms.remove(worm);
+	}
+
+	/**
+	 * Return a radius for a worm: mostly a small one, sometimes one that spans a
+	 * whole cell or more, and now and then one that spans too many cells to be
+	 * registered cell by cell.
+	 */
+	private double randomRadius() {
+		switch (random.nextInt(8)) {
+		case 0:
+			return 0.5;
+		case 1:
+			return 1.0;
+		case 2:
+			return 5.0;
+		default:
+			return 0.25 + 0.75 * random.nextDouble();
+		}
+	}
+
+	/**
+	 * Return the worm searchobj found before the grid answered it: the last worm,
+	 * in the order in which they were added, in the given direction from the
+	 * given position and not (fuzzily) farther away than the worm kept before.
+	 */
+	private Worm searchAll(Position pos, double angle) {
+		Worm result = null;
+		double bestDistance = Double.MAX_VALUE;
+		for (Worm worm : worms) {
+			Position wormPos = worm.getVector().getPosition();
+			double distance = pos.getDistanceTo(wormPos);
+			double eps = Math.atan(worm.getRadius() / distance);
+			if (!Util.fuzzyEquals(pos.getSlope(wormPos), angle, eps))
+				continue;
+			if (Util.fuzzyLessThanOrEqualTo(distance, bestDistance)) {
+				bestDistance = distance;
+				result = worm;
+			}
+		}
+		return result;
+	}
+
+	private void assertSameSearch(Position pos, double angle) {
+		assertSame(searchAll(pos, angle), grid.getNearestInDirection(pos, angle));
+	}
+
+	/**
+	 * Check the grid against looking at all worms, from random positions in
+	 * the given square, in random directions and in the direction of each worm.
+	 */
+	private int assertSameSearches(double min, double size, int nbSearches) {
+		int nbFound = 0;
+		for (int search = 0; search < nbSearches; search++) {
+			Position pos = new Position(min + size * random.nextDouble(),
+					min + size * random.nextDouble());
+			assertSameSearch(pos, 4 * Math.PI * (random.nextDouble() - 0.5));
+			Worm target = worms.get(random.nextInt(worms.size()));
+			double angle = pos.getSlope(target.getVector().getPosition())
+					+ 1e-4 * random.nextGaussian();
+			if (random.nextInt(4) == 0)
+				angle += Math.PI;
+			assertSameSearch(pos, angle);
+			if (grid.getNearestInDirection(pos, angle) != null)
+				nbFound++;
+		}
+		return nbFound;
+	}
+
+	@Test
+	public void testNearestInDirectionRandomLayouts() {
+		int nbFound = 0;
+		for (int layout = 0; layout < 100; layout++) {
+			setup();
+			random = new Random(layout);
+			// dense layouts in a small square, sparse layouts in a large one
+			double size = (layout % 2 == 0) ? 12.0 : 90.0;
+			double min = 50.0 - size / 2;
+			int nbWorms = 1 + random.nextInt(40);
+			for (int i = 0; i < nbWorms; i++)
+				addWorm(min + size * random.nextDouble(), min + size * random.nextDouble(),
+						randomRadius());
+			nbFound += assertSameSearches(min, size, 20);
+			// move some worms, possibly to other cells
+			for (Worm worm : new ArrayList<Worm>(worms))
+				if (random.nextInt(3) == 0) {
+					double x = worm.getVector().getPosition().getX();
+					double y = worm.getVector().getPosition().getY();
+					double step = (random.nextBoolean() ? 0.3 : 5.0);
+					moveWorm(worm, x + step * random.nextGaussian(), y + step * random.nextGaussian());
+					grid.update(worm);
+				}
+			nbFound += assertSameSearches(min, size, 20);
+			// remove some worms, and add others after them
+			for (Worm worm : new ArrayList<Worm>(worms))
+				if (worms.size() > 1 && random.nextInt(4) == 0)
+					removeWorm(worm);
+			for (int i = random.nextInt(5); i > 0; i--)
+				addWorm(min + size * random.nextDouble(), min + size * random.nextDouble(),
+						randomRadius());
+			nbFound += assertSameSearches(min, size, 20);
+		}
+		// the searches aimed at worms mostly find one
+		assertTrue(nbFound > 1000);
+	}
+
+	@Test
+	public void testNearestInDirectionNearTies() {
+		double eps = Util.DEFAULT_EPSILON;
+		double[] offsets = new double[] { 0, 0.5 * eps, 0.9 * eps, 1.5 * eps, 2.5 * eps,
+				3.2 * eps, 5 * eps, 20 * eps };
+		for (int round = 0; round < 200; round++) {
+			setup();
+			random = new Random(round);
+			Position pos = new Position(20 + 60 * random.nextDouble(), 20 + 60 * random.nextDouble());
+			double angle = Math.PI * (random.nextDouble() - 0.5);
+			double distance = 0.5 + 15 * random.nextDouble();
+			// worms on the ray and just beside it, at distances that differ by about the precision
+			List<double[]> placements = new ArrayList<double[]>();
+			for (double offset : offsets) {
+				double side = random.nextBoolean() ? 0 : 0.1 * random.nextGaussian();
+				placements.add(new double[] { distance + offset, angle + side });
+				if (random.nextBoolean())
+					placements.add(new double[] { distance + offset, angle - side });
+			}
+			Collections.shuffle(placements, random);
+			for (double[] placement : placements) {
+				double direction = random.nextBoolean() ? placement[1] : placement[1] + Math.PI;
+				addWorm(pos.getX() + placement[0] * Math.cos(direction),
+						pos.getY() + placement[0] * Math.sin(direction),
+						random.nextBoolean() ? 0.5 : 0.25 + random.nextDouble());
+			}
+			assertNotNull(searchAll(pos, angle));
+			assertSameSearch(pos, angle);
+			assertSameSearch(pos, angle + Math.PI);
+			assertSameSearch(pos, angle + 1e-3);
+			// remove the worm found, and search again
+			removeWorm(grid.getNearestInDirection(pos, angle));
+			assertSameSearch(pos, angle);
+		}
+	}
+
+	@Test
+	public void testNearestInDirectionMovedWorm() {
+		Position pos = new Position(10, 50);
+		Worm near = addWorm(20, 50, 0.5);
+		Worm far = addWorm(60, 50, 1.0);
+		assertSame(near, grid.getNearestInDirection(pos, 0));
+		moveWorm(near, 20, 80);
+		grid.update(near);
+		assertSame(far, grid.getNearestInDirection(pos, 0));
+		moveWorm(far, 90, 50);
+		grid.update(far);
+		assertSame(far, grid.getNearestInDirection(pos, 0));
+		moveWorm(near, 89, 50);
+		grid.update(near);
+		assertSame(near, grid.getNearestInDirection(pos, 0));
+		removeWorm(near);
+		assertSame(far, grid.getNearestInDirection(pos, 0));
+		removeWorm(far);
+		assertNull(grid.getNearestInDirection(pos, 0));
+	}
+
+	@Test
+	public void testNearestInDirectionWholeCellWorms() {
+		// worms that span a cell, or more cells than are registered one by one
+		for (int round = 0; round < 50; round++) {
+			setup();
+			random = new Random(round);
+			for (int i = 0; i < 30; i++)
+				addWorm(20 + 60 * random.nextDouble(), 20 + 60 * random.nextDouble(),
+						random.nextBoolean() ? 0.5 : (random.nextBoolean() ? 1.0 : 5.0));
+			assertSameSearches(15, 70, 30);
+		}
+	}
+
+	/**
+	 * Create a projectile owned by the given worm, or by the shooter if it is
+	 * null, with the given radius.
+	 */
+	private Projectile createProjectile(Worm owner, double radius) {
+		Projectile projectile = new Projectile(world, (owner == null) ? shooter : owner, 0, new Rifle());
+		projectile.setRadius(radius);
+		return projectile;
+	}
+
+	/**
+	 * Return the first worm, in the order in which they were added, other than
+	 * its owner, that the given projectile at the given coordinates overlaps with.
+	 */
+	private Worm searchFirstOverlapping(Projectile projectile, double x, double y) {
+		for (Worm worm : worms)
+			if (worm != projectile.getOwner() && worm.overlapsWith(projectile, x, y))
+				return worm;
+		return null;
+	}
+
+	/**
+	 * Return the distance the given projectile at the given coordinates can
+	 * travel before it overlaps with a worm other than its owner, looking at all
+	 * worms and bounded by the reach of the grid, two cells.
+	 */
+	private double searchClearance(Projectile projectile, double x, double y) {
+		double clearance = 2 * grid.getCellSize();
+		for (Worm worm : worms)
+			if (worm != projectile.getOwner()) {
+				Position pos = worm.getVector().getPosition();
+				clearance = Math.min(clearance,
+						Math.hypot(pos.getX() - x, pos.getY() - y) - worm.getRadius());
+			}
+		return Math.max(0, clearance - projectile.getRadius());
+	}
+
+	private void assertSameQueries(Projectile projectile, double x, double y) {
+		assertSame(searchFirstOverlapping(projectile, x, y),
+				grid.getFirstOverlapping(projectile, x, y));
+		assertEquals(searchClearance(projectile, x, y),
+				grid.getClearance(projectile, x, y), 0);
+	}
+
+	/**
+	 * Check the overlapping worm and the clearance the grid returns against
+	 * looking at all worms, for projectiles of random sizes and owners at random
+	 * positions in the given square and near random worms.
+	 */
+	private int assertSameQueries(double min, double size, int nbQueries) {
+		int nbFound = 0;
+		for (int query = 0; query < nbQueries; query++) {
+			Worm owner = random.nextBoolean() ? worms.get(random.nextInt(worms.size())) : null;
+			double[] radiuses = new double[] { 0.01, 0.3, 1.0, 3.0, 6.0 };
+			Projectile projectile = createProjectile(owner, radiuses[random.nextInt(radiuses.length)]);
+			assertSameQueries(projectile, min + size * random.nextDouble(),
+					min + size * random.nextDouble());
+			Position target = worms.get(random.nextInt(worms.size())).getVector().getPosition();
+			double x = target.getX() + 1.5 * random.nextGaussian();
+			double y = target.getY() + 1.5 * random.nextGaussian();
+			assertSameQueries(projectile, x, y);
+			if (grid.getFirstOverlapping(projectile, x, y) != null)
+				nbFound++;
+		}
+		return nbFound;
+	}
+
+	@Test
+	public void testProjectileQueriesRandomLayouts() {
+		int nbFound = 0;
+		for (int layout = 0; layout < 100; layout++) {
+			setup();
+			random = new Random(layout);
+			double size = (layout % 2 == 0) ? 12.0 : 90.0;
+			double min = 50.0 - size / 2;
+			int nbWorms = 1 + random.nextInt(40);
+			for (int i = 0; i < nbWorms; i++)
+				addWorm(min + size * random.nextDouble(), min + size * random.nextDouble(),
+						randomRadius());
+			nbFound += assertSameQueries(min, size, 20);
+			// move some worms, possibly to other cells, and let some grow or shrink
+			for (Worm worm : new ArrayList<Worm>(worms)) {
+				if (random.nextInt(3) == 0) {
+					double x = worm.getVector().getPosition().getX();
+					double y = worm.getVector().getPosition().getY();
+					double step = (random.nextBoolean() ? 0.3 : 5.0);
+					moveWorm(worm, x + step * random.nextGaussian(), y + step * random.nextGaussian());
+				}
+				if (random.nextInt(4) == 0)
+					resizeWorm(worm, randomRadius());
+				grid.update(worm);
+			}
+			nbFound += assertSameQueries(min, size, 20);
+			// remove some worms, and add others after them
+			for (Worm worm : new ArrayList<Worm>(worms))
+				if (worms.size() > 1 && random.nextInt(4) == 0)
+					removeWorm(worm);
+			for (int i = random.nextInt(5); i > 0; i--)
+				addWorm(min + size * random.nextDouble(), min + size * random.nextDouble(),
+						randomRadius());
+			nbFound += assertSameQueries(min, size, 20);
+		}
+		// the queries near worms mostly hit one
+		assertTrue(nbFound > 1000);
+	}
+
+	@Test
+	public void testFirstOverlappingInTurnOrder() {
+		// worms piled up on the same spot, some of them too large for the cells
+		for (int round = 0; round < 20; round++) {
+			setup();
+			random = new Random(round);
+			for (int i = 0; i < 10; i++)
+				addWorm(50 + random.nextDouble(), 50 + random.nextDouble(),
+						random.nextInt(3) == 0 ? 5.0 : 0.5 + random.nextDouble());
+			Projectile projectile = createProjectile(null, 0.3);
+			while (!worms.isEmpty()) {
+				assertSame(worms.get(0), grid.getFirstOverlapping(projectile, 50.5, 50.5));
+				// the owner of a projectile is passed over
+				Projectile owned = createProjectile(worms.get(0), 0.3);
+				assertSame(worms.size() > 1 ? worms.get(1) : null,
+						grid.getFirstOverlapping(owned, 50.5, 50.5));
+				removeWorm(worms.get(random.nextInt(worms.size())));
+			}
+		}
+		// a world answers with the first of its worms in turn order
+		setup();
+		Worm first = facade.createWorm(world, 52.0, 51.01, 0, 1.0, "First", null);
+		Worm second = facade.createWorm(world, 50.0, 51.01, 0, 1.0, "Second", null);
+		Worm third = facade.createWorm(world, 51.0, 51.01, 0, 1.0, "Third", null);
+		Projectile projectile = createProjectile(null, 0.3);
+		assertSame(first, world.getOverlappingWorms(projectile, 51.0, 51.01));
+		assertSame(second, world.getOverlappingWorms(createProjectile(first, 0.3), 51.0, 51.01));
+		assertSame(third, world.getOverlappingWorms(projectile, 51.0, 52.2));
+	}
+
+	@Test
+	public void testUpdateAcrossCells() {
+		Worm worm = addWorm(10.5, 10.5, 0.4);
+		Projectile projectile = createProjectile(null, 0.01);
+		assertSame(worm, grid.getFirstOverlapping(projectile, 10.5, 10.5));
+		moveWorm(worm, 30.5, 40.5);
+		grid.update(worm);
+		assertNull(grid.getFirstOverlapping(projectile, 10.5, 10.5));
+		assertEquals(2.0 - 0.01, grid.getClearance(projectile, 10.5, 10.5), 1e-12);
+		assertSame(worm, grid.getFirstOverlapping(projectile, 30.5, 40.5));
+		assertEquals(0.6 - 0.01, grid.getClearance(projectile, 31.5, 40.5), 1e-12);
+		// a move within the same cells
+		moveWorm(worm, 30.55, 40.5);
+		grid.update(worm);
+		assertSame(worm, grid.getFirstOverlapping(projectile, 30.9, 40.5));
+		// a move over a cell border, just beyond it
+		moveWorm(worm, 31.45, 40.5);
+		grid.update(worm);
+		assertSame(worm, grid.getFirstOverlapping(projectile, 31.8, 40.5));
+		assertNull(grid.getFirstOverlapping(projectile, 30.9, 40.5));
+		assertSameQueries(projectile, 33.0, 40.5);
+		// an update of a worm that did not move changes nothing
+		grid.update(worm);
+		assertSame(worm, grid.getFirstOverlapping(projectile, 31.8, 40.5));
+		// updates of worms the grid does not hold are ignored
+		removeWorm(worm);
+		grid.update(worm);
+		assertNull(grid.getFirstOverlapping(projectile, 31.8, 40.5));
+	}
+
+	@Test
+	public void testOversizedWorms() {
+		Worm large = addWorm(50, 50, 5.0);
+		Worm small = addWorm(20, 20, 0.5);
+		Projectile projectile = createProjectile(null, 0.01);
+		assertSame(large, grid.getFirstOverlapping(projectile, 54.0, 50.0));
+		assertNull(grid.getFirstOverlapping(projectile, 80.0, 80.0));
+		assertEquals(1.0 - 0.01, grid.getClearance(projectile, 50.0, 56.0), 1e-12);
+		assertEquals(2.0 - 0.01, grid.getClearance(projectile, 50.0, 58.0), 1e-12);
+		// a worm that grows too large for the cells, and shrinks again
+		resizeWorm(small, 5.0);
+		grid.update(small);
+		assertSame(small, grid.getFirstOverlapping(projectile, 24.0, 20.0));
+		assertEquals(0.5 - 0.01, grid.getClearance(projectile, 20.0, 25.5), 1e-12);
+		resizeWorm(small, 0.5);
+		grid.update(small);
+		assertNull(grid.getFirstOverlapping(projectile, 24.0, 20.0));
+		assertSame(small, grid.getFirstOverlapping(projectile, 20.3, 20.0));
+		// a large worm, added first, moved over a small one
+		moveWorm(large, 22.0, 20.0);
+		grid.update(large);
+		assertSame(large, grid.getFirstOverlapping(projectile, 20.3, 20.0));
+		assertSame(small, grid.getFirstOverlapping(createProjectile(large, 0.01), 20.3, 20.0));
+		assertSame(large, grid.getFirstOverlapping(projectile, 24.0, 20.0));
+		// a small worm added after a large one it overlaps
+		Worm late = addWorm(26.0, 20.0, 0.5);
+		assertSame(large, grid.getFirstOverlapping(projectile, 26.0, 20.0));
+		removeWorm(large);
+		assertSame(late, grid.getFirstOverlapping(projectile, 26.0, 20.0));
+		// a projectile too large for the cells
+		Projectile huge = createProjectile(null, 6.0);
+		assertSame(small, grid.getFirstOverlapping(huge, 25.0, 20.0));
+		assertSameQueries(huge, 25.0, 20.0);
+		assertEquals(0, grid.getClearance(huge, 25.0, 20.0), 0);
+	}
+}
@@ -0,0 +1,271 @@
+package worms.model.programs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static worms.model.TestSupport.createFlatWorld;
+import static worms.model.TestSupport.executeTurn;
+import static worms.model.TestSupport.lines;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.gui.game.IActionHandler;
+import worms.model.Facade;
+import worms.model.IFacade;
+import worms.model.Program;
+import worms.model.SimpleActionHandler;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.expressions.BoolLiteral;
+import worms.model.programs.expressions.DoubleLiteral;
+import worms.model.programs.expressions.Expression;
+import worms.model.programs.statements.Assignment;
+import worms.model.programs.statements.If;
+import worms.model.programs.statements.Print;
+import worms.model.programs.statements.Sequence;
+import worms.model.programs.statements.Skip;
+import worms.model.programs.statements.Statement;
+import worms.model.programs.statements.Turn;
+import worms.model.programs.statements.While;
+import worms.model.programs.types.Type;
+
+/**
+ * Checks each rewrite of the program optimizer, and that optimized programs
+ * behave the same as the programs they were optimized from, up to the amount
+ * of instructions they execute in every turn.
+ */
+public class ProgramOptimizerTest {
+
+	private IFacade facade;
+
+	private IActionHandler handler;
+
+	private World world;
+
+	// the worms performing the original and the optimized program
+	private Worm originalWorm, optimizedWorm;
+
+	private ProgramOptimizer optimizer;
+
+	// the original and the optimized statement of the program last parsed
+	private Statement original, optimized;
+
+	private HashMap<String, Type> globals;
+
+	private List<String> variables;
+
+	@Before
+	public void setup() {
+		facade = new Facade();
+		handler = new SimpleActionHandler(facade);
+		world = createFlatWorld(facade);
+		originalWorm = facade.createWorm(world, 30.0, 50.51, 0, 0.5,
+				"Original", null);
+		optimizedWorm = facade.createWorm(world, 70.0, 50.51, 0, 0.5,
+				"Optimized", null);
+		optimizer = new ProgramOptimizer();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void parse(String text) {
+		ProgramFactoryImpl factory = new ProgramFactoryImpl();
+		ProgramParser<Expression, Statement, Type> parser =
+				new ProgramParser<Expression, Statement, Type>(factory);
+		parser.parse(text);
+		assertTrue(parser.getErrors().isEmpty());
+		original = parser.getStatement();
+		globals = (HashMap<String, Type>) parser.getGlobals();
+		variables = factory.getVariables();
+		optimized = optimizer.optimize(original);
+		assertEquals(ProgramOptimizer.countNodes(original), optimizer.getNbNodesBefore());
+		assertEquals(ProgramOptimizer.countNodes(optimized), optimizer.getNbNodesAfter());
+	}
+
+	private Program createProgram(Statement statement, Worm worm, int budget) {
+		Program program = new Program(handler, statement, globals, variables, "");
+		program.setPerformingWorm(worm);
+		program.setInstructionBudget(budget);
+		return program;
+	}
+
+	private Map<String, Object> values(Program program) {
+		Map<String, Object> result = new HashMap<String, Object>();
+		for (Map.Entry<String, DoubleLiteral> entry : program.getDoubles().entrySet())
+			result.put(entry.getKey(), entry.getValue().getResult());
+		for (Map.Entry<String, BoolLiteral> entry : program.getBools().entrySet())
+			result.put(entry.getKey(), entry.getValue().getResult());
+		return result;
+	}
+
+	/**
+	 * Run the original and the optimized statement of the program last parsed
+	 * for the given amount of turns with the given instruction budget, check
+	 * that they did the same in every turn and return what they printed.
+	 */
+	private String assertSameBehaviour(int budget, int turns) {
+		Program originalProgram = createProgram(original, originalWorm, budget);
+		Program optimizedProgram = createProgram(optimized, optimizedWorm, budget);
+		StringBuilder output = new StringBuilder();
+		for (int turn = 0; turn < turns; turn++) {
+			String printed = executeTurn(originalProgram);
+			assertEquals(printed, executeTurn(optimizedProgram));
+			assertEquals(originalProgram.getInstructionNb(), optimizedProgram.getInstructionNb());
+			assertEquals(values(originalProgram), values(optimizedProgram));
+			assertEquals(facade.getOrientation(originalWorm),
+					facade.getOrientation(optimizedWorm), 1e-10);
+			output.append(printed);
+		}
+		return output.toString();
+	}
+
+	/**
+	 * Check that the program last parsed behaves the same after its optimization,
+	 * whatever its instruction budget, and return what it printed in one turn.
+	 */
+	private String assertSameBehaviour() {
+		for (int budget = 1; budget <= 12; budget++)
+			assertSameBehaviour(budget, 8);
+		return assertSameBehaviour(Program.getDEFAULT_INSTRUCTION_BUDGET(), 1);
+	}
+
+	/**
+	 * Collect the statements of the given statement, itself included, that are
+	 * of the given class.
+	 */
+	private <S extends Statement> List<S> find(Statement statement, Class<S> type) {
+		List<S> result = new ArrayList<S>();
+		collect(statement, type, result);
+		return result;
+	}
+
+	private <S extends Statement> void collect(Statement statement, Class<S> type, List<S> result) {
+		if (type.isInstance(statement))
+			result.add(type.cast(statement));
+		if (statement instanceof Sequence)
+			for (Statement part : ((Sequence) statement).getStatements())
+				collect(part, type, result);
+		else if (statement instanceof If) {
+			collect(((If) statement).getThen(), type, result);
+			collect(((If) statement).getOtherwise(), type, result);
+		} else if (statement instanceof While)
+			collect(((While) statement).getBody(), type, result);
+	}
+
+	private boolean isLiteral(Expression expression) {
+		return expression instanceof DoubleLiteral || expression instanceof BoolLiteral;
+	}
+
+	@Test
+	public void testFoldLiterals() {
+		parse("double x; bool b; x := (1 + 2) * 3 - 4; b := 1 < 2; turn (0.1 + 0.2); "
+				+ "print sqrt(16); print 9 / 2; print 2 >= 3; print 1 <= 1; print 3 > 2; "
+				+ "print 1 != 2; print true != true; print x + 1;");
+		List<Print> prints = find(optimized, Print.class);
+		assertEquals(8, prints.size());
+		for (int index = 0; index < 7; index++)
+			assertTrue(isLiteral(prints.get(index).getExpression()));
+		assertFalse(isLiteral(prints.get(7).getExpression()));
+		for (Assignment assignment : find(optimized, Assignment.class))
+			assertTrue(isLiteral(assignment.getValue()));
+		for (Turn turn : find(optimized, Turn.class))
+			assertTrue(isLiteral(turn.getAngle()));
+		assertEquals(lines(4.0, 4.5, false, true, true, true, false, 6.0),
+				assertSameBehaviour());
+		assertTrue(optimizer.getNbNodesAfter() < optimizer.getNbNodesBefore());
+	}
+
+	@Test
+	public void testFoldPartly() {
+		// only the literal parts of an expression with a variable are folded
+		parse("double x; x := 2; x := x * (3 + 4); print x;");
+		assertEquals(2, optimizer.getNbNodesBefore() - optimizer.getNbNodesAfter());
+		assertEquals(lines(14.0), assertSameBehaviour());
+	}
+
+	@Test
+	public void testEqualityOfFoldableOperands() {
+		// an equality compares its operands as written, and an addition is no literal
+		parse("bool b; bool c; b := (1 + 2) == 3; c := 3 == 3; print b; print c; "
+				+ "print (1 + 2) == (1 + 2); print true == true;");
+		List<Assignment> assignments = find(optimized, Assignment.class);
+		assertEquals(2, assignments.size());
+		assertFalse(((BoolLiteral) assignments.get(0).getValue()).getResult());
+		assertTrue(((BoolLiteral) assignments.get(1).getValue()).getResult());
+		assertEquals(lines(false, true, false, true), assertSameBehaviour());
+	}
+
+	@Test
+	public void testIfWithLiteralCondition() {
+		parse("double x; if (1 < 2) then { x := 1; print x; } else { x := 2; } "
+				+ "if (2 < 1) then { x := x + 10; } else { x := x + 20; } print x;");
+		assertTrue(find(original, If.class).size() == 2);
+		assertTrue(find(optimized, If.class).isEmpty());
+		// each conditional became a sequence of the one branch it takes
+		int nbBranches = 0;
+		for (Sequence sequence : find(optimized, Sequence.class))
+			if (sequence.getStatements().size() == 1
+					&& find(sequence, Assignment.class).size() >= 1
+					&& !find(original, Sequence.class).contains(sequence))
+				nbBranches++;
+		assertEquals(2, nbBranches);
+		assertEquals(lines(1.0, 21.0), assertSameBehaviour());
+		assertTrue(optimizer.getNbNodesAfter() < optimizer.getNbNodesBefore());
+	}
+
+	@Test
+	public void testIfWithVariableCondition() {
+		parse("double x; if (x < 2) then { x := 1 + 1; } else { skip; } print x;");
+		assertEquals(1, find(optimized, If.class).size());
+		assertEquals(lines(2.0), assertSameBehaviour());
+	}
+
+	@Test
+	public void testWhileFalse() {
+		parse("double x; while (2 < 1) do { x := x + 1; print x; } print x;");
+		assertEquals(1, find(original, While.class).size());
+		assertTrue(find(optimized, While.class).isEmpty());
+		assertEquals(1, find(optimized, Skip.class).size() - find(original, Skip.class).size());
+		assertEquals(lines(0.0), assertSameBehaviour());
+	}
+
+	@Test
+	public void testCodeAfterWhileTrueDropped() {
+		parse("double x; x := 1; while (true) do { x := x * 2; } print x; turn 0.5; x := 100;");
+		assertEquals(1, find(original, Print.class).size());
+		assertTrue(find(optimized, Print.class).isEmpty());
+		assertTrue(find(optimized, Turn.class).isEmpty());
+		assertEquals(2, find(optimized, Assignment.class).size());
+		assertEquals("", assertSameBehaviour());
+		assertEquals(0.0, facade.getOrientation(optimizedWorm), 1e-10);
+	}
+
+	@Test
+	public void testNodeCounts() {
+		parse("print 1 + 2;");
+		// the addition and one of its operands are gone
+		assertEquals(2, optimizer.getNbNodesBefore() - optimizer.getNbNodesAfter());
+		parse("double x; while (false) do { x := 1; }");
+		// the loop, its condition, its body and the value of the body became a skip
+		assertEquals(3, optimizer.getNbNodesBefore() - optimizer.getNbNodesAfter());
+		parse("double x; x := 1;");
+		assertEquals(optimizer.getNbNodesBefore(), optimizer.getNbNodesAfter());
+	}
+
+	@Test
+	public void testMissingPartsLeftAlone() {
+		// the parser leaves the operators it does not support out
+		parse("if (true && false) then { print 1 + 2; } else { print 2; }");
+		List<If> conditionals = find(original, If.class);
+		assertEquals(1, conditionals.size());
+		assertSame(conditionals.get(0), find(optimized, If.class).get(0));
+		parse("while (true || false) do { print 1 + 2; }");
+		assertSame(find(original, While.class).get(0), find(optimized, While.class).get(0));
+	}
+}